@@ -0,0 +1,103 @@
+package hello.querydsl.benchmark;
+
+import hello.querydsl.QuerydslApplication;
+import hello.querydsl.entity.Member;
+import hello.querydsl.entity.Team;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.persistence.EntityManager;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 벤치마크 공통 상태
+ *
+ * 내장 H2 메모리 DB 로 애플리케이션 컨텍스트를 띄우고
+ * memberCount 명의 회원을 teamCount 개의 팀에 나누어 저장한다.
+ */
+@State(Scope.Benchmark)
+public class BenchmarkContext {
+
+    @Param({"10000"})
+    public int memberCount;
+
+    @Param({"100"})
+    public int teamCount;
+
+    private ConfigurableApplicationContext context;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+
+        context = new SpringApplicationBuilder(QuerydslApplication.class)
+                        .web(WebApplicationType.NONE)
+                        .run(
+                                "--spring.profiles.active=bench",
+                                "--spring.datasource.url=jdbc:h2:mem:bench;DB_CLOSE_DELAY=-1",
+                                "--spring.jpa.properties.hibernate.format_sql=false",
+                                "--spring.jpa.properties.hibernate.use_sql_comments=false",
+                                "--spring.main.banner-mode=off",
+                                "--logging.level.root=warn",
+                                "--logging.level.org.hibernate.SQL=warn",
+                                "--sql-log.mode=off"
+                        );
+
+        generateDataset();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+
+        context.close();
+    }
+
+    public <T> T getBean(Class<T> type) {
+
+        return context.getBean(type);
+    }
+
+    /**
+     * 벤치마크 대상 데이터 생성
+     *
+     * 회원 이름은 member0 ~ member{memberCount - 1}, 나이는 0 ~ 99 로 반복
+     */
+    private void generateDataset() {
+
+        EntityManager em = getBean(EntityManager.class);
+        TransactionTemplate transactionTemplate = new TransactionTemplate(getBean(PlatformTransactionManager.class));
+
+        transactionTemplate.executeWithoutResult(status -> {
+
+            List<Team> teams = new ArrayList<>();
+
+            for (int i = 0; i < teamCount; i++) {
+
+                Team team = new Team("team" + i);
+
+                em.persist(team);
+                teams.add(team);
+            }
+
+            for (int i = 0; i < memberCount; i++) {
+
+                em.persist(new Member("member" + i, i % 100, teams.get(i % teamCount)));
+
+                if (i % 1000 == 0) {
+
+                    em.flush();
+                    em.clear();
+                }
+            }
+        });
+    }
+}
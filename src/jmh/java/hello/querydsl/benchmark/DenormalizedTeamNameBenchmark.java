@@ -0,0 +1,103 @@
+package hello.querydsl.benchmark;
+
+import com.querydsl.jpa.impl.JPAQueryFactory;
+import hello.querydsl.dto.MemberTeamDto;
+import hello.querydsl.dto.QMemberTeamDto;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import javax.persistence.EntityManager;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static hello.querydsl.entity.QMember.member;
+import static hello.querydsl.entity.QTeam.team;
+
+/**
+ * team 조인 vs 역정규화한 팀 이름(member.teamName) 벤치마크
+ *
+ * 100만 회원, 1만 팀 기준 실행
+ * ./gradlew jmh -PjmhArgs="DenormalizedTeamNameBenchmark -p memberCount=1000000 -p teamCount=10000"
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class DenormalizedTeamNameBenchmark {
+
+    private JPAQueryFactory queryFactory;
+    private String teamName;
+
+    @Setup
+    public void setUp(BenchmarkContext context) {
+
+        queryFactory = new JPAQueryFactory(context.getBean(EntityManager.class));
+        teamName = "team" + (context.teamCount / 2);
+    }
+
+    /**
+     * 팀 이름으로 검색 - team 조인
+     */
+    @Benchmark
+    public List<MemberTeamDto> searchByTeamName_join() {
+
+        return queryFactory
+                .select(new QMemberTeamDto(member.id, member.username, member.age, team.id, team.name))
+                .from(member)
+                .leftJoin(member.team, team)
+                .where(team.name.eq(teamName))
+                .fetch();
+    }
+
+    /**
+     * 팀 이름으로 검색 - 역정규화 컬럼
+     */
+    @Benchmark
+    public List<MemberTeamDto> searchByTeamName_column() {
+
+        return queryFactory
+                .select(new QMemberTeamDto(member.id, member.username, member.age, member.team.id, member.teamName))
+                .from(member)
+                .where(member.teamName.eq(teamName))
+                .fetch();
+    }
+
+    /**
+     * 팀 이름 조회 - team 조인 (첫 페이지)
+     */
+    @Benchmark
+    public List<MemberTeamDto> firstPage_join() {
+
+        return queryFactory
+                .select(new QMemberTeamDto(member.id, member.username, member.age, team.id, team.name))
+                .from(member)
+                .leftJoin(member.team, team)
+                .where(member.age.between(30, 31))
+                .limit(100)
+                .fetch();
+    }
+
+    /**
+     * 팀 이름 조회 - 역정규화 컬럼 (첫 페이지)
+     */
+    @Benchmark
+    public List<MemberTeamDto> firstPage_column() {
+
+        return queryFactory
+                .select(new QMemberTeamDto(member.id, member.username, member.age, member.team.id, member.teamName))
+                .from(member)
+                .where(member.age.between(30, 31))
+                .limit(100)
+                .fetch();
+    }
+}
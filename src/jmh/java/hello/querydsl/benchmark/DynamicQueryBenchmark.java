@@ -0,0 +1,56 @@
+package hello.querydsl.benchmark;
+
+import hello.querydsl.dto.MemberSearchCondition;
+import hello.querydsl.dto.MemberTeamDto;
+import hello.querydsl.repository.MemberJpaRepository;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 동적 쿼리 벤치마크 - BooleanBuilder vs Where 절 파라미터
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class DynamicQueryBenchmark {
+
+    private MemberJpaRepository memberJpaRepository;
+    private MemberSearchCondition condition;
+
+    @Setup
+    public void setUp(BenchmarkContext context) {
+
+        memberJpaRepository = context.getBean(MemberJpaRepository.class);
+
+        condition = new MemberSearchCondition();
+        condition.setTeamName("team1");
+        condition.setAgeGoe(30);
+        condition.setAgeLoe(40);
+    }
+
+    @Benchmark
+    public List<MemberTeamDto> searchByBuilder() {
+
+        return memberJpaRepository.searchByBuilder(condition);
+    }
+
+    @Benchmark
+    public List<MemberTeamDto> search() {
+
+        return memberJpaRepository.search(condition);
+    }
+}
@@ -0,0 +1,151 @@
+package hello.querydsl.benchmark;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import hello.querydsl.dto.MemberSearchCondition;
+import hello.querydsl.dto.MemberTeamDto;
+import hello.querydsl.export.MemberExporter;
+import hello.querydsl.export.MemberTeamBinaryReader;
+import hello.querydsl.export.MemberTeamBinaryWriter;
+import hello.querydsl.repository.MemberRepository;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.channels.Channels;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 회원 내보내기 JSON vs 바이너리 (MemberTeamBinaryFormat)
+ *
+ * exportJson / exportBinary : DB 에서 나누어 조회하면서 쓰기 (MemberExporter)
+ * encodeJson / encodeBinary : 조회해 둔 회원 목록을 쓰기만 (인코딩 비용)
+ * decodeBinary              : 바이너리 읽기 (MemberTeamBinaryReader)
+ *
+ * 결과 크기는 README 의 벤치마크 결과 참고 (export, encode 메소드가 쓴 바이트 수를 반환한다.)
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ExportBenchmark {
+
+    private static final int BLOCK_SIZE = 1000;
+
+    private MemberExporter memberExporter;
+    private ObjectMapper objectMapper;
+
+    private List<List<MemberTeamDto>> blocks;
+    private byte[] binary;
+
+    @Setup
+    public void setUp(BenchmarkContext context) {
+
+        memberExporter = context.getBean(MemberExporter.class);
+        objectMapper = context.getBean(ObjectMapper.class);
+
+        blocks = new ArrayList<>();
+        context.getBean(MemberRepository.class).scan(new MemberSearchCondition(), BLOCK_SIZE, blocks::add);
+
+        ByteArrayOutputStream binaryOut = new ByteArrayOutputStream();
+
+        memberExporter.exportBinary(new MemberSearchCondition(), Channels.newChannel(binaryOut));
+
+        binary = binaryOut.toByteArray();
+    }
+
+    @Benchmark
+    public long exportJson() throws IOException {
+
+        CountingOutputStream out = new CountingOutputStream();
+
+        memberExporter.exportJson(new MemberSearchCondition(), out);
+
+        return out.count;
+    }
+
+    @Benchmark
+    public long exportBinary() {
+
+        CountingOutputStream out = new CountingOutputStream();
+
+        memberExporter.exportBinary(new MemberSearchCondition(), Channels.newChannel(out));
+
+        return out.count;
+    }
+
+    @Benchmark
+    public long encodeJson() throws IOException {
+
+        CountingOutputStream out = new CountingOutputStream();
+
+        for (List<MemberTeamDto> block : blocks) {
+
+            objectMapper.writeValue(out, block);
+        }
+
+        return out.count;
+    }
+
+    @Benchmark
+    public long encodeBinary() {
+
+        CountingOutputStream out = new CountingOutputStream();
+        MemberTeamBinaryWriter writer = new MemberTeamBinaryWriter(Channels.newChannel(out));
+
+        for (List<MemberTeamDto> block : blocks) {
+
+            writer.writeBlock(block);
+        }
+
+        writer.finish();
+
+        return out.count;
+    }
+
+    @Benchmark
+    public long decodeBinary() throws IOException {
+
+        MemberTeamBinaryReader reader = new MemberTeamBinaryReader(Channels.newChannel(new ByteArrayInputStream(binary)));
+
+        long[] ages = new long[1];
+
+        reader.forEach(member -> ages[0] += member.getAge());
+
+        return ages[0];
+    }
+
+    /**
+     * 쓴 바이트 수만 세는 출력 (네트워크, 디스크 비용 제외)
+     */
+    private static final class CountingOutputStream extends OutputStream {
+
+        private long count;
+
+        @Override
+        public void write(int b) {
+
+            count++;
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) {
+
+            count += len;
+        }
+    }
+}
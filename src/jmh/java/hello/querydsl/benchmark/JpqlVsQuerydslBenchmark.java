@@ -0,0 +1,51 @@
+package hello.querydsl.benchmark;
+
+import hello.querydsl.entity.Member;
+import hello.querydsl.repository.MemberJpaRepository;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * JPQL vs Querydsl 벤치마크
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class JpqlVsQuerydslBenchmark {
+
+    private MemberJpaRepository memberJpaRepository;
+    private String username;
+
+    @Setup
+    public void setUp(BenchmarkContext context) {
+
+        memberJpaRepository = context.getBean(MemberJpaRepository.class);
+        username = "member" + (context.memberCount / 2);
+    }
+
+    @Benchmark
+    public List<Member> jpql() {
+
+        return memberJpaRepository.findByUsername(username);
+    }
+
+    @Benchmark
+    public List<Member> querydsl() {
+
+        return memberJpaRepository.findByUsername_Querydsl(username);
+    }
+}
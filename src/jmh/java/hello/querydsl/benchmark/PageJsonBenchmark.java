@@ -0,0 +1,97 @@
+package hello.querydsl.benchmark;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import hello.querydsl.dto.MemberSearchCondition;
+import hello.querydsl.dto.MemberTeamDto;
+import hello.querydsl.repository.MemberRepository;
+import hello.querydsl.web.MemberTeamPageWriter;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 회원 페이지 응답 직렬화 PageImpl + Jackson vs MemberTeamPageWriter
+ *
+ * 조회는 Setup 에서 한 번만 하고 직렬화 비용만 측정한다.
+ * 할당량은 -prof gc 로 확인 (gc.alloc.rate.norm)
+ * 응답 크기는 README 의 벤치마크 결과 참고 (벤치마크 메소드가 쓴 바이트 수를 반환한다.)
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class PageJsonBenchmark {
+
+    @Param({"20", "100"})
+    public int pageSize;
+
+    private ObjectMapper objectMapper;
+    private MemberTeamPageWriter pageWriter;
+
+    private Page<MemberTeamDto> page;
+
+    @Setup
+    public void setUp(BenchmarkContext context) {
+
+        objectMapper = context.getBean(ObjectMapper.class);
+        pageWriter = new MemberTeamPageWriter(objectMapper.getFactory());
+
+        page = context.getBean(MemberRepository.class).searchPageComplex(new MemberSearchCondition(), PageRequest.of(0, pageSize));
+    }
+
+    @Benchmark
+    public long jackson() throws IOException {
+
+        CountingOutputStream out = new CountingOutputStream();
+
+        objectMapper.writeValue(out, page);
+
+        return out.count;
+    }
+
+    @Benchmark
+    public long compact() throws IOException {
+
+        CountingOutputStream out = new CountingOutputStream();
+
+        pageWriter.write(page, out);
+
+        return out.count;
+    }
+
+    /**
+     * 쓴 바이트 수만 세는 출력
+     */
+    private static final class CountingOutputStream extends OutputStream {
+
+        private long count;
+
+        @Override
+        public void write(int b) {
+
+            count++;
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) {
+
+            count += len;
+        }
+    }
+}
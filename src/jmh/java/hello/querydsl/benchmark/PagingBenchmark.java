@@ -0,0 +1,89 @@
+package hello.querydsl.benchmark;
+
+import hello.querydsl.dto.MemberSearchCondition;
+import hello.querydsl.dto.MemberTeamDto;
+import hello.querydsl.entity.Member;
+import hello.querydsl.repository.MemberRepository;
+import hello.querydsl.repository.MemberTestRepository;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 페이징 방식 벤치마크
+ *
+ * fetchResults(), 카운트 쿼리 분리, 카운트 쿼리 없는 Slice, Querydsl4RepositorySupport
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class PagingBenchmark {
+
+    @Param({"0", "100"})
+    public int page;
+
+    private MemberRepository memberRepository;
+    private MemberTestRepository memberTestRepository;
+
+    private MemberSearchCondition condition;
+    private Pageable pageable;
+
+    @Setup
+    public void setUp(BenchmarkContext context) {
+
+        memberRepository = context.getBean(MemberRepository.class);
+        memberTestRepository = context.getBean(MemberTestRepository.class);
+
+        condition = new MemberSearchCondition();
+        condition.setAgeGoe(10);
+
+        pageable = PageRequest.of(page, 20);
+    }
+
+    @Benchmark
+    public Page<MemberTeamDto> searchPageSimple() {
+
+        return memberRepository.searchPageSimple(condition, pageable);
+    }
+
+    @Benchmark
+    public Page<MemberTeamDto> searchPageComplex() {
+
+        return memberRepository.searchPageComplex(condition, pageable);
+    }
+
+    @Benchmark
+    public Slice<MemberTeamDto> searchSlice() {
+
+        return memberRepository.searchSlice(condition, pageable);
+    }
+
+    @Benchmark
+    public Page<Member> applyPagination() {
+
+        return memberTestRepository.applyPagination(condition, pageable);
+    }
+
+    @Benchmark
+    public Page<Member> applyPagination2() {
+
+        return memberTestRepository.applyPagination2(condition, pageable);
+    }
+}
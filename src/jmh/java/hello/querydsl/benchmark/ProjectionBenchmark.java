@@ -0,0 +1,84 @@
+package hello.querydsl.benchmark;
+
+import com.querydsl.core.types.Projections;
+import com.querydsl.jpa.impl.JPAQueryFactory;
+import hello.querydsl.dto.MemberDto;
+import hello.querydsl.dto.QMemberDto;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import javax.persistence.EntityManager;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static hello.querydsl.entity.QMember.member;
+
+/**
+ * 프로젝션 방식 벤치마크
+ *
+ * 프로퍼티 접근(bean), 필드 직접 접근(fields), 생성자(constructor), @QueryProjection
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ProjectionBenchmark {
+
+    private JPAQueryFactory queryFactory;
+
+    @Setup
+    public void setUp(BenchmarkContext context) {
+
+        queryFactory = new JPAQueryFactory(context.getBean(EntityManager.class));
+    }
+
+    @Benchmark
+    public List<MemberDto> bean() {
+
+        return queryFactory
+                .select(Projections.bean(MemberDto.class, member.username, member.age))
+                .from(member)
+                .where(member.age.between(30, 40))
+                .fetch();
+    }
+
+    @Benchmark
+    public List<MemberDto> fields() {
+
+        return queryFactory
+                .select(Projections.fields(MemberDto.class, member.username, member.age))
+                .from(member)
+                .where(member.age.between(30, 40))
+                .fetch();
+    }
+
+    @Benchmark
+    public List<MemberDto> constructor() {
+
+        return queryFactory
+                .select(Projections.constructor(MemberDto.class, member.username, member.age))
+                .from(member)
+                .where(member.age.between(30, 40))
+                .fetch();
+    }
+
+    @Benchmark
+    public List<MemberDto> queryProjection() {
+
+        return queryFactory
+                .select(new QMemberDto(member.username, member.age))
+                .from(member)
+                .where(member.age.between(30, 40))
+                .fetch();
+    }
+}
@@ -1,11 +1,7 @@
 package hello.querydsl;
 
-import com.querydsl.jpa.impl.JPAQueryFactory;
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
-import org.springframework.context.annotation.Bean;
-
-import javax.persistence.EntityManager;
 
 @SpringBootApplication
 public class QuerydslApplication {
@@ -14,17 +10,5 @@ public class QuerydslApplication {
 		SpringApplication.run(QuerydslApplication.class, args);
 	}
 
-	/**
-	 * JPAQueryFactory 스프링 빈 등록
-	 *
-	 * JPAQueryFactory 를 스프링 빈으로 등록해서 주입받아 사용 가능
-	 *
-	 * @param em
-	 * @return
-	 */
-//	@Bean
-//	JPAQueryFactory jpaQueryFactory(EntityManager em) {
-//
-//		return new JPAQueryFactory(em);
-//	}
+	// JPAQueryFactory 스프링 빈 등록은 QueryTracingConfig 참고 (쿼리 트레이싱 사용 여부에 따라 구현체 선택)
 }
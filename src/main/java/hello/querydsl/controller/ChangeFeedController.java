@@ -0,0 +1,38 @@
+package hello.querydsl.controller;
+
+import hello.querydsl.feed.ChangeFeed;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.MediaType;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+/**
+ * Member, Team 변경 구독
+ *
+ * /v1/members 를 주기적으로 조회하는 대신 변경 이벤트를 받아서 반영
+ *
+ * const source = new EventSource('/v1/changes');
+ * source.addEventListener('change', e => apply(JSON.parse(e.data)));
+ * source.addEventListener('reset', e => reloadAll());
+ */
+@RestController
+@RequiredArgsConstructor
+public class ChangeFeedController {
+
+    private final ChangeFeed changeFeed;
+
+    /**
+     * @param lastEventId 다시 연결할 때 EventSource 가 보내는 마지막 이벤트 아이디
+     * @param after 처음 연결할 때 이 아이디 이후부터 받기 (Last-Event-ID 를 보낼 수 없는 경우)
+     * @return
+     */
+    @GetMapping(value = "/v1/changes", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter changes(@RequestHeader(value = "Last-Event-ID", required = false) Long lastEventId,
+                              @RequestParam(required = false) Long after) {
+
+        return changeFeed.subscribe(lastEventId != null ? lastEventId : after);
+    }
+}
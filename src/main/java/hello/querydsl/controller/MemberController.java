@@ -1,16 +1,44 @@
 package hello.querydsl.controller;
 
+import com.querydsl.core.types.Predicate;
 import hello.querydsl.dto.MemberSearchCondition;
 import hello.querydsl.dto.MemberTeamDto;
+import hello.querydsl.dto.MemberTeamRow;
+import hello.querydsl.entity.Member;
+import hello.querydsl.repository.MemberHotPageCache;
 import hello.querydsl.repository.MemberJpaRepository;
+import hello.querydsl.repository.MemberLoaderSettings;
+import hello.querydsl.repository.MemberPagingGuard;
 import hello.querydsl.repository.MemberRepository;
+import hello.querydsl.repository.MemberTeamFields;
+import hello.querydsl.repository.MemberTeamLoader;
+import hello.querydsl.web.DataVersionETag;
 import lombok.RequiredArgsConstructor;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.querydsl.binding.QuerydslPredicate;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
 
+import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
 
 @RestController
 @RequiredArgsConstructor
@@ -18,6 +46,10 @@ public class MemberController {
 
     private final MemberJpaRepository memberJpaRepository;
     private final MemberRepository memberRepository;
+    private final MemberPagingGuard pagingGuard;
+    private final MemberTeamLoader memberTeamLoader;
+    private final MemberLoaderSettings loaderSettings;
+    private final MemberHotPageCache hotPageCache;
 
     /**
      * 조회
@@ -31,15 +63,232 @@ public class MemberController {
         return memberJpaRepository.search(condition);
     }
 
+    /**
+     * 여러 검색 조건을 한 번에 조회
+     *
+     * /v1/members 를 검색 조건마다 호출하는 대신 한 번의 요청, 한 번의 쿼리로 조회
+     *
+     * @param conditions 검색 조건 목록
+     * @return 검색 조건 순서대로 조회 결과
+     */
+    @PostMapping("/v1/members/batch")
+    public List<List<MemberTeamDto>> searchMemberBatch(@RequestBody List<MemberSearchCondition> conditions) {
+
+        return memberRepository.searchAll(conditions);
+    }
+
+    /**
+     * 회원 아이디로 조회
+     *
+     * 동시에 들어온 아이디 조회는 MemberTeamLoader 가 모아서 한 번의 IN 쿼리로 조회한다.
+     * member-loader.timeout-millis 안에 조회하지 못하면 503
+     *
+     * @param memberId
+     * @return
+     */
+    @GetMapping("/v1/members/{memberId}")
+    public MemberTeamDto findMember(@PathVariable Long memberId) {
+
+        MemberTeamDto member = await(memberTeamLoader.load(memberId));
+
+        if (member == null) {
+
+            throw new ResponseStatusException(HttpStatus.NOT_FOUND, "회원이 없습니다: " + memberId);
+        }
+
+        return member;
+    }
+
+    /**
+     * 여러 회원 아이디로 한 번에 조회
+     *
+     * 예) /v1/members/batch?ids=1,2,3
+     * 다른 요청의 아이디 조회와 함께 모아서 조회 (MemberTeamLoader)
+     *
+     * @param ids 회원 아이디 (최대 member-loader.max-ids 개)
+     * @return 요청한 아이디 순서대로 회원, 중복 아이디는 한 번만, 없는 아이디는 제외
+     */
+    @GetMapping(value = "/v1/members/batch", params = "ids")
+    public List<MemberTeamDto> findMembers(@RequestParam List<Long> ids) {
+
+        if (ids.size() > loaderSettings.getMaxIds()) {
+
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "ids 는 " + loaderSettings.getMaxIds() + "개까지 조회할 수 있습니다: " + ids.size());
+        }
+
+        if (ids.contains(null)) {
+
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "ids 에 빈 값이 있습니다.");
+        }
+
+        Map<Long, MemberTeamDto> members = await(memberTeamLoader.loadAll(ids));
+
+        return new ArrayList<>(members.values());
+    }
+
     @GetMapping("/v2/members")
+    @DataVersionETag
     public Page<MemberTeamDto> searchMemberV2(MemberSearchCondition condition, Pageable pageable) {
 
+        pagingGuard.check(pageable);
+
         return memberRepository.searchPageSimple(condition, pageable);
     }
 
+    /**
+     * 선택한 필드만 조회
+     *
+     * 예) /v2/members?fields=username,age
+     * team 이 필요 없는 필드만 선택하면 team 조인 없이 조회
+     *
+     * @param condition
+     * @param fields 쉼표로 구분한 MemberTeamDto 필드 이름
+     * @param pageable
+     * @return
+     */
+    @GetMapping(value = "/v2/members", params = "fields")
+    @DataVersionETag
+    public Page<MemberTeamRow> searchMemberV2Fields(MemberSearchCondition condition, @RequestParam String fields, Pageable pageable) {
+
+        pagingGuard.check(pageable);
+
+        return memberRepository.searchPageFields(condition, MemberTeamFields.parse(fields), pageable);
+    }
+
+    /**
+     * 팀 회원 페이징 조회 (team.members 컬렉션을 로딩하지 않는다.)
+     *
+     * @param teamId
+     * @param pageable
+     * @return
+     */
+    @GetMapping("/v1/teams/{teamId}/members")
+    public Page<MemberTeamDto> searchTeamMembers(@PathVariable Long teamId, Pageable pageable) {
+
+        pagingGuard.check(pageable);
+
+        return memberRepository.searchTeamMembers(teamId, pageable);
+    }
+
+    /**
+     * 자주 조회하는 조건의 첫 페이지는 MemberHotPageCache 에서 응답
+     *
+     * @param condition
+     * @param pageable
+     * @return
+     */
     @GetMapping("/v3/members")
+    @DataVersionETag
     public Page<MemberTeamDto> searchMemberV3(MemberSearchCondition condition, Pageable pageable) {
 
-        return memberRepository.searchPageComplex(condition, pageable);
+        pagingGuard.check(pageable);
+
+        return hotPageCache.searchPage(condition, pageable);
+    }
+
+    /**
+     * 카운트 쿼리 없이 다음 페이지 존재 여부만 조회
+     *
+     * @param condition
+     * @param pageable
+     * @return
+     */
+    @GetMapping("/v4/members")
+    @DataVersionETag
+    public Slice<MemberTeamDto> searchMemberV4(MemberSearchCondition condition, Pageable pageable) {
+
+        pagingGuard.check(pageable);
+
+        return memberRepository.searchSlice(condition, pageable);
+    }
+
+    /**
+     * 마지막으로 받은 회원 아이디 다음부터 조회 (키셋 페이징)
+     *
+     * 예) /v3/members?teamName=teamA&size=20&after=120
+     * page 로 조회할 수 있는 위치는 member-paging.max-offset 까지이고 (넘으면 400) 더 뒤쪽은 after 로 조회한다.
+     * 회원 아이디 순서로 조회하고, 다음 페이지가 있으면 Link: <...&after={마지막 memberId}>; rel="next" 헤더를 붙인다.
+     * 전체 건수 없이 Slice 로 응답
+     *
+     * @param condition
+     * @param after 이전 페이지의 마지막 회원 아이디, 처음부터 조회하면 0
+     * @param pageable 페이지 크기만 사용
+     * @return
+     */
+    @GetMapping(value = {"/v2/members", "/v3/members", "/v4/members"}, params = {"after", "!fields"})
+    @DataVersionETag
+    public ResponseEntity<Slice<MemberTeamDto>> searchMemberAfter(MemberSearchCondition condition, @RequestParam Long after, Pageable pageable) {
+
+        pagingGuard.keyset();
+
+        Slice<MemberTeamDto> slice = memberRepository.searchAfter(condition, after, pageable);
+
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok();
+
+        if (slice.hasNext()) {
+
+            String next = ServletUriComponentsBuilder.fromCurrentRequest()
+                            .replaceQueryParam("after", slice.getContent().get(slice.getNumberOfElements() - 1).getMemberId())
+                            .replaceQueryParam("page")
+                            .toUriString();
+
+            response.header(HttpHeaders.LINK, "<" + next + ">; rel=\"next\"");
+        }
+
+        return response.body(slice);
+    }
+
+    /**
+     * QuerydslPredicateExecutor 웹 바인딩 조건으로 조회
+     *
+     * 예) /v5/members?teamName=teamA&age=10&age=30&sort=username,desc
+     * 바인딩 가능한 프로퍼티는 MemberRepository.customize() 참고
+     *
+     * @param predicate
+     * @param pageable
+     * @return
+     */
+    @GetMapping("/v5/members")
+    public Slice<MemberTeamDto> searchMemberV5(@QuerydslPredicate(root = Member.class) Predicate predicate, Pageable pageable) {
+
+        pagingGuard.check(pageable);
+
+        return memberRepository.searchByPredicate(predicate, pageable);
+    }
+
+    /**
+     * MemberTeamLoader 조회 결과를 member-loader.timeout-millis 까지 기다린다.
+     *
+     * 같은 아이디의 future 는 다른 요청과 함께 쓰므로 orTimeout() 으로 완료시키지 않고 get() 으로 기다리기만 한다.
+     */
+    private <T> T await(CompletableFuture<T> future) {
+
+        try {
+
+            return future.get(loaderSettings.getTimeoutMillis(), TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+
+            throw new ResponseStatusException(HttpStatus.SERVICE_UNAVAILABLE, "회원 조회 시간이 초과되었습니다.", e);
+        } catch (InterruptedException e) {
+
+            Thread.currentThread().interrupt();
+
+            throw new ResponseStatusException(HttpStatus.SERVICE_UNAVAILABLE, "회원 조회가 중단되었습니다.", e);
+        } catch (ExecutionException e) {
+
+            Throwable cause = e.getCause();
+
+            if (cause instanceof RejectedExecutionException) {
+
+                throw new ResponseStatusException(HttpStatus.SERVICE_UNAVAILABLE, "회원 조회를 할 수 없습니다.", cause);
+            }
+
+            if (cause instanceof RuntimeException) {
+
+                throw (RuntimeException) cause;
+            }
+
+            throw new CompletionException(cause);
+        }
     }
 }
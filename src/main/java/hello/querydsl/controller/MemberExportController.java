@@ -0,0 +1,39 @@
+package hello.querydsl.controller;
+
+import hello.querydsl.dto.MemberSearchCondition;
+import hello.querydsl.export.MemberExporter;
+import hello.querydsl.export.MemberTeamBinaryFormat;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.MediaType;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.nio.channels.Channels;
+
+/**
+ * 회원 내보내기
+ *
+ * curl -H 'Accept: application/x-member-team' localhost:8080/v1/members/export?teamName=teamA > members.mtb
+ * curl -H 'Accept: application/json' localhost:8080/v1/members/export > members.json
+ *
+ * 바이너리 형식은 MemberTeamBinaryFormat, 읽을 때는 MemberTeamBinaryReader 사용
+ */
+@RestController
+@RequiredArgsConstructor
+public class MemberExportController {
+
+    private final MemberExporter memberExporter;
+
+    @GetMapping(value = "/v1/members/export", produces = MemberTeamBinaryFormat.MEDIA_TYPE_VALUE)
+    public StreamingResponseBody exportBinary(MemberSearchCondition condition) {
+
+        return out -> memberExporter.exportBinary(condition, Channels.newChannel(out));
+    }
+
+    @GetMapping(value = "/v1/members/export", produces = MediaType.APPLICATION_JSON_VALUE)
+    public StreamingResponseBody exportJson(MemberSearchCondition condition) {
+
+        return out -> memberExporter.exportJson(condition, out);
+    }
+}
@@ -0,0 +1,71 @@
+package hello.querydsl.controller;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import hello.querydsl.importer.MemberImportFormat;
+import hello.querydsl.importer.MemberImportReader;
+import hello.querydsl.importer.MemberImporter;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RestController;
+
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * 회원 대량 등록
+ *
+ * curl -X POST -H 'Content-Type: application/x-ndjson' --data-binary @members.ndjson localhost:8080/v1/members/import
+ * curl -X POST -H 'Content-Type: text/csv' --data-binary @members.csv localhost:8080/v1/members/import
+ *
+ * 요청 본문을 읽으면서 등록하고, 청크를 커밋할 때마다 진행 상황(MemberImportProgress)을 NDJSON 한 행으로 응답한다.
+ * 마지막 행은 done = true
+ */
+@RestController
+@RequiredArgsConstructor
+public class MemberImportController {
+
+    private static final MediaType NDJSON = MediaType.parseMediaType("application/x-ndjson");
+
+    private final MemberImporter memberImporter;
+    private final ObjectMapper objectMapper;
+
+    @PostMapping(value = "/v1/members/import", consumes = {"application/x-ndjson", "text/csv"})
+    public void importMembers(@RequestHeader(HttpHeaders.CONTENT_TYPE) MediaType contentType,
+                              HttpServletRequest request,
+                              HttpServletResponse response) throws IOException {
+
+        MemberImportFormat format = MemberImportFormat.of(contentType);
+        Charset charset = contentType.getCharset() != null ? contentType.getCharset() : StandardCharsets.UTF_8;
+
+        try (MemberImportReader reader = format.reader(new BufferedReader(new InputStreamReader(request.getInputStream(), charset)), objectMapper)) {
+
+            response.setContentType(NDJSON.toString());
+            response.setCharacterEncoding(StandardCharsets.UTF_8.name());
+
+            Writer writer = response.getWriter();
+
+            memberImporter.importMembers(reader, progress -> {
+
+                try {
+
+                    writer.write(objectMapper.writeValueAsString(progress));
+                    writer.write('\n');
+                    writer.flush();
+                } catch (IOException e) {
+
+                    throw new UncheckedIOException(e);
+                }
+            });
+        }
+    }
+}
@@ -0,0 +1,32 @@
+package hello.querydsl.controller;
+
+import hello.querydsl.sql.SlowQuery;
+import hello.querydsl.sql.SlowQueryRecorder;
+import lombok.RequiredArgsConstructor;
+import org.springframework.web.bind.annotation.DeleteMapping;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.List;
+
+/**
+ * 느린 쿼리 조회
+ */
+@RestController
+@RequiredArgsConstructor
+public class SlowQueryController {
+
+    private final SlowQueryRecorder slowQueryRecorder;
+
+    @GetMapping("/slow-queries")
+    public List<SlowQuery> slowQueries() {
+
+        return slowQueryRecorder.getQueries();
+    }
+
+    @DeleteMapping("/slow-queries")
+    public void clear() {
+
+        slowQueryRecorder.clear();
+    }
+}
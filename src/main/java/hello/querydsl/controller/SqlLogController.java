@@ -0,0 +1,78 @@
+package hello.querydsl.controller;
+
+import hello.querydsl.sql.SqlLogSettings;
+import hello.querydsl.sql.SqlLogWriter;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * SQL 로그 설정 조회 및 실행 중 변경
+ *
+ * POST /sql-log?mode=FULL                  : 모든 SQL 기록
+ * POST /sql-log?mode=SAMPLED&sampleRate=0.1 : 느린 SQL + 10% 샘플링
+ * POST /sql-log?mode=OFF                   : 기록 중지
+ */
+@RestController
+@RequiredArgsConstructor
+public class SqlLogController {
+
+    private final SqlLogSettings settings;
+    private final SqlLogWriter writer;
+
+    @GetMapping("/sql-log")
+    public Map<String, Object> status() {
+
+        Map<String, Object> status = new LinkedHashMap<>();
+
+        status.put("mode", settings.getMode());
+        status.put("sampleRate", settings.getSampleRate());
+        status.put("slowThresholdMillis", settings.getSlowThresholdMillis());
+        status.put("written", writer.getWritten());
+        status.put("dropped", writer.getDropped());
+
+        return status;
+    }
+
+    @PostMapping("/sql-log")
+    public Map<String, Object> update(
+            @RequestParam(required = false) SqlLogSettings.Mode mode,
+            @RequestParam(required = false) Double sampleRate,
+            @RequestParam(required = false) Long slowThresholdMillis
+    ) {
+
+        if (sampleRate != null && (sampleRate < 0 || sampleRate > 1)) {
+
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "sampleRate 는 0 ~ 1 사이여야 합니다.");
+        }
+
+        if (slowThresholdMillis != null && slowThresholdMillis < 0) {
+
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "slowThresholdMillis 는 0 이상이어야 합니다.");
+        }
+
+        if (mode != null) {
+
+            settings.setMode(mode);
+        }
+
+        if (sampleRate != null) {
+
+            settings.setSampleRate(sampleRate);
+        }
+
+        if (slowThresholdMillis != null) {
+
+            settings.setSlowThresholdMillis(slowThresholdMillis);
+        }
+
+        return status();
+    }
+}
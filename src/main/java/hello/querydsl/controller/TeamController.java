@@ -0,0 +1,42 @@
+package hello.querydsl.controller;
+
+import hello.querydsl.dto.TeamSummaryDto;
+import hello.querydsl.repository.TeamRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.server.ResponseStatusException;
+
+@RestController
+@RequiredArgsConstructor
+public class TeamController {
+
+    private static final int MAX_MEMBER_LIMIT = 20;
+
+    private final TeamRepository teamRepository;
+
+    /**
+     * 팀 목록 (회원 수, 나이 집계, 앞쪽 회원 memberLimit 명)
+     *
+     * 예) /v1/teams?page=0&size=20&memberLimit=3
+     * 팀 수와 상관없이 쿼리 3개로 조회 (TeamRepositoryImpl.searchSummaries)
+     *
+     * @param pageable
+     * @param memberLimit 팀별로 조회할 회원 수 (0 ~ 20)
+     * @return
+     */
+    @GetMapping("/v1/teams")
+    public Page<TeamSummaryDto> searchTeams(Pageable pageable, @RequestParam(defaultValue = "3") int memberLimit) {
+
+        if (memberLimit < 0 || memberLimit > MAX_MEMBER_LIMIT) {
+
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "memberLimit 는 0 ~ " + MAX_MEMBER_LIMIT + " 사이여야 합니다.");
+        }
+
+        return teamRepository.searchSummaries(pageable, memberLimit);
+    }
+}
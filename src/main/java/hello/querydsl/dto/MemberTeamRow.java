@@ -0,0 +1,73 @@
+package hello.querydsl.dto;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.type.WritableTypeId;
+import com.fasterxml.jackson.databind.JsonSerializable;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.jsontype.TypeSerializer;
+import com.querydsl.core.Tuple;
+import com.querydsl.core.types.Expression;
+
+import java.io.IOException;
+
+import static com.fasterxml.jackson.core.JsonToken.START_OBJECT;
+
+/**
+ * 선택한 필드만 조회한 MemberTeamDto (fields=)
+ *
+ * 중간 DTO 나 Map 을 만들지 않고 조회한 Tuple 에서 바로 JSON 으로 직렬화
+ */
+public class MemberTeamRow implements JsonSerializable {
+
+    private final Tuple tuple;
+    private final String[] names;
+    private final Expression<?>[] expressions;
+
+    public MemberTeamRow(Tuple tuple, String[] names, Expression<?>[] expressions) {
+
+        this.tuple = tuple;
+        this.names = names;
+        this.expressions = expressions;
+    }
+
+    /**
+     * @param name 필드 이름
+     * @return 필드 값, 선택하지 않은 필드면 null
+     */
+    public Object get(String name) {
+
+        for (int i = 0; i < names.length; i++) {
+
+            if (names[i].equals(name)) {
+
+                return tuple.get(expressions[i]);
+            }
+        }
+
+        return null;
+    }
+
+    @Override
+    public void serialize(JsonGenerator gen, SerializerProvider serializers) throws IOException {
+
+        gen.writeStartObject(this);
+        writeFields(gen, serializers);
+        gen.writeEndObject();
+    }
+
+    @Override
+    public void serializeWithType(JsonGenerator gen, SerializerProvider serializers, TypeSerializer typeSer) throws IOException {
+
+        WritableTypeId typeId = typeSer.writeTypePrefix(gen, typeSer.typeId(this, START_OBJECT));
+        writeFields(gen, serializers);
+        typeSer.writeTypeSuffix(gen, typeId);
+    }
+
+    private void writeFields(JsonGenerator gen, SerializerProvider serializers) throws IOException {
+
+        for (int i = 0; i < names.length; i++) {
+
+            serializers.defaultSerializeField(names[i], tuple.get(expressions[i]), gen);
+        }
+    }
+}
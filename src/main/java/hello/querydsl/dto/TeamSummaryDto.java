@@ -0,0 +1,28 @@
+package hello.querydsl.dto;
+
+import lombok.Data;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 팀 목록 조회용 DTO
+ *
+ * 팀 회원 수, 나이 집계와 앞쪽 회원 일부 (회원 아이디 순서)
+ */
+@Data
+public class TeamSummaryDto {
+
+    private Long teamId;
+    private String name;
+    private long memberCount;
+    private Integer minAge;
+    private Integer maxAge;
+    private Double avgAge;
+    private List<MemberTeamDto> members = new ArrayList<>();
+
+    public TeamSummaryDto(Long teamId, String name) {
+        this.teamId = teamId;
+        this.name = name;
+    }
+}
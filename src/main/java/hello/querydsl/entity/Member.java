@@ -1,6 +1,7 @@
 package hello.querydsl.entity;
 
 import lombok.*;
+import org.hibernate.Hibernate;
 
 import javax.persistence.*;
 
@@ -8,6 +9,10 @@ import javax.persistence.*;
  * Member 엔티티
  */
 @Entity
+@Table(indexes = {
+        @Index(name = "idx_member_username", columnList = "username"), // 검색, 정렬 조건
+        @Index(name = "idx_member_team_name", columnList = "team_name")
+})
 @Getter @Setter
 @NoArgsConstructor(access = AccessLevel.PROTECTED)
 @ToString(of = {"id", "username", "age"}) // 가급적 내부 필드만 (연관관계 없는 필드만)
@@ -20,10 +25,25 @@ public class Member {
     private String username;
     private int age;
 
+    /**
+     * changeTeam() 으로만 변경 (teamName 을 함께 맞춘다.)
+     */
     @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "team_id")
+    @Setter(AccessLevel.NONE)
     private Team team;
 
+    /**
+     * 팀 이름 (역정규화)
+     *
+     * 검색할 때 team 조인 없이 팀 이름으로 검색, 조회하기 위해 복사해 둔 값
+     * changeTeam() 에서 설정하고, 팀 이름 변경은 TeamNamePropagator 가 나누어 반영한다.
+     * member.denormalized-team-name=true 일 때만 검색에 사용
+     */
+    @Column(name = "team_name")
+    @Setter(AccessLevel.NONE)
+    private String teamName;
+
     public Member(String username) {
 
         this(username, 0);
@@ -48,11 +68,22 @@ public class Member {
     /**
      * 양방향 연관관계 한번에 처리 (연관관계 편의 메소드)
      *
+     * team.members 는 EXTRA 지연 로딩이라 add() 로 팀 회원을 로딩하지 않는다.
+     * 이전 팀의 remove() 는 팀 회원 전체를 로딩하므로 이미 로딩된 경우에만 제거한다. (팀 프록시도 초기화하지 않는다.)
+     * (연관관계 주인은 member.team 이라서 로딩되지 않은 컬렉션은 다음 조회 때 DB 기준으로 맞춰진다.)
+     *
      * @param team
      */
     public void changeTeam(Team team) {
 
+        if (this.team != null && this.team != team
+                && Hibernate.isInitialized(this.team) && Hibernate.isInitialized(this.team.getMembers())) {
+
+            this.team.getMembers().remove(this);
+        }
+
         this.team = team;
+        this.teamName = team.getName();
 
         team.getMembers().add(this);
     }
@@ -1,11 +1,15 @@
 package hello.querydsl.entity;
 
 import lombok.*;
+import org.hibernate.annotations.LazyCollection;
+import org.hibernate.annotations.LazyCollectionOption;
 
 import javax.persistence.Entity;
 import javax.persistence.GeneratedValue;
 import javax.persistence.Id;
+import javax.persistence.Index;
 import javax.persistence.OneToMany;
+import javax.persistence.Table;
 import java.util.ArrayList;
 import java.util.List;
 
@@ -13,6 +17,7 @@ import java.util.List;
  * Team 엔티티
  */
 @Entity
+@Table(indexes = @Index(name = "idx_team_name", columnList = "name")) // 검색, 정렬 조건
 @Getter @Setter
 @NoArgsConstructor(access = AccessLevel.PROTECTED)
 @ToString(of = {"id", "name"})
@@ -23,7 +28,15 @@ public class Team {
 
     private String name;
 
+    /**
+     * 팀 회원 (EXTRA 지연 로딩)
+     *
+     * 컬렉션을 초기화하지 않고 add() 는 쓰기 지연, size() 는 count, contains() 는 존재 여부 쿼리로 처리한다.
+     * 반복(for, stream), get(), remove() 는 팀 회원 전체를 로딩하므로
+     * 회원이 많은 팀은 MemberRepository.searchTeamMembers() 로 나누어 조회
+     */
     @OneToMany(mappedBy = "team")
+    @LazyCollection(LazyCollectionOption.EXTRA)
     private List<Member> members = new ArrayList<>();
 
     public Team(String name) {
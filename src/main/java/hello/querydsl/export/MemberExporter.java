@@ -0,0 +1,97 @@
+package hello.querydsl.export;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import hello.querydsl.dto.MemberSearchCondition;
+import hello.querydsl.dto.MemberTeamDto;
+import hello.querydsl.repository.MemberRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.channels.WritableByteChannel;
+
+/**
+ * 회원 내보내기
+ *
+ * MemberRepository.scan() 으로 member-export.batch-size 건씩 조회하면서 바로 쓰므로
+ * 회원 수와 상관없이 한 번에 batch-size 건만 메모리에 올린다.
+ * 바이너리는 조회한 batch-size 건이 블록 하나가 된다.
+ */
+@Component
+public class MemberExporter {
+
+    private final MemberRepository memberRepository;
+    private final ObjectMapper objectMapper;
+    private final ObjectWriter memberWriter;
+    private final int batchSize;
+
+    public MemberExporter(MemberRepository memberRepository,
+                          ObjectMapper objectMapper,
+                          @Value("${member-export.batch-size:1000}") int batchSize) {
+
+        this.memberRepository = memberRepository;
+        this.objectMapper = objectMapper;
+        this.memberWriter = objectMapper.writerFor(MemberTeamDto.class).without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+        this.batchSize = batchSize;
+    }
+
+    /**
+     * MemberTeamBinaryFormat 으로 내보내기
+     *
+     * @param condition
+     * @param channel 닫지 않는다.
+     * @return 내보낸 회원 수
+     */
+    public long exportBinary(MemberSearchCondition condition, WritableByteChannel channel) {
+
+        MemberTeamBinaryWriter writer = new MemberTeamBinaryWriter(channel);
+
+        long count = memberRepository.scan(condition, batchSize, writer::writeBlock);
+
+        writer.finish();
+
+        return count;
+    }
+
+    /**
+     * JSON 배열로 내보내기
+     *
+     * @param condition
+     * @param out 닫지 않는다.
+     * @return 내보낸 회원 수
+     */
+    public long exportJson(MemberSearchCondition condition, OutputStream out) throws IOException {
+
+        try (JsonGenerator generator = objectMapper.getFactory().createGenerator(out)) {
+
+            generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+            generator.writeStartArray();
+
+            long count = memberRepository.scan(condition, batchSize, members -> {
+
+                try {
+
+                    for (MemberTeamDto member : members) {
+
+                        memberWriter.writeValue(generator, member);
+                    }
+
+                    // 행마다가 아니라 조회 단위로 flush
+                    generator.flush();
+                } catch (IOException e) {
+
+                    throw new UncheckedIOException(e);
+                }
+            });
+
+            generator.writeEndArray();
+
+            return count;
+        }
+    }
+}
@@ -0,0 +1,39 @@
+package hello.querydsl.export;
+
+import org.springframework.http.MediaType;
+
+import java.nio.charset.StandardCharsets;
+
+/**
+ * MemberTeamDto 컬럼 단위 바이너리 형식
+ *
+ * JSON 은 행마다 필드 이름, 숫자 문자열, 같은 팀 이름을 반복하므로
+ * 블록 단위로 컬럼을 모아서 가변 길이 정수(varint)와 팀 이름 사전으로 줄인다.
+ *
+ * <pre>
+ * 파일   : "MTB" | 버전(1) | 블록 ... | 0 (int32, 끝 표시)
+ * 블록   : 본문 길이 (int32, big endian) | 본문
+ * 본문   : 새 팀 이름 수 (varint) | 새 팀 이름 (문자열) ...
+ *          회원 수 n (varint)
+ *          memberId n 개 : 직전 아이디와의 차이 (zigzag varint, 블록 첫 아이디는 0 과의 차이)
+ *          username n 개 : 문자열
+ *          age      n 개 : zigzag varint
+ *          teamId   n 개 : zigzag(teamId) + 1 (varint), null 이면 0
+ *          teamName n 개 : 팀 이름 사전 번호 + 1 (varint), null 이면 0
+ * 문자열 : UTF-8 바이트 수 + 1 (varint), null 이면 0 | UTF-8
+ * </pre>
+ *
+ * 팀 이름 사전은 파일 전체에서 공유한다. 블록마다 처음 나온 이름만 추가되고 번호는 추가된 순서(0 부터)
+ * varint 는 부호 없는 LEB128, zigzag 는 (v << 1) ^ (v >> 63)
+ */
+public final class MemberTeamBinaryFormat {
+
+    public static final String MEDIA_TYPE_VALUE = "application/x-member-team";
+    public static final MediaType MEDIA_TYPE = MediaType.parseMediaType(MEDIA_TYPE_VALUE);
+
+    static final byte[] MAGIC = "MTB".getBytes(StandardCharsets.US_ASCII);
+    static final byte VERSION = 1;
+
+    private MemberTeamBinaryFormat() {
+    }
+}
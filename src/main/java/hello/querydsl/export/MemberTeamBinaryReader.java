@@ -0,0 +1,306 @@
+package hello.querydsl.export;
+
+import hello.querydsl.dto.MemberTeamDto;
+
+import java.io.Closeable;
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * MemberTeamDto 바이너리 읽기 (MemberTeamBinaryFormat)
+ *
+ * 블록 단위로 읽으므로 파일 크기와 상관없이 블록 하나만 메모리에 올린다.
+ * 개수, 길이, 사전 번호는 블록 본문 안에서 가능한 값인지 확인하고 아니면 IOException
+ *
+ * try (MemberTeamBinaryReader reader = new MemberTeamBinaryReader(FileChannel.open(path))) {
+ *     reader.forEach(member -> ...);
+ * }
+ */
+public class MemberTeamBinaryReader implements Closeable {
+
+    private static final int MAX_BLOCK_LENGTH = 256 * 1024 * 1024;
+
+    private final ReadableByteChannel channel;
+    private final List<String> dictionary = new ArrayList<>();
+
+    private ByteBuffer buffer = ByteBuffer.allocateDirect(64 * 1024);
+    private byte[] bytes = new byte[256];
+    private int blockEnd;
+    private boolean started;
+    private boolean finished;
+
+    public MemberTeamBinaryReader(ReadableByteChannel channel) {
+
+        this.channel = channel;
+
+        // 읽기 모드의 빈 버퍼로 시작
+        buffer.limit(0);
+    }
+
+    /**
+     * @return 다음 블록의 회원 목록, 끝 표시를 읽으면 null
+     * @throws IOException 형식이 다르거나 끝 표시 전에 채널이 끝난 경우
+     */
+    public List<MemberTeamDto> readBlock() throws IOException {
+
+        if (finished) {
+
+            return null;
+        }
+
+        if (!started) {
+
+            readHeader();
+            started = true;
+        }
+
+        fill(4);
+
+        int length = buffer.getInt();
+
+        if (length == 0) {
+
+            finished = true;
+
+            return null;
+        }
+
+        if (length < 0 || length > MAX_BLOCK_LENGTH) {
+
+            throw new IOException("잘못된 블록 길이입니다: " + length);
+        }
+
+        fill(length);
+
+        blockEnd = buffer.position() + length;
+        List<MemberTeamDto> members = decode();
+
+        if (buffer.position() != blockEnd) {
+
+            throw new IOException("블록 길이가 본문과 다릅니다: " + length);
+        }
+
+        return members;
+    }
+
+    /**
+     * 끝까지 읽기
+     *
+     * @param consumer
+     * @return 읽은 회원 수
+     */
+    public long forEach(Consumer<MemberTeamDto> consumer) throws IOException {
+
+        long count = 0;
+        List<MemberTeamDto> block;
+
+        while ((block = readBlock()) != null) {
+
+            block.forEach(consumer);
+            count += block.size();
+        }
+
+        return count;
+    }
+
+    @Override
+    public void close() throws IOException {
+
+        channel.close();
+    }
+
+    private void readHeader() throws IOException {
+
+        fill(MemberTeamBinaryFormat.MAGIC.length + 1);
+
+        byte[] magic = new byte[MemberTeamBinaryFormat.MAGIC.length];
+        buffer.get(magic);
+
+        if (!Arrays.equals(magic, MemberTeamBinaryFormat.MAGIC)) {
+
+            throw new IOException("MemberTeamDto 바이너리 형식이 아닙니다.");
+        }
+
+        byte version = buffer.get();
+
+        if (version != MemberTeamBinaryFormat.VERSION) {
+
+            throw new IOException("지원하지 않는 버전입니다: " + version);
+        }
+    }
+
+    private List<MemberTeamDto> decode() throws IOException {
+
+        // 팀 이름, 회원 한 명은 본문에서 1 바이트 이상 차지한다.
+        int newNames = getCount("새 팀 이름 수");
+
+        for (int i = 0; i < newNames; i++) {
+
+            dictionary.add(getString());
+        }
+
+        int size = getCount("회원 수");
+
+        long[] ids = new long[size];
+        String[] usernames = new String[size];
+        int[] ages = new int[size];
+        Long[] teamIds = new Long[size];
+
+        long previousId = 0;
+
+        for (int i = 0; i < size; i++) {
+
+            previousId += unzigzag(getVarint());
+            ids[i] = previousId;
+        }
+
+        for (int i = 0; i < size; i++) {
+
+            usernames[i] = getString();
+        }
+
+        for (int i = 0; i < size; i++) {
+
+            ages[i] = (int) unzigzag(getVarint());
+        }
+
+        for (int i = 0; i < size; i++) {
+
+            long teamId = getVarint();
+            teamIds[i] = teamId == 0 ? null : unzigzag(teamId - 1);
+        }
+
+        List<MemberTeamDto> members = new ArrayList<>(size);
+
+        for (int i = 0; i < size; i++) {
+
+            long name = getVarint();
+
+            if (name < 0 || name > dictionary.size()) {
+
+                throw new IOException("팀 이름 사전에 없는 번호입니다: " + (name - 1));
+            }
+
+            members.add(new MemberTeamDto(ids[i], usernames[i], ages[i], teamIds[i], name == 0 ? null : dictionary.get((int) name - 1)));
+        }
+
+        return members;
+    }
+
+    private String getString() throws IOException {
+
+        long length = getVarint();
+
+        if (length == 0) {
+
+            return null;
+        }
+
+        // varint 는 부호 없는 값이라 음수로 읽히면 매우 큰 길이
+        if (length < 0 || length - 1 > remainingInBlock()) {
+
+            throw new IOException("문자열 길이가 블록을 넘습니다: " + Long.toUnsignedString(length - 1));
+        }
+
+        int size = (int) (length - 1);
+
+        if (bytes.length < size) {
+
+            bytes = new byte[Math.max(bytes.length * 2, size)];
+        }
+
+        buffer.get(bytes, 0, size);
+
+        return new String(bytes, 0, size, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * @param name 오류 메시지에 쓸 이름
+     * @return 블록의 남은 바이트 수 이하인 개수
+     */
+    private int getCount(String name) throws IOException {
+
+        long count = getVarint();
+
+        if (count < 0 || count > remainingInBlock()) {
+
+            throw new IOException(name + "가 블록 길이를 넘습니다: " + Long.toUnsignedString(count));
+        }
+
+        return (int) count;
+    }
+
+    private int remainingInBlock() {
+
+        return Math.max(0, blockEnd - buffer.position());
+    }
+
+    private long getVarint() throws IOException {
+
+        long value = 0;
+
+        for (int shift = 0; shift < 64; shift += 7) {
+
+            if (!buffer.hasRemaining()) {
+
+                throw new IOException("블록이 잘렸습니다.");
+            }
+
+            byte b = buffer.get();
+
+            value |= (long) (b & 0x7F) << shift;
+
+            if ((b & 0x80) == 0) {
+
+                return value;
+            }
+        }
+
+        throw new IOException("varint 가 너무 깁니다.");
+    }
+
+    private static long unzigzag(long value) {
+
+        return (value >>> 1) ^ -(value & 1);
+    }
+
+    /**
+     * 버퍼에 읽지 않은 바이트가 length 이상이 되도록 채널에서 읽기
+     */
+    private void fill(int length) throws IOException {
+
+        if (buffer.remaining() >= length) {
+
+            return;
+        }
+
+        buffer.compact();
+
+        if (buffer.capacity() < length) {
+
+            ByteBuffer grown = ByteBuffer.allocateDirect(Math.max(buffer.capacity() * 2, length));
+
+            buffer.flip();
+            grown.put(buffer);
+
+            buffer = grown;
+        }
+
+        while (buffer.position() < length) {
+
+            if (channel.read(buffer) < 0) {
+
+                throw new EOFException("끝 표시 전에 채널이 끝났습니다.");
+            }
+        }
+
+        buffer.flip();
+    }
+}
@@ -0,0 +1,305 @@
+package hello.querydsl.export;
+
+import hello.querydsl.dto.MemberTeamDto;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.WritableByteChannel;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * MemberTeamDto 바이너리 내보내기 (MemberTeamBinaryFormat)
+ *
+ * writeBlock() 으로 받은 회원 목록을 블록 하나로 인코딩해서 채널에 쓴다.
+ * 블록은 다이렉트 버퍼 하나에 인코딩하고, 버퍼는 가장 큰 블록 크기만큼만 커진다.
+ *
+ * MemberTeamBinaryWriter writer = new MemberTeamBinaryWriter(Channels.newChannel(outputStream));
+ * memberRepository.scan(condition, 1000, writer::writeBlock);
+ * writer.finish();
+ */
+public class MemberTeamBinaryWriter implements Closeable {
+
+    private final WritableByteChannel channel;
+    private final Map<String, Integer> dictionary = new HashMap<>();
+    private final List<String> newNames = new ArrayList<>();
+
+    private ByteBuffer buffer = ByteBuffer.allocateDirect(64 * 1024);
+    private int[] nameIndexes = new int[0];
+    private boolean started;
+    private boolean finished;
+    private long rows;
+    private long bytes;
+
+    public MemberTeamBinaryWriter(WritableByteChannel channel) {
+
+        this.channel = channel;
+    }
+
+    /**
+     * 회원 목록을 블록 하나로 쓰기
+     *
+     * @param members 회원 아이디(memberId)는 null 일 수 없다. 아이디 순서로 정렬되어 있으면 더 작아진다.
+     * @throws UncheckedIOException 채널에 쓰지 못한 경우 (MemberRepository.scan() 의 consumer 로 넘기기 위해 unchecked)
+     */
+    public void writeBlock(List<MemberTeamDto> members) {
+
+        if (finished) {
+
+            throw new IllegalStateException("이미 finish() 가 호출되었습니다.");
+        }
+
+        if (members.isEmpty()) {
+
+            return;
+        }
+
+        buffer.clear();
+
+        if (!started) {
+
+            ensure(MemberTeamBinaryFormat.MAGIC.length + 1);
+            buffer.put(MemberTeamBinaryFormat.MAGIC).put(MemberTeamBinaryFormat.VERSION);
+            started = true;
+        }
+
+        int lengthPosition = buffer.position();
+
+        ensure(4);
+        buffer.putInt(0);
+
+        int bodyStart = buffer.position();
+
+        encode(members);
+
+        buffer.putInt(lengthPosition, buffer.position() - bodyStart);
+
+        flush();
+
+        rows += members.size();
+    }
+
+    /**
+     * 끝 표시(길이 0인 블록) 쓰기, 채널은 닫지 않는다.
+     *
+     * 끝 표시가 없으면 읽는 쪽에서 잘린 파일로 판단한다.
+     */
+    public void finish() {
+
+        if (finished) {
+
+            return;
+        }
+
+        buffer.clear();
+
+        if (!started) {
+
+            ensure(MemberTeamBinaryFormat.MAGIC.length + 1);
+            buffer.put(MemberTeamBinaryFormat.MAGIC).put(MemberTeamBinaryFormat.VERSION);
+            started = true;
+        }
+
+        ensure(4);
+        buffer.putInt(0);
+
+        flush();
+
+        finished = true;
+    }
+
+    /**
+     * finish() 후 채널 닫기
+     */
+    @Override
+    public void close() throws IOException {
+
+        try {
+
+            finish();
+        } finally {
+
+            channel.close();
+        }
+    }
+
+    /**
+     * @return 쓴 회원 수
+     */
+    public long getRows() {
+
+        return rows;
+    }
+
+    /**
+     * @return 채널에 쓴 바이트 수
+     */
+    public long getBytes() {
+
+        return bytes;
+    }
+
+    /**
+     * 블록 본문
+     *
+     * 새 팀 이름 사전 | 회원 수 | memberId | username | age | teamId | teamName
+     */
+    private void encode(List<MemberTeamDto> members) {
+
+        int size = members.size();
+
+        if (nameIndexes.length < size) {
+
+            nameIndexes = new int[size];
+        }
+
+        int[] names = nameIndexes;
+
+        newNames.clear();
+
+        for (int i = 0; i < size; i++) {
+
+            names[i] = nameIndex(members.get(i).getTeamName());
+        }
+
+        putVarint(newNames.size());
+
+        for (String name : newNames) {
+
+            putString(name);
+        }
+
+        putVarint(size);
+
+        long previousId = 0;
+
+        for (MemberTeamDto member : members) {
+
+            if (member.getMemberId() == null) {
+
+                throw new IllegalArgumentException("memberId 가 없는 회원은 내보낼 수 없습니다: " + member);
+            }
+
+            putVarint(zigzag(member.getMemberId() - previousId));
+            previousId = member.getMemberId();
+        }
+
+        for (MemberTeamDto member : members) {
+
+            putString(member.getUsername());
+        }
+
+        for (MemberTeamDto member : members) {
+
+            putVarint(zigzag(member.getAge()));
+        }
+
+        for (MemberTeamDto member : members) {
+
+            putVarint(member.getTeamId() == null ? 0 : zigzag(member.getTeamId()) + 1);
+        }
+
+        for (int i = 0; i < size; i++) {
+
+            putVarint(names[i]);
+        }
+    }
+
+    /**
+     * @return 사전 번호 + 1, null 이면 0 (처음 나온 이름은 이번 블록 사전에 추가)
+     */
+    private int nameIndex(String name) {
+
+        if (name == null) {
+
+            return 0;
+        }
+
+        Integer index = dictionary.get(name);
+
+        if (index == null) {
+
+            index = dictionary.size();
+            dictionary.put(name, index);
+            newNames.add(name);
+        }
+
+        return index + 1;
+    }
+
+    /**
+     * 문자열 : 바이트 수 + 1 (null 이면 0) | UTF-8
+     */
+    private void putString(String value) {
+
+        if (value == null) {
+
+            putVarint(0);
+
+            return;
+        }
+
+        byte[] encoded = value.getBytes(StandardCharsets.UTF_8);
+
+        putVarint(encoded.length + 1L);
+        ensure(encoded.length);
+        buffer.put(encoded);
+    }
+
+    /**
+     * 부호 없는 LEB128 (7비트씩, 최대 10바이트)
+     */
+    private void putVarint(long value) {
+
+        ensure(10);
+
+        while ((value & ~0x7FL) != 0) {
+
+            buffer.put((byte) ((value & 0x7F) | 0x80));
+            value >>>= 7;
+        }
+
+        buffer.put((byte) value);
+    }
+
+    private static long zigzag(long value) {
+
+        return (value << 1) ^ (value >> 63);
+    }
+
+    private void ensure(int length) {
+
+        if (buffer.remaining() >= length) {
+
+            return;
+        }
+
+        ByteBuffer grown = ByteBuffer.allocateDirect(Math.max(buffer.capacity() * 2, buffer.position() + length));
+
+        buffer.flip();
+        grown.put(buffer);
+
+        buffer = grown;
+    }
+
+    private void flush() {
+
+        buffer.flip();
+
+        try {
+
+            while (buffer.hasRemaining()) {
+
+                bytes += channel.write(buffer);
+            }
+        } catch (IOException e) {
+
+            throw new UncheckedIOException(e);
+        }
+    }
+}
@@ -0,0 +1,97 @@
+package hello.querydsl.feed;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.annotation.JsonRawValue;
+import lombok.AccessLevel;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.ToString;
+
+import javax.persistence.Column;
+import javax.persistence.Entity;
+import javax.persistence.EnumType;
+import javax.persistence.Enumerated;
+import javax.persistence.GeneratedValue;
+import javax.persistence.GenerationType;
+import javax.persistence.Id;
+import javax.persistence.Index;
+import javax.persistence.Table;
+
+/**
+ * Member, Team 변경 이벤트 (트랜잭션 아웃박스)
+ *
+ * 변경과 같은 트랜잭션에서 저장하므로 커밋된 변경만 남는다. (ChangeOutbox)
+ * 아이디는 저장 순서대로 증가하고 SSE 이벤트 아이디로 사용한다. (Last-Event-ID 로 이어 받기)
+ * 커밋 순서는 아이디 순서와 다를 수 있으므로 이어 받을 때는 조금 앞쪽부터 다시 보낸다. (ChangeFeed.replay)
+ *
+ * - 엔티티 변경 : entityId, payload (삭제는 payload 없음)
+ * - 벌크 변경   : fromId ~ toId 범위, payload 에 바뀐 내용
+ *                범위는 변경된 아이디의 상위 집합이다. 다른 팀 회원처럼 바뀌지 않은 아이디도 포함될 수 있으므로
+ *                payload 의 조건(예: teamId)으로 거르거나 범위를 다시 조회해야 한다.
+ */
+@Entity
+@Table(name = "change_event", indexes = @Index(name = "idx_change_event_created_at", columnList = "created_at"))
+@Getter
+@NoArgsConstructor(access = AccessLevel.PROTECTED)
+@ToString(exclude = "payload")
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class ChangeEvent {
+
+    public enum EntityType {
+
+        MEMBER,
+        TEAM
+    }
+
+    public enum Operation {
+
+        INSERT,
+        UPDATE,
+        DELETE
+    }
+
+    @Id @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @Column(name = "change_event_id")
+    private Long id;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 10)
+    private EntityType entityType;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 10)
+    private Operation operation;
+
+    private Long entityId;
+    private Long fromId;
+    private Long toId;
+
+    /**
+     * 변경 후 값 (JSON)
+     */
+    @JsonRawValue
+    @Column(length = 2000)
+    private String payload;
+
+    @Column(name = "created_at", nullable = false)
+    private long createdAt;
+
+    ChangeEvent(EntityType entityType, Operation operation, Long entityId, Long fromId, Long toId, String payload) {
+
+        this.entityType = entityType;
+        this.operation = operation;
+        this.entityId = entityId;
+        this.fromId = fromId;
+        this.toId = toId;
+        this.payload = payload;
+    }
+
+    /**
+     * 아웃박스에 저장한 후 생성된 아이디와 저장 시각 설정
+     */
+    void stored(Long id, long createdAt) {
+
+        this.id = id;
+        this.createdAt = createdAt;
+    }
+}
@@ -0,0 +1,344 @@
+package hello.querydsl.feed;
+
+import com.querydsl.core.types.dsl.BooleanExpression;
+import com.querydsl.jpa.impl.JPAQueryFactory;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import java.io.IOException;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static hello.querydsl.feed.QChangeEvent.changeEvent;
+
+/**
+ * 변경 이벤트 SSE 구독 (GET /v1/changes)
+ *
+ * 커밋된 변경(ChangeOutbox)을 구독자마다 크기가 정해진 버퍼(change-feed.buffer-size)에 넣고
+ * 구독자별로 한 번에 한 스레드만 보낸다. 느린 구독자 때문에 다른 구독자나 커밋하는 스레드가 기다리지 않는다.
+ *
+ * 버퍼가 가득 찬 구독자는 reset 이벤트를 보내고 연결을 끊는다.
+ * EventSource 는 마지막으로 받은 이벤트 아이디를 Last-Event-ID 헤더로 보내며 다시 연결하므로
+ * 그 이후 이벤트를 아웃박스에서 조회해서 먼저 보낸다. (change-feed.replay-limit 을 넘으면 reset)
+ *
+ * 아웃박스 아이디는 저장할 때 정해지지만 커밋 순서는 다를 수 있어서 더 작은 아이디가 나중에 보일 수 있다.
+ * 그래서 Last-Event-ID 이벤트보다 change-feed.replay-window-millis 전까지 저장된 이벤트도 함께 다시 보낸다.
+ * 이미 받은 이벤트를 다시 받을 수 있으므로 클라이언트는 이벤트 아이디로 중복을 걸러야 한다. (최소 한 번 전달)
+ *
+ * 이벤트
+ * - change : id = 아웃박스 아이디, data = ChangeEvent JSON
+ * - reset  : 이어 받을 수 없으니 전체를 다시 조회해야 한다. (data = 이유)
+ */
+@Slf4j
+@Component
+public class ChangeFeed {
+
+    private final ChangeFeedSettings settings;
+    private final JPAQueryFactory queryFactory;
+    private final JdbcTemplate jdbcTemplate;
+
+    private final List<Subscriber> subscribers = new CopyOnWriteArrayList<>();
+
+    private final ExecutorService senders;
+    private final ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "change-feed-scheduler");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    public ChangeFeed(ChangeFeedSettings settings, JPAQueryFactory queryFactory, JdbcTemplate jdbcTemplate) {
+
+        this.settings = settings;
+        this.queryFactory = queryFactory;
+        this.jdbcTemplate = jdbcTemplate;
+        this.senders = Executors.newFixedThreadPool(settings.getThreads(), runnable -> {
+            Thread thread = new Thread(runnable, "change-feed-sender");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    @PostConstruct
+    public void start() {
+
+        scheduler.scheduleWithFixedDelay(this::heartbeat, settings.getHeartbeatSeconds(), settings.getHeartbeatSeconds(), TimeUnit.SECONDS);
+        scheduler.scheduleWithFixedDelay(this::purge, 1, 1, TimeUnit.MINUTES);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+
+        scheduler.shutdownNow();
+        senders.shutdownNow();
+
+        subscribers.forEach(subscriber -> subscriber.emitter.complete());
+    }
+
+    /**
+     * @param lastEventId 마지막으로 받은 이벤트 아이디, 처음 구독하면 null
+     * @return
+     */
+    public SseEmitter subscribe(Long lastEventId) {
+
+        return subscribe(lastEventId, new SseEmitter(settings.getTimeoutMillis()));
+    }
+
+    SseEmitter subscribe(Long lastEventId, SseEmitter emitter) {
+
+        Subscriber subscriber = new Subscriber(emitter);
+
+        emitter.onCompletion(subscriber::close);
+        emitter.onTimeout(subscriber::close);
+        emitter.onError(error -> subscriber.close());
+
+        // 다시 보내는 동안 커밋된 이벤트를 놓치지 않도록 먼저 등록하고, 다시 보낸 후에 보내기 시작
+        subscribers.add(subscriber);
+
+        if (lastEventId != null) {
+
+            replay(subscriber, lastEventId);
+        }
+
+        subscriber.ready = true;
+        subscriber.schedule();
+
+        return emitter;
+    }
+
+    /**
+     * 커밋된 이벤트 보내기 (ChangeOutbox 가 커밋한 스레드에서 호출)
+     */
+    public void publish(List<ChangeEvent> events) {
+
+        for (Subscriber subscriber : subscribers) {
+
+            for (ChangeEvent event : events) {
+
+                if (!subscriber.queue.offer(event)) {
+
+                    subscriber.reset("buffer overflow");
+
+                    break;
+                }
+            }
+
+            subscriber.schedule();
+        }
+    }
+
+    public int getSubscriberCount() {
+
+        return subscribers.size();
+    }
+
+    private void replay(Subscriber subscriber, long lastEventId) {
+
+        List<ChangeEvent> missed = queryFactory
+                                        .selectFrom(changeEvent)
+                                        .where(replayFrom(lastEventId))
+                                        .orderBy(changeEvent.id.asc())
+                                        .limit(settings.getReplayLimit() + 1)
+                                        .fetch();
+
+        if (missed.size() > settings.getReplayLimit()) {
+
+            subscriber.reset("too many missed events");
+
+            return;
+        }
+
+        Set<Long> replayed = new HashSet<>();
+
+        for (ChangeEvent event : missed) {
+
+            if (!subscriber.send(event)) {
+
+                return;
+            }
+
+            replayed.add(event.getId());
+        }
+
+        subscriber.replayed = replayed;
+    }
+
+    /**
+     * Last-Event-ID 이후 이벤트와, 그보다 아이디는 작지만 replay-window-millis 안에 저장된 이벤트
+     * (Last-Event-ID 이벤트가 보관 시간이 지나 삭제됐으면 이후 이벤트만)
+     */
+    private BooleanExpression replayFrom(long lastEventId) {
+
+        BooleanExpression after = changeEvent.id.gt(lastEventId);
+
+        Long lastCreatedAt = queryFactory
+                                .select(changeEvent.createdAt)
+                                .from(changeEvent)
+                                .where(changeEvent.id.eq(lastEventId))
+                                .fetchOne();
+
+        if (lastCreatedAt == null) {
+
+            return after;
+        }
+
+        return after.or(changeEvent.id.lt(lastEventId).and(changeEvent.createdAt.goe(lastCreatedAt - settings.getReplayWindowMillis())));
+    }
+
+    private void heartbeat() {
+
+        for (Subscriber subscriber : subscribers) {
+
+            senders.execute(() -> {
+
+                try {
+
+                    subscriber.emitter.send(SseEmitter.event().comment("heartbeat"));
+                } catch (IOException | IllegalStateException e) {
+
+                    subscriber.close();
+                }
+            });
+        }
+    }
+
+    /**
+     * 보관 시간이 지난 이벤트 삭제
+     *
+     * 삭제할 이벤트가 있을 때만 delete 한다. (쓰기 SQL 은 DataVersion 을 올린다.)
+     */
+    void purge() {
+
+        try {
+
+            long before = System.currentTimeMillis() - TimeUnit.MINUTES.toMillis(settings.getRetentionMinutes());
+
+            if (!jdbcTemplate.queryForList("SELECT change_event_id FROM change_event WHERE created_at < ? LIMIT 1", Long.class, before).isEmpty()) {
+
+                jdbcTemplate.update("DELETE FROM change_event WHERE created_at < ?", before);
+            }
+        } catch (RuntimeException e) {
+
+            log.warn("change event purge failed", e);
+        }
+    }
+
+    private final class Subscriber {
+
+        private final SseEmitter emitter;
+        private final ArrayBlockingQueue<ChangeEvent> queue = new ArrayBlockingQueue<>(settings.getBufferSize());
+        private final AtomicBoolean sending = new AtomicBoolean();
+
+        private volatile boolean ready;
+        private volatile boolean closed;
+
+        /**
+         * 아웃박스에서 다시 보낸 이벤트 (등록 후 다시 보내기 전에 커밋된 이벤트는 두 번 들어올 수 있다.)
+         */
+        private volatile Set<Long> replayed;
+
+        private Subscriber(SseEmitter emitter) {
+
+            this.emitter = emitter;
+        }
+
+        private void schedule() {
+
+            if (ready && !closed && !queue.isEmpty() && sending.compareAndSet(false, true)) {
+
+                senders.execute(this::drain);
+            }
+        }
+
+        private void drain() {
+
+            try {
+
+                ChangeEvent event;
+
+                while (!closed && (event = queue.poll()) != null) {
+
+                    Set<Long> skip = replayed;
+
+                    if (skip != null && skip.contains(event.getId())) {
+
+                        continue;
+                    }
+
+                    if (!send(event)) {
+
+                        return;
+                    }
+                }
+            } finally {
+
+                sending.set(false);
+            }
+
+            // 보내는 동안 들어온 이벤트
+            schedule();
+        }
+
+        private boolean send(ChangeEvent event) {
+
+            try {
+
+                emitter.send(SseEmitter.event()
+                        .id(String.valueOf(event.getId()))
+                        .name("change")
+                        .data(event, MediaType.APPLICATION_JSON));
+
+                return true;
+            } catch (IOException | IllegalStateException e) {
+
+                close();
+
+                return false;
+            }
+        }
+
+        /**
+         * 이어 받을 수 없는 구독자는 reset 을 보내고 종료 (버퍼는 바로 비운다.)
+         */
+        private void reset(String reason) {
+
+            if (closed) {
+
+                return;
+            }
+
+            close();
+            queue.clear();
+
+            senders.execute(() -> {
+
+                try {
+
+                    emitter.send(SseEmitter.event().name("reset").data(reason));
+                    emitter.complete();
+                } catch (IOException | IllegalStateException e) {
+
+                    emitter.completeWithError(e);
+                }
+            });
+        }
+
+        private void close() {
+
+            closed = true;
+            subscribers.remove(this);
+        }
+    }
+}
@@ -0,0 +1,52 @@
+package hello.querydsl.feed;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+/**
+ * 변경 피드 설정
+ */
+@Component
+@ConfigurationProperties(prefix = "change-feed")
+@Getter @Setter
+public class ChangeFeedSettings {
+
+    /**
+     * 구독자별로 보내지 못하고 쌓아 둘 이벤트 수
+     *
+     * 넘으면 reset 이벤트를 보내고 연결을 끊는다. 클라이언트는 Last-Event-ID 로 다시 연결해서 아웃박스에서 이어 받는다.
+     */
+    private int bufferSize = 256;
+
+    /**
+     * Last-Event-ID 이후 아웃박스에서 다시 보낼 최대 이벤트 수 (넘으면 reset)
+     */
+    private int replayLimit = 1000;
+
+    /**
+     * Last-Event-ID 이벤트보다 이 시간 전까지 저장된 이벤트는 아이디가 더 작아도 다시 보낸다.
+     *
+     * 아이디는 저장할 때 정해지고 커밋 순서는 트랜잭션마다 다르므로
+     * 더 작은 아이디가 나중에 커밋될 수 있다. (저장과 커밋 사이 시간보다 길어야 한다.)
+     */
+    private long replayWindowMillis = 5000;
+
+    /**
+     * 아웃박스 보관 시간
+     */
+    private long retentionMinutes = 60;
+
+    private long timeoutMillis = 30 * 60 * 1000;
+
+    /**
+     * 연결 유지와 끊긴 구독자 정리를 위해 주석을 보내는 주기
+     */
+    private long heartbeatSeconds = 15;
+
+    /**
+     * 이벤트를 보내는 스레드 수 (느린 구독자는 보내는 동안 스레드 하나를 점유한다.)
+     */
+    private int threads = 4;
+}
@@ -0,0 +1,271 @@
+package hello.querydsl.feed;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import hello.querydsl.entity.Member;
+import hello.querydsl.entity.Team;
+import hello.querydsl.feed.ChangeEvent.EntityType;
+import hello.querydsl.feed.ChangeEvent.Operation;
+import org.hibernate.action.spi.AfterTransactionCompletionProcess;
+import org.hibernate.action.spi.BeforeTransactionCompletionProcess;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.engine.spi.SessionImplementor;
+import org.hibernate.engine.spi.SharedSessionContractImplementor;
+import org.hibernate.event.service.spi.EventListenerRegistry;
+import org.hibernate.event.spi.EventSource;
+import org.hibernate.event.spi.EventType;
+import org.hibernate.event.spi.PostDeleteEvent;
+import org.hibernate.event.spi.PostDeleteEventListener;
+import org.hibernate.event.spi.PostInsertEvent;
+import org.hibernate.event.spi.PostInsertEventListener;
+import org.hibernate.event.spi.PostUpdateEvent;
+import org.hibernate.event.spi.PostUpdateEventListener;
+import org.hibernate.persister.entity.EntityPersister;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.annotation.PostConstruct;
+import javax.persistence.EntityManager;
+import javax.persistence.EntityManagerFactory;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Types;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Member, Team 변경을 같은 트랜잭션에서 아웃박스(change_event)에 저장하고 커밋 후 ChangeFeed 로 보낸다.
+ *
+ * - 엔티티 변경 : 하이버네이트 flush 이벤트(POST_INSERT, POST_UPDATE, POST_DELETE)
+ * - 벌크 변경   : 엔티티 이벤트가 없으므로 벌크 update, JDBC insert 하는 곳에서 range() 호출
+ *                (TeamNamePropagator, MemberImporter)
+ *
+ * 이벤트는 세션별로 모아서 커밋 직전(flush 후)에 JDBC 로 저장하고, 커밋되면 구독자에게 보낸다.
+ * 롤백되면 저장한 이벤트도 함께 롤백되고 보내지 않는다.
+ */
+@Component
+public class ChangeOutbox implements PostInsertEventListener, PostUpdateEventListener, PostDeleteEventListener {
+
+    private static final String INSERT_SQL =
+            "INSERT INTO change_event (entity_type, operation, entity_id, from_id, to_id, payload, created_at) VALUES (?, ?, ?, ?, ?, ?, ?)";
+
+    private final EntityManagerFactory emf;
+    private final EntityManager em;
+    private final ObjectMapper objectMapper;
+    private final ChangeFeed changeFeed;
+
+    private final Map<EventSource, Pending> pending = new ConcurrentHashMap<>();
+
+    public ChangeOutbox(EntityManagerFactory emf, EntityManager em, ObjectMapper objectMapper, ChangeFeed changeFeed) {
+
+        this.emf = emf;
+        this.em = em;
+        this.objectMapper = objectMapper;
+        this.changeFeed = changeFeed;
+    }
+
+    @PostConstruct
+    public void register() {
+
+        EventListenerRegistry registry = emf.unwrap(SessionFactoryImplementor.class)
+                                                .getServiceRegistry()
+                                                .getService(EventListenerRegistry.class);
+
+        registry.appendListeners(EventType.POST_INSERT, this);
+        registry.appendListeners(EventType.POST_UPDATE, this);
+        registry.appendListeners(EventType.POST_DELETE, this);
+    }
+
+    /**
+     * 벌크 변경 기록, 변경과 같은 트랜잭션 안에서 호출해야 한다.
+     *
+     * 범위는 변경된 아이디를 모두 포함하는 상위 집합이다. 범위 안의 아이디가 모두 바뀐 것은 아니므로
+     * 구독자는 changes 의 조건(예: teamId)으로 거르거나 범위를 다시 조회해야 한다.
+     *
+     * @param entityType
+     * @param operation
+     * @param fromId 변경된 아이디 중 가장 작은 아이디
+     * @param toId 변경된 아이디 중 가장 큰 아이디
+     * @param changes 바뀐 내용 (예: teamName), 없으면 null
+     */
+    public void range(EntityType entityType, Operation operation, Long fromId, Long toId, Map<String, Object> changes) {
+
+        if (!TransactionSynchronizationManager.isActualTransactionActive()) {
+
+            throw new IllegalStateException("트랜잭션 안에서 호출해야 합니다.");
+        }
+
+        add(em.unwrap(EventSource.class), new ChangeEvent(entityType, operation, null, fromId, toId, changes == null ? null : json(changes)));
+    }
+
+    @Override
+    public void onPostInsert(PostInsertEvent event) {
+
+        record(event.getSession(), event.getEntity(), Operation.INSERT, event.getId(), event.getPersister(), event.getState());
+    }
+
+    @Override
+    public void onPostUpdate(PostUpdateEvent event) {
+
+        record(event.getSession(), event.getEntity(), Operation.UPDATE, event.getId(), event.getPersister(), event.getState());
+    }
+
+    @Override
+    public void onPostDelete(PostDeleteEvent event) {
+
+        record(event.getSession(), event.getEntity(), Operation.DELETE, event.getId(), event.getPersister(), null);
+    }
+
+    @Override
+    public boolean requiresPostCommitHandling(EntityPersister persister) {
+
+        return false;
+    }
+
+    @Override
+    @SuppressWarnings("deprecation")
+    public boolean requiresPostCommitHanding(EntityPersister persister) {
+
+        return false;
+    }
+
+    private void record(EventSource session, Object entity, Operation operation, Object id, EntityPersister persister, Object[] state) {
+
+        EntityType entityType;
+
+        if (entity instanceof Member) {
+
+            entityType = EntityType.MEMBER;
+        } else if (entity instanceof Team) {
+
+            entityType = EntityType.TEAM;
+        } else {
+
+            return;
+        }
+
+        String payload = state == null ? null : json(payload(entityType, persister, state));
+
+        add(session, new ChangeEvent(entityType, operation, (Long) id, null, null, payload));
+    }
+
+    private void add(EventSource session, ChangeEvent event) {
+
+        pending.computeIfAbsent(session, key -> {
+
+            Pending created = new Pending();
+
+            key.getActionQueue().registerProcess((BeforeTransactionCompletionProcess) created);
+            key.getActionQueue().registerProcess((AfterTransactionCompletionProcess) created);
+
+            return created;
+        }).events.add(event);
+    }
+
+    /**
+     * 변경 후 값, 연관관계는 아이디만 (프록시를 초기화하지 않는다.)
+     */
+    private static Map<String, Object> payload(EntityType entityType, EntityPersister persister, Object[] state) {
+
+        Map<String, Object> payload = new LinkedHashMap<>();
+
+        if (entityType == EntityType.MEMBER) {
+
+            Team team = (Team) state[index(persister, "team")];
+
+            payload.put("username", state[index(persister, "username")]);
+            payload.put("age", state[index(persister, "age")]);
+            payload.put("teamId", team != null ? team.getId() : null);
+            payload.put("teamName", state[index(persister, "teamName")]);
+        } else {
+
+            payload.put("name", state[index(persister, "name")]);
+        }
+
+        return payload;
+    }
+
+    private static int index(EntityPersister persister, String property) {
+
+        return persister.getEntityMetamodel().getPropertyIndex(property);
+    }
+
+    private String json(Map<String, Object> value) {
+
+        try {
+
+            return objectMapper.writeValueAsString(value);
+        } catch (JsonProcessingException e) {
+
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /**
+     * 세션(트랜잭션) 하나의 이벤트
+     */
+    private final class Pending implements BeforeTransactionCompletionProcess, AfterTransactionCompletionProcess {
+
+        private final List<ChangeEvent> events = new ArrayList<>();
+
+        /**
+         * flush 가 끝난 뒤 같은 커넥션으로 저장
+         */
+        @Override
+        public void doBeforeTransactionCompletion(SessionImplementor session) {
+
+            long now = System.currentTimeMillis();
+
+            session.doWork(connection -> {
+
+                try (PreparedStatement statement = connection.prepareStatement(INSERT_SQL, Statement.RETURN_GENERATED_KEYS)) {
+
+                    for (ChangeEvent event : events) {
+
+                        statement.setString(1, event.getEntityType().name());
+                        statement.setString(2, event.getOperation().name());
+                        setLong(statement, 3, event.getEntityId());
+                        setLong(statement, 4, event.getFromId());
+                        setLong(statement, 5, event.getToId());
+                        statement.setString(6, event.getPayload());
+                        statement.setLong(7, now);
+                        statement.executeUpdate();
+
+                        try (ResultSet keys = statement.getGeneratedKeys()) {
+
+                            keys.next();
+                            event.stored(keys.getLong(1), now);
+                        }
+                    }
+                }
+            });
+        }
+
+        @Override
+        public void doAfterTransactionCompletion(boolean success, SharedSessionContractImplementor session) {
+
+            pending.remove(session);
+
+            if (success) {
+
+                changeFeed.publish(events);
+            }
+        }
+
+        private void setLong(PreparedStatement statement, int index, Long value) throws SQLException {
+
+            if (value == null) {
+
+                statement.setNull(index, Types.BIGINT);
+            } else {
+
+                statement.setLong(index, value);
+            }
+        }
+    }
+}
@@ -0,0 +1,166 @@
+package hello.querydsl.importer;
+
+import java.io.BufferedReader;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * CSV (첫 행은 헤더, 컬럼 순서는 자유)
+ *
+ * username,age,teamName
+ * member1,10,teamA
+ * "kim, young",20,
+ *
+ * 큰따옴표로 감싼 값에는 쉼표와 "" (큰따옴표)를 쓸 수 있다. 값 안의 줄바꿈은 지원하지 않는다.
+ */
+class CsvMemberImportReader extends MemberImportReader {
+
+    private boolean headerRead;
+    private int username = -1;
+    private int age = -1;
+    private int teamName = -1;
+
+    CsvMemberImportReader(BufferedReader reader) {
+
+        super(reader);
+    }
+
+    @Override
+    public MemberImportRow next() {
+
+        if (!headerRead) {
+
+            readHeader();
+            headerRead = true;
+        }
+
+        return super.next();
+    }
+
+    /**
+     * @throws InvalidImportFileException 헤더에 username 컬럼이 없는 경우
+     */
+    private void readHeader() {
+
+        String header = readLine();
+
+        // 빈 파일
+        if (header == null) {
+
+            return;
+        }
+
+        List<String> columns;
+
+        try {
+
+            columns = split(1, header);
+        } catch (InvalidImportRowException e) {
+
+            throw new InvalidImportFileException("CSV 헤더를 읽을 수 없습니다: " + e.getMessage());
+        }
+
+        for (int i = 0; i < columns.size(); i++) {
+
+            switch (columns.get(i).trim()) {
+
+                case "username":
+                    username = i;
+                    break;
+                case "age":
+                    age = i;
+                    break;
+                case "teamName":
+                    teamName = i;
+                    break;
+                default:
+                    break;
+            }
+        }
+
+        if (username < 0) {
+
+            throw new InvalidImportFileException("CSV 헤더에 username 컬럼이 없습니다.");
+        }
+    }
+
+    @Override
+    protected MemberImportRow parse(long line, String text) {
+
+        List<String> values = split(line, text);
+
+        return new MemberImportRow(line, value(values, username), age(line, value(values, age)), value(values, teamName));
+    }
+
+    private static String value(List<String> values, int index) {
+
+        if (index < 0 || index >= values.size() || values.get(index).isEmpty()) {
+
+            return null;
+        }
+
+        return values.get(index);
+    }
+
+    private static Integer age(long line, String value) {
+
+        if (value == null) {
+
+            return null;
+        }
+
+        try {
+
+            return Integer.valueOf(value.trim());
+        } catch (NumberFormatException e) {
+
+            throw new InvalidImportRowException(line, "age 가 숫자가 아닙니다: " + value);
+        }
+    }
+
+    private static List<String> split(long line, String text) {
+
+        List<String> values = new ArrayList<>();
+        StringBuilder value = new StringBuilder();
+        boolean quoted = false;
+
+        for (int i = 0; i < text.length(); i++) {
+
+            char c = text.charAt(i);
+
+            if (quoted) {
+
+                if (c != '"') {
+
+                    value.append(c);
+                } else if (i + 1 < text.length() && text.charAt(i + 1) == '"') {
+
+                    value.append('"');
+                    i++;
+                } else {
+
+                    quoted = false;
+                }
+            } else if (c == '"') {
+
+                quoted = true;
+            } else if (c == ',') {
+
+                values.add(value.toString());
+                value.setLength(0);
+            } else {
+
+                value.append(c);
+            }
+        }
+
+        if (quoted) {
+
+            throw new InvalidImportRowException(line, "닫히지 않은 큰따옴표가 있습니다.");
+        }
+
+        values.add(value.toString());
+
+        return values;
+    }
+}
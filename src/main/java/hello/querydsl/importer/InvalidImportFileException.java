@@ -0,0 +1,16 @@
+package hello.querydsl.importer;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+/**
+ * 대량 등록 파일을 읽을 수 없는 경우 (지원하지 않는 형식, CSV 헤더 오류)
+ */
+@ResponseStatus(HttpStatus.BAD_REQUEST)
+public class InvalidImportFileException extends RuntimeException {
+
+    public InvalidImportFileException(String message) {
+
+        super(message);
+    }
+}
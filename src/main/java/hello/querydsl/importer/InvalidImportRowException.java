@@ -0,0 +1,23 @@
+package hello.querydsl.importer;
+
+/**
+ * 파일의 한 행을 읽을 수 없음
+ *
+ * 행 단위로 읽으므로 다음 행부터 계속 읽을 수 있다.
+ */
+public class InvalidImportRowException extends RuntimeException {
+
+    private final long line;
+
+    public InvalidImportRowException(long line, String message) {
+
+        super(message);
+
+        this.line = line;
+    }
+
+    public long getLine() {
+
+        return line;
+    }
+}
@@ -0,0 +1,17 @@
+package hello.querydsl.importer;
+
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import lombok.ToString;
+
+/**
+ * 등록하지 못한 행
+ */
+@Getter
+@ToString
+@RequiredArgsConstructor
+public class MemberImportFailure {
+
+    private final long line;       // 파일의 행 번호 (1 부터)
+    private final String message;
+}
@@ -0,0 +1,62 @@
+package hello.querydsl.importer;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.http.MediaType;
+
+import java.io.BufferedReader;
+
+/**
+ * 대량 등록 파일 형식
+ */
+public enum MemberImportFormat {
+
+    NDJSON("application/x-ndjson") {
+
+        @Override
+        public MemberImportReader reader(BufferedReader reader, ObjectMapper objectMapper) {
+
+            return new NdjsonMemberImportReader(reader, objectMapper.readerFor(MemberImportRow.class));
+        }
+    },
+
+    CSV("text/csv") {
+
+        @Override
+        public MemberImportReader reader(BufferedReader reader, ObjectMapper objectMapper) {
+
+            return new CsvMemberImportReader(reader);
+        }
+    };
+
+    private final MediaType mediaType;
+
+    MemberImportFormat(String mediaType) {
+
+        this.mediaType = MediaType.parseMediaType(mediaType);
+    }
+
+    public abstract MemberImportReader reader(BufferedReader reader, ObjectMapper objectMapper);
+
+    public MediaType getMediaType() {
+
+        return mediaType;
+    }
+
+    /**
+     * @param contentType 요청 Content-Type
+     * @return 파일 형식
+     * @throws InvalidImportFileException 지원하지 않는 형식
+     */
+    public static MemberImportFormat of(MediaType contentType) {
+
+        for (MemberImportFormat format : values()) {
+
+            if (format.mediaType.isCompatibleWith(contentType)) {
+
+                return format;
+            }
+        }
+
+        throw new InvalidImportFileException("지원하지 않는 형식입니다: " + contentType);
+    }
+}
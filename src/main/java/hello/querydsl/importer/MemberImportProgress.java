@@ -0,0 +1,26 @@
+package hello.querydsl.importer;
+
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import lombok.ToString;
+
+import java.util.List;
+
+/**
+ * 대량 등록 진행 상황
+ *
+ * 청크를 커밋할 때마다 하나씩 만들어지고, 마지막은 done = true
+ * failures 는 직전 진행 상황 이후에 실패한 행만 담는다. (MemberImportSettings.maxFailures 까지)
+ */
+@Getter
+@ToString
+@RequiredArgsConstructor
+public class MemberImportProgress {
+
+    private final long processed;  // 읽은 행 수
+    private final long imported;   // 커밋된 회원 수
+    private final long failed;     // 실패한 행 수
+    private final List<MemberImportFailure> failures;
+    private final boolean done;
+    private final long elapsedMillis;
+}
@@ -0,0 +1,73 @@
+package hello.querydsl.importer;
+
+import java.io.BufferedReader;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+
+/**
+ * 대량 등록 파일을 한 행씩 읽기
+ *
+ * 파일 전체를 메모리에 올리지 않고 요청 본문에서 한 행씩 읽는다.
+ * 잘못된 행은 InvalidImportRowException 을 던지고, 다음 next() 는 그 다음 행부터 읽는다.
+ */
+public abstract class MemberImportReader implements Closeable {
+
+    private final BufferedReader reader;
+    private long line;
+
+    protected MemberImportReader(BufferedReader reader) {
+
+        this.reader = reader;
+    }
+
+    /**
+     * @return 다음 회원 행, 파일 끝이면 null
+     * @throws InvalidImportRowException 읽을 수 없는 행
+     */
+    public MemberImportRow next() {
+
+        String text;
+
+        while ((text = readLine()) != null) {
+
+            if (!text.isBlank()) {
+
+                return parse(line, text);
+            }
+        }
+
+        return null;
+    }
+
+    /**
+     * @param line 행 번호 (1 부터)
+     * @param text 빈 행이 아닌 행
+     * @return 회원 행
+     */
+    protected abstract MemberImportRow parse(long line, String text);
+
+    protected String readLine() {
+
+        try {
+
+            String text = reader.readLine();
+
+            if (text != null) {
+
+                line++;
+            }
+
+            return text;
+        } catch (IOException e) {
+
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+
+        reader.close();
+    }
+}
@@ -0,0 +1,34 @@
+package hello.querydsl.importer;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import lombok.ToString;
+
+/**
+ * 대량 등록 파일의 회원 한 행
+ *
+ * NDJSON : {"username":"member1","age":10,"teamName":"teamA"}
+ * CSV    : username,age,teamName (첫 행은 헤더)
+ */
+@Getter @Setter
+@NoArgsConstructor
+@ToString
+public class MemberImportRow {
+
+    @JsonIgnore
+    private long line;
+
+    private String username;
+    private Integer age;
+    private String teamName;
+
+    public MemberImportRow(long line, String username, Integer age, String teamName) {
+
+        this.line = line;
+        this.username = username;
+        this.age = age;
+        this.teamName = teamName;
+    }
+}
@@ -0,0 +1,25 @@
+package hello.querydsl.importer;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+/**
+ * 회원 대량 등록 설정
+ */
+@Component
+@ConfigurationProperties(prefix = "member-import")
+@Getter @Setter
+public class MemberImportSettings {
+
+    /**
+     * 한 번의 JDBC 배치, 한 번의 커밋으로 저장할 회원 수
+     */
+    private int chunkSize = 1000;
+
+    /**
+     * 응답에 남길 실패 행 수 (넘으면 건수만 센다)
+     */
+    private int maxFailures = 100;
+}
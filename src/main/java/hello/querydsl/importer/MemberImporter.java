@@ -0,0 +1,309 @@
+package hello.querydsl.importer;
+
+import com.querydsl.core.Tuple;
+import com.querydsl.jpa.impl.JPAQueryFactory;
+import hello.querydsl.entity.Member;
+import hello.querydsl.feed.ChangeEvent;
+import hello.querydsl.feed.ChangeOutbox;
+import hello.querydsl.repository.MemberAgeStatistics;
+import lombok.extern.slf4j.Slf4j;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.id.IdentifierGenerator;
+import org.hibernate.id.enhanced.SequenceStyleGenerator;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.util.StringUtils;
+
+import javax.persistence.EntityManagerFactory;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+
+import static hello.querydsl.entity.QTeam.team;
+
+/**
+ * 회원 대량 등록
+ *
+ * 회원마다 em.persist() 하면 모든 엔티티가 영속성 컨텍스트에 쌓이고 아이디마다 시퀀스를 조회하므로
+ * 파일을 한 행씩 읽어서 member-import.chunk-size 건씩 JDBC 배치 insert 하고 청크마다 커밋한다.
+ * 메모리에는 청크 하나와 팀 이름 -> 아이디 맵만 유지하므로 파일 크기와 상관없이 일정하다.
+ *
+ * - 팀은 시작할 때 한 번 조회한 이름 -> 아이디 맵으로 찾고, 없는 팀 이름은 실패 행으로 남긴다.
+ * - 아이디는 청크마다 Member 시퀀스에서 한 번에 필요한 만큼 받는다. (H2 SYSTEM_RANGE)
+ * - 엔티티를 거치지 않으므로 하이버네이트 이벤트가 없다. 청크를 커밋하면 MemberAgeStatistics 를 비우고
+ *   변경 피드에는 청크의 아이디 범위로 기록한다. (ChangeOutbox.range)
+ * - 이미 커밋된 청크는 이후 청크가 실패해도 롤백되지 않는다.
+ */
+@Slf4j
+@Component
+public class MemberImporter {
+
+    private static final String INSERT_SQL = "INSERT INTO member (member_id, username, age, team_id, team_name) VALUES (?, ?, ?, ?, ?)";
+    private static final int MAX_USERNAME_LENGTH = 255;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final JPAQueryFactory queryFactory;
+    private final TransactionTemplate transactionTemplate;
+    private final MemberAgeStatistics ageStatistics;
+    private final MemberImportSettings settings;
+    private final ChangeOutbox changeOutbox;
+    private final String nextIdsSql;
+
+    public MemberImporter(JdbcTemplate jdbcTemplate,
+                          JPAQueryFactory queryFactory,
+                          PlatformTransactionManager transactionManager,
+                          EntityManagerFactory emf,
+                          MemberAgeStatistics ageStatistics,
+                          MemberImportSettings settings,
+                          ChangeOutbox changeOutbox) {
+
+        this.jdbcTemplate = jdbcTemplate;
+        this.queryFactory = queryFactory;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.ageStatistics = ageStatistics;
+        this.settings = settings;
+        this.changeOutbox = changeOutbox;
+        this.nextIdsSql = "SELECT NEXT VALUE FOR " + memberSequence(emf) + " FROM SYSTEM_RANGE(1, ?)";
+    }
+
+    /**
+     * Member 아이디 시퀀스 이름
+     *
+     * 시퀀스 값을 그대로 아이디로 쓰므로 하이버네이트가 시퀀스 값 하나로 여러 아이디를 만드는 경우(allocationSize > 1)는 지원하지 않는다.
+     */
+    private static String memberSequence(EntityManagerFactory emf) {
+
+        IdentifierGenerator generator = emf.unwrap(SessionFactoryImplementor.class)
+                                                .getMetamodel()
+                                                .entityPersister(Member.class)
+                                                .getIdentifierGenerator();
+
+        if (!(generator instanceof SequenceStyleGenerator)
+                || ((SequenceStyleGenerator) generator).getDatabaseStructure().getIncrementSize() != 1) {
+
+            throw new IllegalStateException("Member 아이디는 증가 크기가 1인 시퀀스여야 합니다: " + generator);
+        }
+
+        return ((SequenceStyleGenerator) generator).getDatabaseStructure().getPhysicalName().render();
+    }
+
+    /**
+     * 파일 끝까지 읽어서 등록
+     *
+     * @param reader 파일
+     * @param listener 청크를 커밋할 때마다, 그리고 마지막에 한 번 진행 상황을 받는다.
+     * @return 마지막 진행 상황
+     */
+    public MemberImportProgress importMembers(MemberImportReader reader, Consumer<MemberImportProgress> listener) {
+
+        Job job = new Job(teamIds(), listener);
+
+        while (true) {
+
+            MemberImportRow row;
+
+            try {
+
+                row = reader.next();
+            } catch (InvalidImportRowException e) {
+
+                job.processed++;
+                job.fail(e.getLine(), e.getMessage());
+
+                continue;
+            }
+
+            if (row == null) {
+
+                break;
+            }
+
+            job.processed++;
+            job.add(row);
+
+            if (job.chunk.size() >= settings.getChunkSize()) {
+
+                job.flush();
+            }
+        }
+
+        job.flush();
+
+        MemberImportProgress last = job.progress(true);
+
+        log.info("member import done: processed={}, imported={}, failed={}, elapsed={}ms",
+                last.getProcessed(), last.getImported(), last.getFailed(), last.getElapsedMillis());
+
+        listener.accept(last);
+
+        return last;
+    }
+
+    /**
+     * @return 팀 이름 -> 아이디, 같은 이름의 팀이 여럿이면 먼저 만든 팀
+     */
+    private Map<String, Long> teamIds() {
+
+        List<Tuple> teams = queryFactory
+                                .select(team.name, team.id)
+                                .from(team)
+                                .orderBy(team.id.asc())
+                                .fetch();
+
+        Map<String, Long> teamIds = new HashMap<>();
+
+        for (Tuple row : teams) {
+
+            teamIds.putIfAbsent(row.get(team.name), row.get(team.id));
+        }
+
+        return teamIds;
+    }
+
+    /**
+     * 등록 한 번의 상태
+     */
+    private class Job {
+
+        private final Map<String, Long> teamIds;
+        private final Consumer<MemberImportProgress> listener;
+        private final long start = System.currentTimeMillis();
+
+        private final List<Object[]> chunk = new ArrayList<>();
+        private final List<Long> chunkLines = new ArrayList<>();
+        private List<MemberImportFailure> failures = new ArrayList<>();
+
+        private long processed;
+        private long imported;
+        private long failed;
+
+        private Job(Map<String, Long> teamIds, Consumer<MemberImportProgress> listener) {
+
+            this.teamIds = teamIds;
+            this.listener = listener;
+        }
+
+        /**
+         * 검증하고 청크에 추가, 잘못된 행은 실패로 남긴다.
+         */
+        private void add(MemberImportRow row) {
+
+            String username = row.getUsername() != null ? row.getUsername().trim() : null;
+
+            if (!StringUtils.hasText(username)) {
+
+                fail(row.getLine(), "username 이 없습니다.");
+
+                return;
+            }
+
+            if (username.length() > MAX_USERNAME_LENGTH) {
+
+                fail(row.getLine(), "username 은 " + MAX_USERNAME_LENGTH + "자 이하여야 합니다.");
+
+                return;
+            }
+
+            if (row.getAge() == null || row.getAge() < 0) {
+
+                fail(row.getLine(), "age 는 0 이상이어야 합니다.");
+
+                return;
+            }
+
+            String teamName = StringUtils.hasText(row.getTeamName()) ? row.getTeamName().trim() : null;
+            Long teamId = null;
+
+            if (teamName != null) {
+
+                teamId = teamIds.get(teamName);
+
+                if (teamId == null) {
+
+                    fail(row.getLine(), "팀이 없습니다: " + teamName);
+
+                    return;
+                }
+            }
+
+            // 아이디는 flush() 에서 채운다.
+            chunk.add(new Object[]{null, username, row.getAge(), teamId, teamName});
+            chunkLines.add(row.getLine());
+        }
+
+        /**
+         * 청크를 한 트랜잭션에서 배치 insert 하고 커밋
+         *
+         * 배치가 실패하면 청크 전체를 실패로 남기고 다음 청크를 계속 진행한다.
+         */
+        private void flush() {
+
+            if (chunk.isEmpty()) {
+
+                return;
+            }
+
+            try {
+
+                transactionTemplate.executeWithoutResult(status -> {
+
+                    List<Long> ids = jdbcTemplate.queryForList(nextIdsSql, Long.class, chunk.size());
+
+                    for (int i = 0; i < chunk.size(); i++) {
+
+                        chunk.get(i)[0] = ids.get(i);
+                    }
+
+                    jdbcTemplate.batchUpdate(INSERT_SQL, chunk);
+
+                    // 엔티티 이벤트가 없으므로 아이디 범위로 기록
+                    changeOutbox.range(ChangeEvent.EntityType.MEMBER, ChangeEvent.Operation.INSERT, ids.get(0), ids.get(ids.size() - 1), null);
+                });
+
+                imported += chunk.size();
+            } catch (DataAccessException e) {
+
+                log.warn("member import chunk failed: lines={}~{}", chunkLines.get(0), chunkLines.get(chunkLines.size() - 1), e);
+
+                for (Long line : chunkLines) {
+
+                    fail(line, "저장하지 못했습니다: " + e.getMostSpecificCause().getMessage());
+                }
+            }
+
+            chunk.clear();
+            chunkLines.clear();
+
+            ageStatistics.invalidate();
+
+            listener.accept(progress(false));
+        }
+
+        private void fail(long line, String message) {
+
+            failed++;
+
+            if (failed <= settings.getMaxFailures()) {
+
+                failures.add(new MemberImportFailure(line, message));
+            }
+        }
+
+        /**
+         * 진행 상황을 만들고 실패 행 목록은 비운다.
+         */
+        private MemberImportProgress progress(boolean done) {
+
+            List<MemberImportFailure> reported = failures;
+
+            failures = new ArrayList<>();
+
+            return new MemberImportProgress(processed, imported, failed, reported, done, System.currentTimeMillis() - start);
+        }
+    }
+}
@@ -0,0 +1,36 @@
+package hello.querydsl.importer;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectReader;
+
+import java.io.BufferedReader;
+
+/**
+ * NDJSON (한 행에 JSON 객체 하나)
+ */
+class NdjsonMemberImportReader extends MemberImportReader {
+
+    private final ObjectReader objectReader;
+
+    NdjsonMemberImportReader(BufferedReader reader, ObjectReader objectReader) {
+
+        super(reader);
+
+        this.objectReader = objectReader;
+    }
+
+    @Override
+    protected MemberImportRow parse(long line, String text) {
+
+        try {
+
+            MemberImportRow row = objectReader.readValue(text);
+            row.setLine(line);
+
+            return row;
+        } catch (JsonProcessingException e) {
+
+            throw new InvalidImportRowException(line, "JSON 형식이 아닙니다: " + e.getOriginalMessage());
+        }
+    }
+}
@@ -0,0 +1,42 @@
+package hello.querydsl.repository;
+
+import lombok.Getter;
+import lombok.ToString;
+
+/**
+ * 나이 집계 (count, min, max, avg)
+ *
+ * MemberAgeStatistics 가 유지하는 값의 스냅샷
+ */
+@Getter
+@ToString
+public final class AgeStats {
+
+    static final AgeStats EMPTY = new AgeStats(0, 0, null, null);
+
+    private final long count;
+    private final long sum;
+    private final Integer min;
+    private final Integer max;
+
+    AgeStats(long count, long sum, Integer min, Integer max) {
+
+        this.count = count;
+        this.sum = sum;
+        this.min = min;
+        this.max = max;
+    }
+
+    /**
+     * @return 평균 나이, 회원이 없으면 null
+     */
+    public Double getAvg() {
+
+        return count == 0 ? null : (double) sum / count;
+    }
+
+    public boolean isEmpty() {
+
+        return count == 0;
+    }
+}
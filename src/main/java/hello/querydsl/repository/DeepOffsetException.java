@@ -0,0 +1,16 @@
+package hello.querydsl.repository;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+/**
+ * 조회 위치가 member-paging.max-offset 을 넘는 페이지를 요청한 경우 (MemberPagingGuard)
+ */
+@ResponseStatus(HttpStatus.BAD_REQUEST)
+public class DeepOffsetException extends RuntimeException {
+
+    public DeepOffsetException(String message) {
+
+        super(message);
+    }
+}
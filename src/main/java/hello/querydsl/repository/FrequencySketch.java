@@ -0,0 +1,111 @@
+package hello.querydsl.repository;
+
+/**
+ * 요청 빈도 추정 (Count-Min Sketch, 4비트 카운터)
+ *
+ * 키마다 카운터를 두지 않고 4개 행에서 해시 위치의 카운터를 올리고 그중 최솟값을 빈도로 사용한다.
+ * 해시 충돌로 실제보다 크게 추정될 수는 있지만 작게 추정되지는 않는다.
+ *
+ * 카운터는 long 하나에 16개씩 담고 15에서 멈춘다. (width 1024 이면 2KB)
+ * 올린 횟수가 width * 10 이 되면 모든 카운터를 절반으로 줄여서 오래된 빈도가 사라지게 한다.
+ */
+final class FrequencySketch {
+
+    private static final int DEPTH = 4;
+    private static final int MAX_COUNT = 15;
+    private static final long RESET_MASK = 0x7777_7777_7777_7777L;
+    private static final long[] SEEDS = {0xc3a5c85c97cb3127L, 0xb492b66fbe98f273L, 0x9ae16a3b2f90404fL, 0xcbf29ce484222325L};
+
+    private final long[][] table;
+    private final int mask;
+    private final int sampleSize;
+
+    private int additions;
+
+    FrequencySketch(int width) {
+
+        int size = Integer.highestOneBit(Math.max(16, width) - 1) << 1;
+
+        this.table = new long[DEPTH][size / 16];
+        this.mask = size - 1;
+        this.sampleSize = size * 10;
+    }
+
+    /**
+     * @return 올린 후 추정 빈도
+     */
+    synchronized int increment(Object key) {
+
+        int hash = spread(key.hashCode());
+        int frequency = MAX_COUNT;
+        boolean added = false;
+
+        for (int i = 0; i < DEPTH; i++) {
+
+            int index = index(hash, i);
+            int shift = (index & 15) << 2;
+            int count = (int) ((table[i][index >>> 4] >>> shift) & 0xF);
+
+            if (count < MAX_COUNT) {
+
+                table[i][index >>> 4] += 1L << shift;
+                count++;
+                added = true;
+            }
+
+            frequency = Math.min(frequency, count);
+        }
+
+        if (added && ++additions >= sampleSize) {
+
+            halve();
+        }
+
+        return frequency;
+    }
+
+    synchronized int frequency(Object key) {
+
+        int hash = spread(key.hashCode());
+        int frequency = MAX_COUNT;
+
+        for (int i = 0; i < DEPTH; i++) {
+
+            int index = index(hash, i);
+
+            frequency = Math.min(frequency, (int) ((table[i][index >>> 4] >>> ((index & 15) << 2)) & 0xF));
+        }
+
+        return frequency;
+    }
+
+    private void halve() {
+
+        for (long[] row : table) {
+
+            for (int i = 0; i < row.length; i++) {
+
+                row[i] = (row[i] >>> 1) & RESET_MASK;
+            }
+        }
+
+        additions /= 2;
+    }
+
+    private int index(int hash, int row) {
+
+        long h = (hash + SEEDS[row]) * SEEDS[row];
+
+        h += h >>> 32;
+
+        return (int) h & mask;
+    }
+
+    private static int spread(int hash) {
+
+        hash = ((hash >>> 16) ^ hash) * 0x45d9f3b;
+        hash = ((hash >>> 16) ^ hash) * 0x45d9f3b;
+
+        return (hash >>> 16) ^ hash;
+    }
+}
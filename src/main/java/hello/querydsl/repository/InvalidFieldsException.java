@@ -0,0 +1,16 @@
+package hello.querydsl.repository;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+/**
+ * 조회할 수 없는 필드를 요청한 경우 (fields=)
+ */
+@ResponseStatus(HttpStatus.BAD_REQUEST)
+public class InvalidFieldsException extends RuntimeException {
+
+    public InvalidFieldsException(String message) {
+
+        super(message);
+    }
+}
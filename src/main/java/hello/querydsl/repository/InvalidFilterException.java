@@ -0,0 +1,16 @@
+package hello.querydsl.repository;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+/**
+ * 비용 제한(MemberFilterGuard)을 넘는 검색 조건을 요청한 경우
+ */
+@ResponseStatus(HttpStatus.BAD_REQUEST)
+public class InvalidFilterException extends RuntimeException {
+
+    public InvalidFilterException(String message) {
+
+        super(message);
+    }
+}
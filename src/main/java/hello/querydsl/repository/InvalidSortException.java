@@ -0,0 +1,16 @@
+package hello.querydsl.repository;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+/**
+ * 정렬할 수 없는 프로퍼티로 정렬을 요청한 경우
+ */
+@ResponseStatus(HttpStatus.BAD_REQUEST)
+public class InvalidSortException extends RuntimeException {
+
+    public InvalidSortException(String message) {
+
+        super(message);
+    }
+}
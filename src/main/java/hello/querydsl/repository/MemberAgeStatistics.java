@@ -0,0 +1,216 @@
+package hello.querydsl.repository;
+
+import com.querydsl.core.Tuple;
+import com.querydsl.jpa.impl.JPAQueryFactory;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+import static hello.querydsl.entity.QMember.member;
+
+/**
+ * 전체, 팀별 회원 나이 집계 캐시 (count, min, max, avg)
+ *
+ * member.age.eq(select max(age) ...), member.age.goe(select avg(age) ...) 처럼
+ * 쿼리마다 member 전체를 집계하는 서브쿼리 대신 캐시한 값을 상수 파라미터로 사용하기 위해 유지
+ *
+ * - 처음 조회할 때 DB 에서 (팀, 나이) 별 회원 수를 한 번 집계해서 적재
+ * - 이후에는 MemberAgeStatisticsListener 가 커밋된 저장, 수정, 삭제를 받아서 증분 반영
+ * - 나이별 회원 수(TreeMap)를 유지하므로 최소, 최대 나이의 회원이 삭제되어도 다시 집계할 필요가 없다.
+ *
+ * 벌크 연산(update, delete 쿼리)은 영속성 컨텍스트를 거치지 않아 이벤트가 없으므로 실행 후 invalidate() 를 호출해야 한다.
+ */
+@Slf4j
+@Component
+public class MemberAgeStatistics {
+
+    private final JPAQueryFactory queryFactory;
+
+    private AgeHistogram global;
+    private Map<Long, AgeHistogram> teams;
+
+    /**
+     * 적재 중에 반영된 변경이 있는지 확인하기 위한 변경 번호
+     */
+    private long generation;
+
+    public MemberAgeStatistics(JPAQueryFactory queryFactory) {
+
+        this.queryFactory = queryFactory;
+    }
+
+    /**
+     * @return 전체 회원 나이 집계
+     */
+    public AgeStats global() {
+
+        synchronized (this) {
+
+            if (global != null) {
+
+                return global.toStats();
+            }
+        }
+
+        return load().global.toStats();
+    }
+
+    /**
+     * @param teamId 팀 아이디
+     * @return 팀 회원 나이 집계, 회원이 없으면 빈 집계
+     */
+    public AgeStats team(Long teamId) {
+
+        synchronized (this) {
+
+            if (teams != null) {
+
+                return toStats(teams.get(teamId));
+            }
+        }
+
+        return toStats(load().teams.get(teamId));
+    }
+
+    /**
+     * 캐시를 비우고 다음 조회 때 DB 에서 다시 집계 (벌크 연산 후 호출)
+     */
+    public synchronized void invalidate() {
+
+        generation++;
+        global = null;
+        teams = null;
+    }
+
+    synchronized void inserted(Long teamId, int age) {
+
+        generation++;
+
+        if (global == null) {
+
+            return;
+        }
+
+        global.add(age, 1);
+        teams.computeIfAbsent(teamId, key -> new AgeHistogram()).add(age, 1);
+    }
+
+    synchronized void deleted(Long teamId, int age) {
+
+        generation++;
+
+        if (global == null) {
+
+            return;
+        }
+
+        global.add(age, -1);
+
+        AgeHistogram team = teams.get(teamId);
+
+        if (team != null) {
+
+            team.add(age, -1);
+
+            if (team.count == 0) {
+
+                teams.remove(teamId);
+            }
+        }
+    }
+
+    synchronized void updated(Long oldTeamId, int oldAge, Long teamId, int age) {
+
+        deleted(oldTeamId, oldAge);
+        inserted(teamId, age);
+    }
+
+    /**
+     * (팀, 나이) 별 회원 수를 집계해서 적재
+     *
+     * 집계하는 동안 반영된 변경이 있으면 그 변경이 집계에 포함됐는지 알 수 없으므로
+     * 이번 조회에만 사용하고 캐시하지 않는다. (다음 조회에서 다시 적재)
+     */
+    private Snapshot load() {
+
+        long start;
+
+        synchronized (this) {
+
+            start = generation;
+        }
+
+        List<Tuple> rows = queryFactory
+                                .select(member.team.id, member.age, member.count())
+                                .from(member)
+                                .groupBy(member.team.id, member.age)
+                                .fetch();
+
+        Snapshot snapshot = new Snapshot();
+
+        for (Tuple row : rows) {
+
+            int age = row.get(member.age);
+            int count = row.get(member.count()).intValue();
+
+            snapshot.global.add(age, count);
+            snapshot.teams.computeIfAbsent(row.get(member.team.id), key -> new AgeHistogram()).add(age, count);
+        }
+
+        synchronized (this) {
+
+            if (generation == start) {
+
+                global = snapshot.global;
+                teams = snapshot.teams;
+            } else {
+
+                log.debug("member age statistics changed while loading, not cached");
+            }
+        }
+
+        return snapshot;
+    }
+
+    private static AgeStats toStats(AgeHistogram histogram) {
+
+        return histogram == null ? AgeStats.EMPTY : histogram.toStats();
+    }
+
+    private static final class Snapshot {
+
+        private final AgeHistogram global = new AgeHistogram();
+        private final Map<Long, AgeHistogram> teams = new HashMap<>();
+    }
+
+    /**
+     * 나이별 회원 수
+     */
+    private static final class AgeHistogram {
+
+        private final TreeMap<Integer, Integer> counts = new TreeMap<>();
+        private long count;
+        private long sum;
+
+        private void add(int age, int delta) {
+
+            counts.merge(age, delta, (a, b) -> a + b == 0 ? null : a + b);
+            count += delta;
+            sum += (long) age * delta;
+        }
+
+        private AgeStats toStats() {
+
+            if (count == 0) {
+
+                return AgeStats.EMPTY;
+            }
+
+            return new AgeStats(count, sum, counts.firstKey(), counts.lastKey());
+        }
+    }
+}
@@ -0,0 +1,133 @@
+package hello.querydsl.repository;
+
+import hello.querydsl.entity.Member;
+import hello.querydsl.entity.Team;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.event.service.spi.EventListenerRegistry;
+import org.hibernate.event.spi.EventType;
+import org.hibernate.event.spi.PostCommitDeleteEventListener;
+import org.hibernate.event.spi.PostCommitInsertEventListener;
+import org.hibernate.event.spi.PostCommitUpdateEventListener;
+import org.hibernate.event.spi.PostDeleteEvent;
+import org.hibernate.event.spi.PostInsertEvent;
+import org.hibernate.event.spi.PostUpdateEvent;
+import org.hibernate.persister.entity.EntityPersister;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PostConstruct;
+import javax.persistence.EntityManagerFactory;
+
+/**
+ * 커밋된 Member 저장, 수정, 삭제를 MemberAgeStatistics 에 반영
+ *
+ * 롤백된 변경이 집계에 섞이지 않도록 하이버네이트 커밋 후 이벤트(POST_COMMIT_*)를 사용
+ * 수정 이벤트의 이전 상태(oldState)가 없으면 어떤 값이 바뀌었는지 알 수 없으므로 집계를 비운다.
+ */
+@Component
+public class MemberAgeStatisticsListener implements PostCommitInsertEventListener, PostCommitUpdateEventListener, PostCommitDeleteEventListener {
+
+    private final EntityManagerFactory emf;
+    private final MemberAgeStatistics statistics;
+
+    public MemberAgeStatisticsListener(EntityManagerFactory emf, MemberAgeStatistics statistics) {
+
+        this.emf = emf;
+        this.statistics = statistics;
+    }
+
+    @PostConstruct
+    public void register() {
+
+        EventListenerRegistry registry = emf.unwrap(SessionFactoryImplementor.class)
+                                                .getServiceRegistry()
+                                                .getService(EventListenerRegistry.class);
+
+        registry.appendListeners(EventType.POST_COMMIT_INSERT, this);
+        registry.appendListeners(EventType.POST_COMMIT_UPDATE, this);
+        registry.appendListeners(EventType.POST_COMMIT_DELETE, this);
+    }
+
+    @Override
+    public void onPostInsert(PostInsertEvent event) {
+
+        if (event.getEntity() instanceof Member) {
+
+            statistics.inserted(teamId(event.getPersister(), event.getState()), age(event.getPersister(), event.getState()));
+        }
+    }
+
+    @Override
+    public void onPostUpdate(PostUpdateEvent event) {
+
+        if (!(event.getEntity() instanceof Member)) {
+
+            return;
+        }
+
+        if (event.getOldState() == null) {
+
+            statistics.invalidate();
+
+            return;
+        }
+
+        EntityPersister persister = event.getPersister();
+
+        statistics.updated(
+                teamId(persister, event.getOldState()),
+                age(persister, event.getOldState()),
+                teamId(persister, event.getState()),
+                age(persister, event.getState())
+        );
+    }
+
+    @Override
+    public void onPostDelete(PostDeleteEvent event) {
+
+        if (event.getEntity() instanceof Member) {
+
+            statistics.deleted(teamId(event.getPersister(), event.getDeletedState()), age(event.getPersister(), event.getDeletedState()));
+        }
+    }
+
+    /**
+     * 커밋에 실패하면 반영하지 않는다.
+     */
+    @Override
+    public void onPostInsertCommitFailed(PostInsertEvent event) {
+    }
+
+    @Override
+    public void onPostUpdateCommitFailed(PostUpdateEvent event) {
+    }
+
+    @Override
+    public void onPostDeleteCommitFailed(PostDeleteEvent event) {
+    }
+
+    @Override
+    public boolean requiresPostCommitHandling(EntityPersister persister) {
+
+        return Member.class.equals(persister.getMappedClass());
+    }
+
+    @Override
+    @SuppressWarnings("deprecation")
+    public boolean requiresPostCommitHanding(EntityPersister persister) {
+
+        return requiresPostCommitHandling(persister);
+    }
+
+    private static int age(EntityPersister persister, Object[] state) {
+
+        return (Integer) state[persister.getEntityMetamodel().getPropertyIndex("age")];
+    }
+
+    private static Long teamId(EntityPersister persister, Object[] state) {
+
+        Team team = (Team) state[persister.getEntityMetamodel().getPropertyIndex("team")];
+
+        // 프록시의 아이디 조회는 초기화하지 않는다.
+        return team != null ? team.getId() : null;
+    }
+}
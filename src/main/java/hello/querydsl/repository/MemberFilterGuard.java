@@ -0,0 +1,151 @@
+package hello.querydsl.repository;
+
+import com.querydsl.core.types.Constant;
+import com.querydsl.core.types.Expression;
+import com.querydsl.core.types.ExpressionUtils;
+import com.querydsl.core.types.Operation;
+import com.querydsl.core.types.Ops;
+import com.querydsl.core.types.Path;
+import com.querydsl.core.types.Predicate;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.stereotype.Component;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.Set;
+
+import static hello.querydsl.entity.QMember.member;
+import static hello.querydsl.entity.QTeam.team;
+
+/**
+ * QuerydslPredicateExecutor 웹 바인딩(@QuerydslPredicate)으로 만든 조건의 비용 제한
+ *
+ * 조건을 DB 에 보내기 전에 검사해서
+ * - 인덱스 컬럼(id, username, team.name)의 동등/IN 조건이 있으면 선택적인 조건으로 보고 페이지 크기만 제한 (member-filter.max-page-size)
+ * - 조건이 없거나 인덱스가 없는 컬럼(age) 조건만 있으면 페이지 크기를 강제로 줄이고 (member-filter.unselective-page-size)
+ *   조회 위치가 member-filter.unselective-max-offset 을 넘으면 거부
+ * - 허용하지 않은 컬럼, IN 값이 member-filter.max-in-values 보다 많은 조건은 거부
+ */
+@Component
+public class MemberFilterGuard {
+
+    private static final Set<Path<?>> INDEXED = new HashSet<>(Arrays.asList(member.id, member.username, team.name, member.team.name, member.teamName));
+    private static final Set<Path<?>> UNINDEXED = new HashSet<>(Arrays.asList(member.age));
+
+    private final int maxPageSize;
+    private final int unselectivePageSize;
+    private final long unselectiveMaxOffset;
+    private final int maxInValues;
+
+    public MemberFilterGuard(@Value("${member-filter.max-page-size:100}") int maxPageSize,
+                             @Value("${member-filter.unselective-page-size:20}") int unselectivePageSize,
+                             @Value("${member-filter.unselective-max-offset:1000}") long unselectiveMaxOffset,
+                             @Value("${member-filter.max-in-values:100}") int maxInValues) {
+
+        this.maxPageSize = maxPageSize;
+        this.unselectivePageSize = unselectivePageSize;
+        this.unselectiveMaxOffset = unselectiveMaxOffset;
+        this.maxInValues = maxInValues;
+    }
+
+    /**
+     * @param predicate 바인딩된 조건, 조건이 없으면 null 또는 빈 BooleanBuilder
+     * @param pageable 요청한 페이지
+     * @return 크기를 제한한 페이지
+     * @throws InvalidFilterException 허용하지 않은 조건 또는 조회 위치
+     */
+    public Pageable guard(Predicate predicate, Pageable pageable) {
+
+        Expression<?> where = ExpressionUtils.extract(predicate);
+
+        boolean selective = where != null && isSelective(where);
+
+        int limit = selective ? maxPageSize : unselectivePageSize;
+
+        if (pageable.isUnpaged()) {
+
+            return PageRequest.of(0, limit);
+        }
+
+        if (!selective && pageable.getOffset() > unselectiveMaxOffset) {
+
+            throw new InvalidFilterException("인덱스 조건 없이 조회할 수 있는 위치를 넘었습니다: offset=" + pageable.getOffset());
+        }
+
+        if (pageable.getPageSize() <= limit) {
+
+            return pageable;
+        }
+
+        // 페이지 번호는 줄어든 크기 기준이 아니라 요청한 위치 기준으로 유지
+        return PageRequest.of((int) (pageable.getOffset() / limit), limit, pageable.getSort());
+    }
+
+    /**
+     * AND 는 하나라도 선택적이면, OR 는 모두 선택적이어야 선택적인 조건
+     */
+    private boolean isSelective(Expression<?> expression) {
+
+        if (!(expression instanceof Operation)) {
+
+            throw new InvalidFilterException("지원하지 않는 조건입니다: " + expression);
+        }
+
+        Operation<?> operation = (Operation<?>) expression;
+
+        if (operation.getOperator() == Ops.AND) {
+
+            boolean selective = false;
+
+            for (Expression<?> arg : operation.getArgs()) {
+
+                // 모든 조건을 검사하도록 단축 평가하지 않음
+                selective |= isSelective(arg);
+            }
+
+            return selective;
+        }
+
+        if (operation.getOperator() == Ops.OR) {
+
+            boolean selective = true;
+
+            for (Expression<?> arg : operation.getArgs()) {
+
+                selective &= isSelective(arg);
+            }
+
+            return selective;
+        }
+
+        Path<?> path = path(operation);
+
+        if (operation.getOperator() == Ops.IN) {
+
+            Expression<?> values = operation.getArg(1);
+
+            if (values instanceof Constant && ((Constant<?>) values).getConstant() instanceof Collection
+                    && ((Collection<?>) ((Constant<?>) values).getConstant()).size() > maxInValues) {
+
+                throw new InvalidFilterException("IN 조건 값은 " + maxInValues + "개까지 허용합니다: " + path);
+            }
+        }
+
+        return INDEXED.contains(path) && (operation.getOperator() == Ops.EQ || operation.getOperator() == Ops.IN);
+    }
+
+    private Path<?> path(Operation<?> operation) {
+
+        Expression<?> arg = operation.getArgs().isEmpty() ? null : operation.getArg(0);
+
+        if (!(arg instanceof Path) || !(INDEXED.contains(arg) || UNINDEXED.contains(arg))) {
+
+            throw new InvalidFilterException("검색할 수 없는 조건입니다: " + operation);
+        }
+
+        return (Path<?>) arg;
+    }
+}
@@ -0,0 +1,285 @@
+package hello.querydsl.repository;
+
+import hello.querydsl.dto.MemberSearchCondition;
+import hello.querydsl.dto.MemberTeamDto;
+import hello.querydsl.sql.DataVersion;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.EqualsAndHashCode;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 자주 조회하는 검색 조건의 첫 페이지 캐시 (/v3/members)
+ *
+ * 요청 대부분이 몇 안 되는 검색 조건의 첫 페이지이므로
+ * 조건별 요청 빈도를 FrequencySketch 로 추정하고, 빈도가 높은 member-hot-page.top-k 개 조건의
+ * 첫 페이지와 전체 건수를 미리 조회해 두었다가 쿼리 없이 응답한다.
+ *
+ * - 키 : 정규화한 검색 조건 + 페이지 크기 + 정렬 (page=0 만)
+ * - 후보 : 빈도가 min-frequency 이상, 자리가 없으면 빈도가 가장 낮은 조건보다 높을 때만 교체
+ * - 최신 여부 : 조회 전에 읽은 DataVersion 이 현재 버전과 같을 때만 캐시로 응답 (쓰기 후에는 DB 조회)
+ * - 갱신 : refresh-millis 마다 DataVersion 을 확인해서 바뀌었으면 캐시한 조건을 백그라운드에서 다시 조회
+ *          (연속된 쓰기는 한 번의 갱신으로 합쳐진다.) 빈도가 min-frequency 밑으로 떨어진 조건은 이때 뺀다.
+ *
+ * 메트릭
+ * - member.hot-page.requests (result=hit|miss) : 첫 페이지 요청 수
+ * - member.hot-page.hit-ratio                  : 첫 페이지 요청 중 캐시로 응답한 비율
+ * - member.hot-page.staleness                  : 쓰기를 감지한 후 아직 갱신하지 못한 시간 (ms, 최신이면 0)
+ * - member.hot-page.entries                    : 캐시한 조건 수
+ */
+@Slf4j
+@Component
+public class MemberHotPageCache {
+
+    private final MemberRepository memberRepository;
+    private final DataVersion dataVersion;
+    private final MemberHotPageSettings settings;
+    private final FrequencySketch sketch;
+
+    private final Map<Key, Entry> entries = new ConcurrentHashMap<>();
+
+    private final Counter hits;
+    private final Counter misses;
+
+    private final ScheduledExecutorService refresher = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "member-hot-page");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    private volatile long refreshedVersion;
+
+    /**
+     * 갱신하지 못한 쓰기를 처음 감지한 시각, 최신이면 0
+     */
+    private volatile long staleSince;
+
+    public MemberHotPageCache(MemberRepository memberRepository, DataVersion dataVersion, MemberHotPageSettings settings, MeterRegistry registry) {
+
+        this.memberRepository = memberRepository;
+        this.dataVersion = dataVersion;
+        this.settings = settings;
+        this.sketch = new FrequencySketch(settings.getSketchWidth());
+        this.refreshedVersion = dataVersion.current();
+
+        this.hits = counter(registry, "hit");
+        this.misses = counter(registry, "miss");
+
+        Gauge.builder("member.hot-page.hit-ratio", this, MemberHotPageCache::hitRatio)
+                .description("첫 페이지 요청 중 캐시로 응답한 비율")
+                .register(registry);
+
+        Gauge.builder("member.hot-page.staleness", this, MemberHotPageCache::staleness)
+                .description("쓰기를 감지한 후 아직 갱신하지 못한 시간")
+                .baseUnit("milliseconds")
+                .register(registry);
+
+        Gauge.builder("member.hot-page.entries", entries, Map::size)
+                .description("캐시한 검색 조건 수")
+                .register(registry);
+    }
+
+    @PostConstruct
+    public void start() {
+
+        refresher.scheduleWithFixedDelay(this::refresh, settings.getRefreshMillis(), settings.getRefreshMillis(), TimeUnit.MILLISECONDS);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+
+        refresher.shutdownNow();
+    }
+
+    /**
+     * MemberRepository.searchPageComplex() 와 같은 결과, 자주 조회하는 조건의 첫 페이지는 캐시로 응답
+     *
+     * @param condition
+     * @param pageable
+     * @return
+     */
+    public Page<MemberTeamDto> searchPage(MemberSearchCondition condition, Pageable pageable) {
+
+        if (!settings.isEnabled() || pageable.isUnpaged() || pageable.getPageNumber() != 0) {
+
+            return memberRepository.searchPageComplex(condition, pageable);
+        }
+
+        Key key = new Key(MemberPredicateCompiler.normalize(condition), pageable.getPageSize(), pageable.getSort());
+
+        int frequency = sketch.increment(key);
+
+        // 조회 전에 읽어야 조회와 커밋 사이의 쓰기를 놓치지 않는다.
+        long version = dataVersion.current();
+        Entry entry = entries.get(key);
+
+        if (entry != null && entry.version == version) {
+
+            hits.increment();
+
+            return entry.page;
+        }
+
+        misses.increment();
+
+        Page<MemberTeamDto> page = memberRepository.searchPageComplex(key.condition, pageable);
+
+        if (entry != null) {
+
+            entries.computeIfPresent(key, (k, cached) -> cached.version < version ? new Entry(version, page) : cached);
+        } else if (frequency >= settings.getMinFrequency()) {
+
+            admit(key, frequency, new Entry(version, page));
+        }
+
+        return page;
+    }
+
+    /**
+     * 캐시 비우기 (빈도는 유지)
+     */
+    public void clear() {
+
+        entries.clear();
+    }
+
+    private synchronized void admit(Key key, int frequency, Entry entry) {
+
+        if (entries.containsKey(key)) {
+
+            return;
+        }
+
+        if (entries.size() >= settings.getTopK()) {
+
+            Key coldest = null;
+            int coldestFrequency = Integer.MAX_VALUE;
+
+            for (Key candidate : entries.keySet()) {
+
+                int candidateFrequency = sketch.frequency(candidate);
+
+                if (candidateFrequency < coldestFrequency) {
+
+                    coldest = candidate;
+                    coldestFrequency = candidateFrequency;
+                }
+            }
+
+            if (coldest == null || coldestFrequency >= frequency) {
+
+                return;
+            }
+
+            entries.remove(coldest);
+        }
+
+        entries.put(key, entry);
+    }
+
+    /**
+     * 쓰기가 있었으면 캐시한 조건의 첫 페이지를 다시 조회
+     */
+    void refresh() {
+
+        long version = dataVersion.current();
+
+        if (version == refreshedVersion) {
+
+            return;
+        }
+
+        if (staleSince == 0) {
+
+            staleSince = System.currentTimeMillis();
+        }
+
+        try {
+
+            for (Map.Entry<Key, Entry> cached : entries.entrySet()) {
+
+                Key key = cached.getKey();
+
+                if (sketch.frequency(key) < settings.getMinFrequency()) {
+
+                    entries.remove(key);
+
+                    continue;
+                }
+
+                if (cached.getValue().version >= version) {
+
+                    continue;
+                }
+
+                Page<MemberTeamDto> page = memberRepository.searchPageComplex(key.condition, PageRequest.of(0, key.size, key.sort));
+
+                entries.computeIfPresent(key, (k, current) -> current.version < version ? new Entry(version, page) : current);
+            }
+
+            refreshedVersion = version;
+
+            // 갱신하는 동안 쓰기가 또 있었으면 다음 갱신까지 오래된 상태
+            if (dataVersion.current() == version) {
+
+                staleSince = 0;
+            }
+        } catch (RuntimeException e) {
+
+            log.warn("member hot page refresh failed", e);
+        }
+    }
+
+    private double hitRatio() {
+
+        double total = hits.count() + misses.count();
+
+        return total == 0 ? 0 : hits.count() / total;
+    }
+
+    private double staleness() {
+
+        long since = staleSince;
+
+        return since == 0 ? 0 : System.currentTimeMillis() - since;
+    }
+
+    private static Counter counter(MeterRegistry registry, String result) {
+
+        return Counter.builder("member.hot-page.requests")
+                .description("회원 검색 첫 페이지 요청")
+                .tag("result", result)
+                .register(registry);
+    }
+
+    @EqualsAndHashCode
+    @RequiredArgsConstructor
+    private static final class Key {
+
+        private final MemberSearchCondition condition;
+        private final int size;
+        private final Sort sort;
+    }
+
+    @RequiredArgsConstructor
+    private static final class Entry {
+
+        private final long version;
+        private final Page<MemberTeamDto> page;
+    }
+}
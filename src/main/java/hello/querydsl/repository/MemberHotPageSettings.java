@@ -0,0 +1,39 @@
+package hello.querydsl.repository;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+/**
+ * 자주 조회하는 검색 조건의 첫 페이지 캐시 설정 (MemberHotPageCache)
+ */
+@Component
+@ConfigurationProperties(prefix = "member-hot-page")
+@Getter @Setter
+public class MemberHotPageSettings {
+
+    private boolean enabled = true;
+
+    /**
+     * 첫 페이지를 미리 만들어 둘 검색 조건 수
+     */
+    private int topK = 20;
+
+    /**
+     * 이 횟수 이상 조회된 검색 조건만 캐시 후보 (최대 15, 빈도 카운터가 4비트)
+     */
+    private int minFrequency = 3;
+
+    /**
+     * 빈도 스케치의 행별 카운터 수 (2의 거듭제곱으로 올림)
+     *
+     * 요청 수가 이 값의 10배가 될 때마다 모든 빈도를 절반으로 줄여서 최근 요청 위주로 유지
+     */
+    private int sketchWidth = 1024;
+
+    /**
+     * 쓰기가 있었는지 확인해서 캐시한 페이지를 다시 조회하는 주기
+     */
+    private long refreshMillis = 200;
+}
@@ -2,7 +2,6 @@ package hello.querydsl.repository;
 
 import com.querydsl.core.BooleanBuilder;
 import com.querydsl.core.types.Predicate;
-import com.querydsl.core.types.dsl.BooleanExpression;
 import com.querydsl.jpa.impl.JPAQueryFactory;
 import hello.querydsl.dto.MemberSearchCondition;
 import hello.querydsl.dto.MemberTeamDto;
@@ -10,10 +9,12 @@ import hello.querydsl.dto.QMemberTeamDto;
 import hello.querydsl.entity.Member;
 import hello.querydsl.entity.QMember;
 import hello.querydsl.entity.QTeam;
+import hello.querydsl.repository.support.QueryMetrics;
 import org.springframework.stereotype.Repository;
 import org.springframework.util.StringUtils;
 
 import javax.persistence.EntityManager;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Optional;
 
@@ -29,20 +30,21 @@ public class MemberJpaRepository {
 
     private final EntityManager em;
     private final JPAQueryFactory queryFactory;
+    private final QueryMetrics queryMetrics;
+    private final MemberPredicateCompiler predicateCompiler;
 
     /**
      * JPAQueryFactory 스프링 빈 등록 시 사용
      * @param em
      * @param queryFactory
+     * @param queryMetrics
+     * @param predicateCompiler
      */
-//    public MemberJpaRepository(EntityManager em, JPAQueryFactory queryFactory) {
-//        this.em = em;
-//        this.queryFactory = queryFactory;
-//    }
-
-    public MemberJpaRepository(EntityManager em) {
+    public MemberJpaRepository(EntityManager em, JPAQueryFactory queryFactory, QueryMetrics queryMetrics, MemberPredicateCompiler predicateCompiler) {
         this.em = em;
-        this.queryFactory = new JPAQueryFactory(em);
+        this.queryFactory = queryFactory;
+        this.queryMetrics = queryMetrics;
+        this.predicateCompiler = predicateCompiler;
     }
 
     public void save(Member member) {
@@ -132,7 +134,7 @@ public class MemberJpaRepository {
             builder.and(member.age.loe(condition.getAgeLoe()));
         }
 
-        return queryFactory
+        return queryMetrics.record("MemberJpaRepository.searchByBuilder", condition, () -> queryFactory
                 .select(new QMemberTeamDto(
                         member.id,
                         member.username,
@@ -143,7 +145,7 @@ public class MemberJpaRepository {
                 .from(member)
                 .leftJoin(member.team, team)
                 .where(builder)
-                .fetch();
+                .fetch(), List::size);
     }
 
     /**
@@ -154,7 +156,14 @@ public class MemberJpaRepository {
      */
     public List<MemberTeamDto> search(MemberSearchCondition condition) {
 
-        return queryFactory
+        MemberPredicate predicate = predicateCompiler.compile(condition);
+
+        if (predicate.isImpossible()) {
+
+            return new ArrayList<>();
+        }
+
+        return queryMetrics.record("MemberJpaRepository.search", condition, () -> queryFactory
                 .select(new QMemberTeamDto(
                         member.id,
                         member.username,
@@ -164,13 +173,8 @@ public class MemberJpaRepository {
                 ))
                 .from(member)
                 .leftJoin(member.team, team)
-                .where(
-                        usernameEq(condition.getUsername()),
-                        teamNameEq(condition.getTeamName()),
-                        ageGoe(condition.getAgeGoe()),
-                        ageLoe(condition.getAgeLoe())
-                )
-                .fetch();
+                .where(predicate.getWhere())
+                .fetch(), List::size);
     }
 
     /**
@@ -181,35 +185,17 @@ public class MemberJpaRepository {
      */
     public List<Member> searchMember(MemberSearchCondition condition) {
 
-        return queryFactory
-                .selectFrom(member)
-                .leftJoin(member.team, team)
-                .where(
-                        usernameEq(condition.getUsername()),
-                        teamNameEq(condition.getTeamName()),
-                        ageGoe(condition.getAgeGoe()),
-                        ageLoe(condition.getAgeLoe())
-                )
-                .fetch();
-    }
+        MemberPredicate predicate = predicateCompiler.compile(condition);
 
-    private BooleanExpression usernameEq(String username) {
-
-        return hasText(username) ? member.username.eq(username) : null;
-    }
-
-    private BooleanExpression teamNameEq(String teamName) {
-
-        return hasText(teamName) ? team.name.eq(teamName) : null;
-    }
+        if (predicate.isImpossible()) {
 
-    private BooleanExpression ageGoe(Integer ageGoe) {
-
-        return ageGoe != null ? member.age.goe(ageGoe) : null;
-    }
-
-    private BooleanExpression ageLoe(Integer ageLoe) {
+            return new ArrayList<>();
+        }
 
-        return ageLoe != null ? member.age.loe(ageLoe) : null;
+        return queryMetrics.record("MemberJpaRepository.searchMember", condition, () -> queryFactory
+                .selectFrom(member)
+                .leftJoin(member.team, team)
+                .where(predicate.getWhere())
+                .fetch(), List::size);
     }
 }
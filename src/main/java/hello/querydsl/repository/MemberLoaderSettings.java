@@ -0,0 +1,45 @@
+package hello.querydsl.repository;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+/**
+ * 회원 아이디 조회 모으기 설정 (MemberTeamLoader)
+ */
+@Component
+@ConfigurationProperties(prefix = "member-loader")
+@Getter @Setter
+public class MemberLoaderSettings {
+
+    /**
+     * 첫 요청 후 이 시간 동안 들어온 아이디를 모아서 한 번에 조회
+     */
+    private long windowMicros = 2000;
+
+    /**
+     * 모은 아이디가 이 수가 되면 시간을 기다리지 않고 조회
+     */
+    private int maxBatchSize = 1000;
+
+    /**
+     * 한 번의 IN 쿼리로 조회할 아이디 수
+     */
+    private int chunkSize = 500;
+
+    /**
+     * 조회 스레드 수
+     */
+    private int threads = 2;
+
+    /**
+     * 요청 하나에 넘길 수 있는 아이디 수 (/v1/members/batch?ids=)
+     */
+    private int maxIds = 1000;
+
+    /**
+     * 요청 스레드가 조회 결과를 기다리는 최대 시간, 넘으면 503
+     */
+    private long timeoutMillis = 5000;
+}
@@ -0,0 +1,69 @@
+package hello.querydsl.repository;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Pageable;
+import org.springframework.stereotype.Component;
+
+/**
+ * 회원 페이징 조회 위치 제한
+ *
+ * offset 페이징은 앞쪽 행을 모두 읽고 버리므로 page=50000 같은 요청은 수 초가 걸린다.
+ * 조회 위치(page * size)가 member-paging.max-offset 을 넘으면 거부하고,
+ * 더 뒤쪽은 마지막으로 받은 회원 아이디 다음부터 조회(after, MemberRepository.searchAfter)하도록 안내한다.
+ *
+ * 메트릭 querydsl.paging (outcome 태그)
+ * - rejected : 조회 위치를 넘어서 거부한 요청
+ * - keyset   : after 로 조회한 요청
+ */
+@Component
+public class MemberPagingGuard {
+
+    private final long maxOffset;
+    private final Counter rejected;
+    private final Counter keyset;
+
+    public MemberPagingGuard(@Value("${member-paging.max-offset:1000}") long maxOffset, MeterRegistry registry) {
+
+        this.maxOffset = maxOffset;
+        this.rejected = counter(registry, "rejected");
+        this.keyset = counter(registry, "keyset");
+    }
+
+    /**
+     * @param pageable 요청한 페이지
+     * @throws DeepOffsetException 조회 위치가 max-offset 을 넘는 경우
+     */
+    public void check(Pageable pageable) {
+
+        if (pageable.isPaged() && pageable.getOffset() > maxOffset) {
+
+            rejected.increment();
+
+            throw new DeepOffsetException("조회 위치가 " + maxOffset + " 을 넘었습니다: offset=" + pageable.getOffset()
+                    + ". 더 뒤쪽은 page 대신 after=<마지막으로 받은 memberId> 로 조회하세요.");
+        }
+    }
+
+    /**
+     * after 로 조회한 요청 기록
+     */
+    public void keyset() {
+
+        keyset.increment();
+    }
+
+    public long getMaxOffset() {
+
+        return maxOffset;
+    }
+
+    private static Counter counter(MeterRegistry registry, String outcome) {
+
+        return Counter.builder("querydsl.paging")
+                .description("회원 페이징 조회 위치 제한")
+                .tag("outcome", outcome)
+                .register(registry);
+    }
+}
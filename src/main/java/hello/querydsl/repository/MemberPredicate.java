@@ -0,0 +1,96 @@
+package hello.querydsl.repository;
+
+import com.querydsl.core.types.Predicate;
+import hello.querydsl.dto.MemberSearchCondition;
+import hello.querydsl.dto.MemberTeamDto;
+
+/**
+ * MemberPredicateCompiler 가 변환한 검색 조건
+ *
+ * 캐시해서 여러 쿼리가 함께 사용하므로 getWhere() 배열은 수정하면 안 된다.
+ */
+public final class MemberPredicate {
+
+    static final MemberPredicate NONE = new MemberPredicate(new Predicate[0], new MemberSearchCondition(), false, false);
+    static final MemberPredicate IMPOSSIBLE = new MemberPredicate(new Predicate[0], new MemberSearchCondition(), false, true);
+
+    private final Predicate[] where;
+    private final String username;
+    private final String teamName;
+    private final Integer ageGoe;
+    private final Integer ageLoe;
+    private final boolean teamJoin;
+    private final boolean impossible;
+
+    /**
+     * @param where where 절 조건
+     * @param normalized 정규화한 검색 조건 (값을 복사하므로 이후 변경은 반영되지 않음)
+     * @param teamJoin where 절 조건에 team 조인이 필요한지 여부
+     * @param impossible 결과가 없는 조건인지 여부
+     */
+    MemberPredicate(Predicate[] where, MemberSearchCondition normalized, boolean teamJoin, boolean impossible) {
+
+        this.where = where;
+        this.username = normalized.getUsername();
+        this.teamName = normalized.getTeamName();
+        this.ageGoe = normalized.getAgeGoe();
+        this.ageLoe = normalized.getAgeLoe();
+        this.teamJoin = teamJoin;
+        this.impossible = impossible;
+    }
+
+    /**
+     * @return where 절에 넘길 조건, 조건이 없으면 빈 배열
+     */
+    public Predicate[] getWhere() {
+
+        return where;
+    }
+
+    /**
+     * @return member.team 조인이 필요한 조건인지 여부
+     */
+    public boolean requiresTeamJoin() {
+
+        return teamJoin;
+    }
+
+    /**
+     * @return 결과가 없는 조건인지 여부 (ageGoe > ageLoe), 이 경우 쿼리를 실행하지 않는다.
+     */
+    public boolean isImpossible() {
+
+        return impossible;
+    }
+
+    /**
+     * 조회한 결과가 이 조건에 맞는지 메모리에서 검사 (여러 조건을 한 번에 조회한 결과를 나눌 때 사용)
+     *
+     * @param dto
+     * @return where 절 조건과 같은 결과
+     */
+    public boolean matches(MemberTeamDto dto) {
+
+        if (impossible) {
+
+            return false;
+        }
+
+        if (username != null && !username.equals(dto.getUsername())) {
+
+            return false;
+        }
+
+        if (teamName != null && !teamName.equals(dto.getTeamName())) {
+
+            return false;
+        }
+
+        if (ageGoe != null && dto.getAge() < ageGoe) {
+
+            return false;
+        }
+
+        return ageLoe == null || dto.getAge() <= ageLoe;
+    }
+}
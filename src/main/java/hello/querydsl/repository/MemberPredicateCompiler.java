@@ -0,0 +1,168 @@
+package hello.querydsl.repository;
+
+import com.querydsl.core.types.Predicate;
+import hello.querydsl.dto.MemberSearchCondition;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+import static hello.querydsl.entity.QMember.member;
+import static org.springframework.util.StringUtils.hasText;
+
+/**
+ * 회원 검색 조건(MemberSearchCondition)을 where 절 조건으로 변환
+ *
+ * 리포지토리마다 복사해서 쓰던 usernameEq, teamNameEq, ageGoe, ageLoe 를 대신한다.
+ *
+ * 팀 이름 조건은 TeamNameColumn 에 따라 team.name 또는 member.teamName 을 사용
+ *
+ * 정규화
+ * - username, teamName 은 앞뒤 공백 제거, 빈 문자열이면 조건 없음
+ * - ageGoe == ageLoe 이면 age = 값
+ * - ageGoe > ageLoe 이면 결과가 없는 조건 (쿼리를 실행하지 않음)
+ *
+ * Querydsl 표현식은 불변이라 정규화한 조건별로 변환 결과를 캐시해서 재사용하고
+ * 재사용(reused), 새로 변환(compiled), 쿼리 생략(short-circuit) 횟수를 querydsl.predicate 카운터로 기록
+ */
+@Component
+public class MemberPredicateCompiler {
+
+    private static final int CACHE_LIMIT = 1024;
+
+    private final ConcurrentMap<MemberSearchCondition, MemberPredicate> cache = new ConcurrentHashMap<>();
+
+    private final Counter reused;
+    private final Counter compiled;
+    private final Counter shortCircuited;
+
+    private final TeamNameColumn teamNameColumn;
+
+    public MemberPredicateCompiler(MeterRegistry registry, TeamNameColumn teamNameColumn) {
+
+        this.teamNameColumn = teamNameColumn;
+
+        this.reused = counter(registry, "reused");
+        this.compiled = counter(registry, "compiled");
+        this.shortCircuited = counter(registry, "short-circuit");
+    }
+
+    /**
+     * @param condition 검색 조건, null 이면 조건 없음
+     * @return 변환한 조건
+     */
+    public MemberPredicate compile(MemberSearchCondition condition) {
+
+        if (condition == null) {
+
+            return MemberPredicate.NONE;
+        }
+
+        Integer ageGoe = condition.getAgeGoe();
+        Integer ageLoe = condition.getAgeLoe();
+
+        if (ageGoe != null && ageLoe != null && ageGoe > ageLoe) {
+
+            shortCircuited.increment();
+
+            return MemberPredicate.IMPOSSIBLE;
+        }
+
+        MemberSearchCondition key = normalize(condition);
+
+        MemberPredicate cached = cache.get(key);
+
+        if (cached != null) {
+
+            reused.increment();
+
+            return cached;
+        }
+
+        MemberPredicate predicate = build(key);
+
+        compiled.increment();
+
+        // 사용자 입력 값이 키라서 크기 제한
+        if (cache.size() < CACHE_LIMIT) {
+
+            cache.putIfAbsent(key, predicate);
+        }
+
+        return predicate;
+    }
+
+    /**
+     * 같은 결과를 내는 조건을 같은 키로 (MemberHotPageCache 도 사용)
+     */
+    static MemberSearchCondition normalize(MemberSearchCondition condition) {
+
+        MemberSearchCondition normalized = new MemberSearchCondition();
+
+        normalized.setUsername(trim(condition.getUsername()));
+        normalized.setTeamName(trim(condition.getTeamName()));
+        normalized.setAgeGoe(condition.getAgeGoe());
+        normalized.setAgeLoe(condition.getAgeLoe());
+
+        return normalized;
+    }
+
+    private MemberPredicate build(MemberSearchCondition condition) {
+
+        List<Predicate> where = new ArrayList<>(4);
+
+        if (condition.getUsername() != null) {
+
+            where.add(member.username.eq(condition.getUsername()));
+        }
+
+        if (condition.getTeamName() != null) {
+
+            where.add(teamNameColumn.path().eq(condition.getTeamName()));
+        }
+
+        Integer ageGoe = condition.getAgeGoe();
+        Integer ageLoe = condition.getAgeLoe();
+
+        if (ageGoe != null && ageGoe.equals(ageLoe)) {
+
+            where.add(member.age.eq(ageGoe));
+        } else {
+
+            if (ageGoe != null) {
+
+                where.add(member.age.goe(ageGoe));
+            }
+
+            if (ageLoe != null) {
+
+                where.add(member.age.loe(ageLoe));
+            }
+        }
+
+        if (where.isEmpty()) {
+
+            return MemberPredicate.NONE;
+        }
+
+        boolean teamJoin = condition.getTeamName() != null && !teamNameColumn.isDenormalized();
+
+        return new MemberPredicate(where.toArray(new Predicate[0]), condition, teamJoin, false);
+    }
+
+    private static String trim(String value) {
+
+        return hasText(value) ? value.trim() : null;
+    }
+
+    private static Counter counter(MeterRegistry registry, String result) {
+
+        return Counter.builder("querydsl.predicate")
+                        .tag("result", result)
+                        .register(registry);
+    }
+}
@@ -1,16 +1,61 @@
 package hello.querydsl.repository;
 
 import hello.querydsl.entity.Member;
+import hello.querydsl.entity.QMember;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.querydsl.QuerydslPredicateExecutor;
+import org.springframework.data.querydsl.binding.QuerydslBinderCustomizer;
+import org.springframework.data.querydsl.binding.QuerydslBindings;
 
+import java.util.Collections;
 import java.util.List;
+import java.util.Optional;
+
+import static hello.querydsl.entity.QTeam.team;
 
 /**
  * 스프링 데이터 리포지토리에 사용자 정의 인터페이스 상속
  */
-public interface MemberRepository extends JpaRepository<Member, Long>, MemberRepositoryCustom, QuerydslPredicateExecutor<Member> {
+public interface MemberRepository extends JpaRepository<Member, Long>, MemberRepositoryCustom, QuerydslPredicateExecutor<Member>, QuerydslBinderCustomizer<QMember> {
 
     // SELECT m FROM Member m WHERE m.username = ?;
     List<Member> findByUsername(String username);
+
+    /**
+     * @QuerydslPredicate 바인딩 설정 (/v5/members)
+     *
+     * - username : username = 값, 여러 개면 IN
+     * - teamName : team.name = 값 (조인한 team 별칭 사용)
+     * - age      : age = 값, 두 개면 BETWEEN 작은 값 AND 큰 값 (그 이상은 거부)
+     *
+     * 그 외 프로퍼티는 바인딩하지 않는다.
+     *
+     * @param bindings
+     * @param root
+     */
+    @Override
+    default void customize(QuerydslBindings bindings, QMember root) {
+
+        bindings.excludeUnlistedProperties(true);
+        bindings.including(root.username, root.age);
+
+        bindings.bind(root.team.name)
+                .as("teamName")
+                .first((path, value) -> team.name.eq(value));
+
+        bindings.bind(root.age).all((path, values) -> {
+
+            if (values.size() == 1) {
+
+                return Optional.of(path.eq(values.iterator().next()));
+            }
+
+            if (values.size() == 2) {
+
+                return Optional.of(path.between(Collections.min(values), Collections.max(values)));
+            }
+
+            throw new InvalidFilterException("age 는 값 하나 또는 범위(두 개)만 검색할 수 있습니다.");
+        });
+    }
 }
@@ -1,11 +1,16 @@
 package hello.querydsl.repository;
 
+import com.querydsl.core.types.Predicate;
 import hello.querydsl.dto.MemberSearchCondition;
 import hello.querydsl.dto.MemberTeamDto;
+import hello.querydsl.dto.MemberTeamRow;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 
+import java.util.Collection;
 import java.util.List;
+import java.util.function.Consumer;
 
 /**
  * 사용자 정의 인터페이스
@@ -13,6 +18,16 @@ import java.util.List;
 public interface MemberRepositoryCustom {
 
     List<MemberTeamDto> search(MemberSearchCondition condition);
+    List<List<MemberTeamDto>> searchAll(List<MemberSearchCondition> conditions);
+    List<MemberTeamDto> searchOlderThanAverage(Long teamId);
+    List<MemberTeamDto> searchOldest(Long teamId);
     Page<MemberTeamDto> searchPageSimple(MemberSearchCondition condition, Pageable pageable);
     Page<MemberTeamDto> searchPageComplex(MemberSearchCondition condition, Pageable pageable);
+    Page<MemberTeamDto> searchTeamMembers(Long teamId, Pageable pageable);
+    Page<MemberTeamRow> searchPageFields(MemberSearchCondition condition, MemberTeamFields fields, Pageable pageable);
+    Slice<MemberTeamDto> searchSlice(MemberSearchCondition condition, Pageable pageable);
+    Slice<MemberTeamDto> searchAfter(MemberSearchCondition condition, Long afterId, Pageable pageable);
+    Slice<MemberTeamDto> searchByPredicate(Predicate predicate, Pageable pageable);
+    List<MemberTeamDto> searchByIds(Collection<Long> ids);
+    long scan(MemberSearchCondition condition, int batchSize, Consumer<List<MemberTeamDto>> consumer);
 }
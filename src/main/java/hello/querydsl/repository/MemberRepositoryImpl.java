@@ -1,30 +1,40 @@
 package hello.querydsl.repository;
 
+import com.querydsl.core.BooleanBuilder;
 import com.querydsl.core.QueryResults;
-import com.querydsl.core.types.Order;
+import com.querydsl.core.Tuple;
+import com.querydsl.core.types.ExpressionUtils;
 import com.querydsl.core.types.OrderSpecifier;
-import com.querydsl.core.types.dsl.BooleanExpression;
-import com.querydsl.core.types.dsl.PathBuilder;
+import com.querydsl.core.types.Predicate;
 import com.querydsl.jpa.JPQLQuery;
 import com.querydsl.jpa.impl.JPAQuery;
 import com.querydsl.jpa.impl.JPAQueryFactory;
 import hello.querydsl.dto.MemberSearchCondition;
 import hello.querydsl.dto.MemberTeamDto;
+import hello.querydsl.dto.MemberTeamRow;
 import hello.querydsl.dto.QMemberTeamDto;
 import hello.querydsl.entity.Member;
+import hello.querydsl.repository.support.QueryMetrics;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
 import org.springframework.data.domain.Sort;
 import org.springframework.data.jpa.repository.support.QuerydslRepositorySupport;
 import org.springframework.data.support.PageableExecutionUtils;
 
-import javax.persistence.EntityManager;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.IdentityHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
 
 import static hello.querydsl.entity.QMember.member;
 import static hello.querydsl.entity.QTeam.team;
-import static org.springframework.util.StringUtils.hasText;
 
 /**
  * 리포지토리 지원 - QuerydslRepositorySupport
@@ -45,11 +55,36 @@ import static org.springframework.util.StringUtils.hasText;
  */
 public class MemberRepositoryImpl implements MemberRepositoryCustom {
 
-    private final JPAQueryFactory queryFactory;
+    /**
+     * searchAll() 한 번에 조회할 수 있는 최대 검색 조건 수
+     */
+    static final int BATCH_LIMIT = 50;
 
-    public MemberRepositoryImpl(EntityManager em) {
+    private static final OrderSpecifier<?>[] ID_ASC = {member.id.asc()};
 
-        this.queryFactory = new JPAQueryFactory(em);
+    private final JPAQueryFactory queryFactory;
+    private final QueryMetrics queryMetrics;
+    private final MemberPredicateCompiler predicateCompiler;
+    private final MemberSortCompiler sortCompiler;
+    private final MemberFilterGuard filterGuard;
+    private final MemberAgeStatistics ageStatistics;
+    private final TeamNameColumn teamNameColumn;
+
+    public MemberRepositoryImpl(JPAQueryFactory queryFactory,
+                                QueryMetrics queryMetrics,
+                                MemberPredicateCompiler predicateCompiler,
+                                MemberSortCompiler sortCompiler,
+                                MemberFilterGuard filterGuard,
+                                MemberAgeStatistics ageStatistics,
+                                TeamNameColumn teamNameColumn) {
+
+        this.queryFactory = queryFactory;
+        this.queryMetrics = queryMetrics;
+        this.predicateCompiler = predicateCompiler;
+        this.sortCompiler = sortCompiler;
+        this.filterGuard = filterGuard;
+        this.ageStatistics = ageStatistics;
+        this.teamNameColumn = teamNameColumn;
     }
 
 //    public MemberRepositoryImpl() {
@@ -76,23 +111,154 @@ public class MemberRepositoryImpl implements MemberRepositoryCustom {
 //                                        ))
 //                                        .fetch();
 
-        return queryFactory
-                .select(new QMemberTeamDto(
-                        member.id,
-                        member.username,
-                        member.age,
-                        team.id,
-                        team.name
-                ))
-                .from(member)
-                .leftJoin(member.team, team)
+        MemberPredicate predicate = predicateCompiler.compile(condition);
+
+        if (predicate.isImpossible()) {
+
+            return new ArrayList<>();
+        }
+
+        return queryMetrics.record("MemberRepository.search", condition, () -> selectMemberTeamDto()
+                .where(predicate.getWhere())
+                .fetch(), List::size);
+    }
+
+    /**
+     * 여러 검색 조건을 한 번에 조회
+     *
+     * JPQL 은 UNION ALL 을 지원하지 않으므로 검색 조건들을 OR 로 합쳐서 한 번만 조회하고
+     * 조회한 결과를 검색 조건별로 메모리에서 나눈다. (MemberPredicate.matches)
+     * 같은 검색 조건은 MemberPredicateCompiler 가 같은 조건을 돌려주므로 한 번만 합친다.
+     *
+     * @param conditions 검색 조건 목록 (최대 BATCH_LIMIT 개)
+     * @return 검색 조건 순서대로 조회 결과
+     */
+    @Override
+    public List<List<MemberTeamDto>> searchAll(List<MemberSearchCondition> conditions) {
+
+        if (conditions.size() > BATCH_LIMIT) {
+
+            throw new InvalidFilterException("검색 조건은 한 번에 " + BATCH_LIMIT + "개까지 조회할 수 있습니다: " + conditions.size());
+        }
+
+        List<MemberPredicate> predicates = new ArrayList<>(conditions.size());
+        Map<MemberPredicate, Boolean> distinct = new IdentityHashMap<>();
+
+        BooleanBuilder where = new BooleanBuilder();
+        boolean unrestricted = false;
+
+        for (MemberSearchCondition condition : conditions) {
+
+            MemberPredicate predicate = predicateCompiler.compile(condition);
+
+            predicates.add(predicate);
+
+            if (predicate.isImpossible() || distinct.put(predicate, Boolean.TRUE) != null) {
+
+                continue;
+            }
+
+            Predicate all = ExpressionUtils.allOf(predicate.getWhere());
+
+            if (all == null) {
+
+                // 조건이 없는 검색 조건이 있으면 전체 조회
+                unrestricted = true;
+            } else {
+
+                where.or(all);
+            }
+        }
+
+        List<List<MemberTeamDto>> results = new ArrayList<>(conditions.size());
+
+        if (distinct.isEmpty()) {
+
+            for (int i = 0; i < conditions.size(); i++) {
+
+                results.add(new ArrayList<>());
+            }
+
+            return results;
+        }
+
+        Predicate combined = unrestricted ? null : where;
+
+        List<MemberTeamDto> rows = queryMetrics.record("MemberRepository.searchAll", null, () -> selectMemberTeamDto()
+                .where(combined)
+                .fetch(), List::size);
+
+        for (MemberPredicate predicate : predicates) {
+
+            List<MemberTeamDto> result = new ArrayList<>();
+
+            for (MemberTeamDto row : rows) {
+
+                if (predicate.matches(row)) {
+
+                    result.add(row);
+                }
+            }
+
+            results.add(result);
+        }
+
+        return results;
+    }
+
+    /**
+     * 평균 나이보다 나이가 많은 회원 조회
+     *
+     * member.age.gt(select avg(age) from member) 서브쿼리 대신 MemberAgeStatistics 에 캐시한 평균을 상수로 사용
+     * 나이는 정수라서 age > 평균 은 age > floor(평균) 과 같다.
+     *
+     * @param teamId 팀 아이디, null 이면 전체 회원 평균
+     * @return
+     */
+    @Override
+    public List<MemberTeamDto> searchOlderThanAverage(Long teamId) {
+
+        AgeStats stats = teamId == null ? ageStatistics.global() : ageStatistics.team(teamId);
+
+        if (stats.isEmpty()) {
+
+            return new ArrayList<>();
+        }
+
+        int avg = (int) Math.floor(stats.getAvg());
+
+        return queryMetrics.record("MemberRepository.searchOlderThanAverage", null, () -> selectMemberTeamDto()
                 .where(
-                        usernameEq(condition.getUsername()),
-                        teamNameEq(condition.getTeamName()),
-                        ageGoe(condition.getAgeGoe()),
-                        ageLoe(condition.getAgeLoe())
+                        member.age.gt(avg),
+                        teamId != null ? member.team.id.eq(teamId) : null
                 )
-                .fetch();
+                .fetch(), List::size);
+    }
+
+    /**
+     * 나이가 가장 많은 회원 조회
+     *
+     * member.age.eq(select max(age) from member) 서브쿼리 대신 MemberAgeStatistics 에 캐시한 최대 나이를 상수로 사용
+     *
+     * @param teamId 팀 아이디, null 이면 전체 회원
+     * @return
+     */
+    @Override
+    public List<MemberTeamDto> searchOldest(Long teamId) {
+
+        AgeStats stats = teamId == null ? ageStatistics.global() : ageStatistics.team(teamId);
+
+        if (stats.isEmpty()) {
+
+            return new ArrayList<>();
+        }
+
+        return queryMetrics.record("MemberRepository.searchOldest", null, () -> selectMemberTeamDto()
+                .where(
+                        member.age.eq(stats.getMax()),
+                        teamId != null ? member.team.id.eq(teamId) : null
+                )
+                .fetch(), List::size);
     }
 
     /**
@@ -127,25 +293,19 @@ public class MemberRepositoryImpl implements MemberRepositoryCustom {
 //
 //        query.fetch();
 
-        QueryResults<MemberTeamDto> results = queryFactory
-                                                .select(new QMemberTeamDto(
-                                                        member.id,
-                                                        member.username,
-                                                        member.age,
-                                                        team.id,
-                                                        team.name
-                                                ))
-                                                .from(member)
-                                                .leftJoin(member.team, team)
-                                                .where(
-                                                        usernameEq(condition.getUsername()),
-                                                        teamNameEq(condition.getTeamName()),
-                                                        ageGoe(condition.getAgeGoe()),
-                                                        ageLoe(condition.getAgeLoe())
-                                                )
+        MemberPredicate predicate = predicateCompiler.compile(condition);
+
+        if (predicate.isImpossible()) {
+
+            return new PageImpl<>(new ArrayList<>(), pageable, 0);
+        }
+
+        QueryResults<MemberTeamDto> results = queryMetrics.record("MemberRepository.searchPageSimple", condition, () -> selectMemberTeamDto()
+                                                .where(predicate.getWhere())
+                                                .orderBy(sortCompiler.compile(pageable.getSort()))
                                                 .offset(pageable.getOffset())
                                                 .limit(pageable.getPageSize())
-                                                .fetchResults();
+                                                .fetchResults(), r -> r.getResults().size());
 
         List<MemberTeamDto> content = results.getResults();
 
@@ -166,7 +326,244 @@ public class MemberRepositoryImpl implements MemberRepositoryCustom {
     @Override
     public Page<MemberTeamDto> searchPageComplex(MemberSearchCondition condition, Pageable pageable) {
 
-        List<MemberTeamDto> content = queryFactory
+        MemberPredicate predicate = predicateCompiler.compile(condition);
+
+        if (predicate.isImpossible()) {
+
+            return new PageImpl<>(new ArrayList<>(), pageable, 0);
+        }
+
+        List<MemberTeamDto> content = queryMetrics.record("MemberRepository.searchPageComplex", condition, () -> selectMemberTeamDto()
+                                        .where(predicate.getWhere())
+                                        .orderBy(sortCompiler.compile(pageable.getSort()))
+                                        .offset(pageable.getOffset())
+                                        .limit(pageable.getPageSize())
+                                        .fetch(), List::size);
+
+        // PageableExecutionUtils.getPage() 로 최적화
+        JPAQuery<Member> countQuery = queryFactory
+                                        .select(member)
+                                        .from(member);
+
+        // 카운트 쿼리는 검색 조건에 team 이 필요할 때만 조인
+        if (predicate.requiresTeamJoin()) {
+
+            countQuery.leftJoin(member.team, team);
+        }
+
+        countQuery.where(predicate.getWhere());
+
+//        return new PageImpl<>(content, pageable, total);
+//        return PageableExecutionUtils.getPage(content, pageable, () -> countQuery.fetchCount());
+        return PageableExecutionUtils.getPage(
+                content,
+                pageable,
+                () -> queryMetrics.record("MemberRepository.searchPageComplex.count", condition, countQuery::fetchCount, count -> 1)
+        );
+    }
+
+    /**
+     * 팀 회원 페이징 조회
+     *
+     * team.getMembers() 는 팀 회원 전체를 로딩하므로 회원이 많은 팀은 이 메서드로 나누어 조회
+     * 조건이 member.team_id 외래 키뿐이라 카운트 쿼리는 조인하지 않는다.
+     * 정렬이 없으면 회원 아이디 순서
+     *
+     * @param teamId
+     * @param pageable
+     * @return
+     */
+    @Override
+    public Page<MemberTeamDto> searchTeamMembers(Long teamId, Pageable pageable) {
+
+        OrderSpecifier<?>[] orders = pageable.getSort().isSorted()
+                                        ? sortCompiler.compile(pageable.getSort())
+                                        : ID_ASC;
+
+        List<MemberTeamDto> content = queryMetrics.record("MemberRepository.searchTeamMembers", null, () -> selectMemberTeamDto()
+                                        .where(member.team.id.eq(teamId))
+                                        .orderBy(orders)
+                                        .offset(pageable.getOffset())
+                                        .limit(pageable.getPageSize())
+                                        .fetch(), List::size);
+
+        JPAQuery<Long> countQuery = queryFactory
+                                        .select(member.count())
+                                        .from(member)
+                                        .where(member.team.id.eq(teamId));
+
+        return PageableExecutionUtils.getPage(
+                content,
+                pageable,
+                () -> queryMetrics.record("MemberRepository.searchTeamMembers.count", null, countQuery::fetchOne, count -> 1)
+        );
+    }
+
+    /**
+     * 선택한 필드만 조회하는 방법 (fields=username,age)
+     *
+     * 선택한 컬럼만 Tuple 로 조회하고, 선택한 필드, 검색 조건, 정렬 모두 team 이 필요 없으면 조인 생략
+     * 카운트 쿼리는 검색 조건에 team 이 필요할 때만 조인
+     *
+     * @param condition
+     * @param fields
+     * @param pageable
+     * @return
+     */
+    @Override
+    public Page<MemberTeamRow> searchPageFields(MemberSearchCondition condition, MemberTeamFields fields, Pageable pageable) {
+
+        MemberPredicate predicate = predicateCompiler.compile(condition);
+
+        if (predicate.isImpossible()) {
+
+            return new PageImpl<>(new ArrayList<>(), pageable, 0);
+        }
+
+        boolean denormalized = teamNameColumn.isDenormalized();
+
+        JPAQuery<Tuple> contentQuery = queryFactory
+                                        .select(fields.getExpressions(denormalized))
+                                        .from(member);
+
+        if (fields.requiresTeamJoin(denormalized) || predicate.requiresTeamJoin() || sortCompiler.requiresTeamJoin(pageable.getSort())) {
+
+            contentQuery.leftJoin(member.team, team);
+        }
+
+        contentQuery.where(predicate.getWhere())
+                    .orderBy(sortCompiler.compile(pageable.getSort()))
+                    .offset(pageable.getOffset())
+                    .limit(pageable.getPageSize());
+
+        List<Tuple> tuples = queryMetrics.record("MemberRepository.searchPageFields", condition, contentQuery::fetch, List::size);
+
+        List<MemberTeamRow> content = new ArrayList<>(tuples.size());
+
+        for (Tuple tuple : tuples) {
+
+            content.add(new MemberTeamRow(tuple, fields.getNames(), fields.getExpressions(denormalized)));
+        }
+
+        JPAQuery<Long> countQuery = queryFactory
+                                        .select(member.count())
+                                        .from(member);
+
+        if (predicate.requiresTeamJoin()) {
+
+            countQuery.leftJoin(member.team, team);
+        }
+
+        countQuery.where(predicate.getWhere());
+
+        return PageableExecutionUtils.getPage(
+                content,
+                pageable,
+                () -> queryMetrics.record("MemberRepository.searchPageFields.count", condition, countQuery::fetchOne, count -> 1)
+        );
+    }
+
+    /**
+     * 카운트 쿼리 없이 다음 페이지 존재 여부만 조회하는 방법
+     *
+     * 페이지 크기 + 1 개를 조회해서 초과한 데이터가 있으면 다음 페이지가 있는 것으로 판단
+     *
+     * @param condition
+     * @param pageable
+     * @return
+     */
+    @Override
+    public Slice<MemberTeamDto> searchSlice(MemberSearchCondition condition, Pageable pageable) {
+
+        MemberPredicate predicate = predicateCompiler.compile(condition);
+
+        if (predicate.isImpossible()) {
+
+            return new SliceImpl<>(new ArrayList<>(), pageable, false);
+        }
+
+        List<MemberTeamDto> content = queryMetrics.record("MemberRepository.searchSlice", condition, () -> selectMemberTeamDto()
+                                        .where(predicate.getWhere())
+                                        .orderBy(sortCompiler.compile(pageable.getSort()))
+                                        .offset(pageable.getOffset())
+                                        .limit(pageable.getPageSize() + 1)
+                                        .fetch(), List::size);
+
+        boolean hasNext = content.size() > pageable.getPageSize();
+
+        if (hasNext) {
+
+            content.remove(pageable.getPageSize());
+        }
+
+        return new SliceImpl<>(content, pageable, hasNext);
+    }
+
+    /**
+     * 마지막으로 받은 회원 아이디 다음부터 조회하는 방법 (키셋 페이징)
+     *
+     * offset 대신 member.id > afterId 조건으로 시작 위치를 찾으므로 얼마나 뒤쪽이든 조회 비용이 같다.
+     * 회원 아이디 순서로만 조회할 수 있고, 카운트 쿼리 없이 Slice 로 조회
+     *
+     * @param condition
+     * @param afterId 이전 페이지의 마지막 회원 아이디, 처음부터 조회하면 0
+     * @param pageable 페이지 크기만 사용 (페이지 번호는 무시)
+     * @return
+     * @throws InvalidSortException 회원 아이디 오름차순이 아닌 정렬
+     */
+    @Override
+    public Slice<MemberTeamDto> searchAfter(MemberSearchCondition condition, Long afterId, Pageable pageable) {
+
+        Sort sort = pageable.getSort();
+
+        if (sort.isSorted() && !Arrays.equals(sortCompiler.compile(sort), ID_ASC)) {
+
+            throw new InvalidSortException("after 로 조회할 때는 회원 아이디 오름차순으로만 정렬할 수 있습니다: " + sort);
+        }
+
+        Pageable keyset = PageRequest.of(0, pageable.getPageSize(), Sort.by("id"));
+
+        MemberPredicate predicate = predicateCompiler.compile(condition);
+
+        if (predicate.isImpossible()) {
+
+            return new SliceImpl<>(new ArrayList<>(), keyset, false);
+        }
+
+        List<MemberTeamDto> content = queryMetrics.record("MemberRepository.searchAfter", condition, () -> selectMemberTeamDto()
+                                        .where(predicate.getWhere())
+                                        .where(member.id.gt(afterId))
+                                        .orderBy(ID_ASC)
+                                        .limit(keyset.getPageSize() + 1)
+                                        .fetch(), List::size);
+
+        boolean hasNext = content.size() > keyset.getPageSize();
+
+        if (hasNext) {
+
+            content.remove(keyset.getPageSize());
+        }
+
+        return new SliceImpl<>(content, keyset, hasNext);
+    }
+
+    /**
+     * 웹 바인딩(@QuerydslPredicate)으로 만든 조건으로 조회
+     *
+     * QuerydslPredicateExecutor 는 엔티티를 조회하므로 MemberTeamDto 로 직접 조회하고
+     * MemberFilterGuard 로 조건을 검사해서 인덱스를 타지 않는 조건은 페이지 크기를 줄이거나 거부
+     * 전체 카운트 쿼리 없이 Slice 로 조회
+     *
+     * @param predicate 바인딩된 조건, 조건이 없으면 null
+     * @param pageable
+     * @return
+     */
+    @Override
+    public Slice<MemberTeamDto> searchByPredicate(Predicate predicate, Pageable pageable) {
+
+        Pageable guarded = filterGuard.guard(predicate, pageable);
+
+        List<MemberTeamDto> content = queryMetrics.record("MemberRepository.searchByPredicate", null, () -> queryFactory
                                         .select(new QMemberTeamDto(
                                                 member.id,
                                                 member.username,
@@ -176,51 +573,108 @@ public class MemberRepositoryImpl implements MemberRepositoryCustom {
                                         ))
                                         .from(member)
                                         .leftJoin(member.team, team)
-                                        .where(
-                                                usernameEq(condition.getUsername()),
-                                                teamNameEq(condition.getTeamName()),
-                                                ageGoe(condition.getAgeGoe()),
-                                                ageLoe(condition.getAgeLoe())
-                                        )
-                                        .offset(pageable.getOffset())
-                                        .limit(pageable.getPageSize())
-                                        .fetch();
+                                        .where(predicate)
+                                        .orderBy(sortCompiler.compile(guarded.getSort()))
+                                        .offset(guarded.getOffset())
+                                        .limit(guarded.getPageSize() + 1)
+                                        .fetch(), List::size);
 
-        // PageableExecutionUtils.getPage() 로 최적화
-        JPAQuery<Member> countQuery = queryFactory
-                                        .select(member)
-                                        .from(member)
-                                        .leftJoin(member.team, team)
-                                        .where(
-                                                usernameEq(condition.getUsername()),
-                                                teamNameEq(condition.getTeamName()),
-                                                ageGoe(condition.getAgeGoe()),
-                                                ageLoe(condition.getAgeLoe())
-                                        );
+        boolean hasNext = content.size() > guarded.getPageSize();
 
-//        return new PageImpl<>(content, pageable, total);
-//        return PageableExecutionUtils.getPage(content, pageable, () -> countQuery.fetchCount());
-        return PageableExecutionUtils.getPage(content, pageable, countQuery::fetchCount);
-    }
+        if (hasNext) {
 
-    private BooleanExpression usernameEq(String username) {
+            content.remove(guarded.getPageSize());
+        }
 
-        return hasText(username) ? member.username.eq(username) : null;
+        return new SliceImpl<>(content, guarded, hasNext);
     }
 
-    private BooleanExpression teamNameEq(String teamName) {
+    /**
+     * 회원 아이디 목록으로 조회 (MemberTeamLoader)
+     *
+     * IN 목록 크기마다 SQL 이 달라지므로 hibernate.query.in_clause_parameter_padding 으로
+     * 파라미터 수를 2의 거듭제곱으로 맞춰서 같은 SQL, 실행 계획을 재사용한다.
+     *
+     * @param ids 회원 아이디, 없는 아이디는 결과에서 빠진다.
+     * @return 순서 없음
+     */
+    @Override
+    public List<MemberTeamDto> searchByIds(Collection<Long> ids) {
 
-        return hasText(teamName) ? team.name.eq(teamName) : null;
+        if (ids.isEmpty()) {
+
+            return new ArrayList<>();
+        }
+
+        return queryMetrics.record("MemberRepository.searchByIds", null, () -> selectMemberTeamDto()
+                .where(member.id.in(ids))
+                .fetch(), List::size);
     }
 
-    private BooleanExpression ageGoe(Integer ageGoe) {
+    /**
+     * 조건에 맞는 회원 전체를 batchSize 건씩 나누어 조회 (내보내기)
+     *
+     * offset 대신 마지막 회원 아이디 다음부터 조회(member.id > lastId)하므로 뒤로 갈수록 느려지지 않고
+     * 한 번에 batchSize 건만 메모리에 올린다.
+     *
+     * @param condition
+     * @param batchSize 한 번에 조회할 회원 수
+     * @param consumer 회원 아이디 순서로 나눈 조회 결과를 받는다.
+     * @return 조회한 회원 수
+     */
+    @Override
+    public long scan(MemberSearchCondition condition, int batchSize, Consumer<List<MemberTeamDto>> consumer) {
+
+        MemberPredicate predicate = predicateCompiler.compile(condition);
+
+        if (predicate.isImpossible()) {
+
+            return 0;
+        }
+
+        long count = 0;
+        Long lastId = 0L;
+
+        while (true) {
 
-        return ageGoe != null ? member.age.goe(ageGoe) : null;
+            Long after = lastId;
+
+            List<MemberTeamDto> content = queryMetrics.record("MemberRepository.scan", condition, () -> selectMemberTeamDto()
+                                            .where(predicate.getWhere())
+                                            .where(member.id.gt(after))
+                                            .orderBy(member.id.asc())
+                                            .limit(batchSize)
+                                            .fetch(), List::size);
+
+            if (content.isEmpty()) {
+
+                return count;
+            }
+
+            consumer.accept(content);
+
+            count += content.size();
+            lastId = content.get(content.size() - 1).getMemberId();
+
+            if (content.size() < batchSize) {
+
+                return count;
+            }
+        }
     }
 
-    private BooleanExpression ageLoe(Integer ageLoe) {
+    /**
+     * MemberTeamDto 조회 쿼리
+     *
+     * 역정규화한 팀 이름(member.teamName)을 사용하면 team 조인 생략 (TeamNameColumn)
+     *
+     * @return select MemberTeamDto from member [left join member.team team]
+     */
+    private JPAQuery<MemberTeamDto> selectMemberTeamDto() {
 
-        return ageLoe != null ? member.age.loe(ageLoe) : null;
+        return teamNameColumn.join(queryFactory
+                .select(teamNameColumn.projection())
+                .from(member));
     }
 
     /**
@@ -230,6 +684,9 @@ public class MemberRepositoryImpl implements MemberRepositoryCustom {
      * 스프링 데이터 페이징이 제공하는 Sort 를 사용하기 보다는
      * 파라미터를 받아서 직접 처리하는 것을 권장
      *
+     * PathBuilder 로 요청마다 OrderSpecifier 를 만들면 모든 프로퍼티로 정렬할 수 있으므로
+     * MemberSortCompiler 로 허용한 프로퍼티만 미리 만들어 둔 OrderSpecifier 로 변환
+     *
      * @param condition
      * @param pageable
      * @return
@@ -238,18 +695,13 @@ public class MemberRepositoryImpl implements MemberRepositoryCustom {
 
         JPAQuery<Member> query = queryFactory.selectFrom(member);
 
-        for (Sort.Order o : pageable.getSort()) {
-
-            PathBuilder pathBuilder = new PathBuilder(member.getType(), member.getMetadata());
+        if (sortCompiler.requiresTeamJoin(pageable.getSort())) {
 
-            query.orderBy(
-                    new OrderSpecifier(
-                            o.isAscending() ? Order.ASC : Order.DESC,
-                            pathBuilder.get(o.getProperty())
-                    )
-            );
+            query.leftJoin(member.team, team);
         }
 
-        return query.fetch();
+        query.orderBy(sortCompiler.compile(pageable.getSort()));
+
+        return queryMetrics.record("MemberRepository.sort_orderSpecifier", condition, query::fetch, List::size);
     }
 }
@@ -0,0 +1,180 @@
+package hello.querydsl.repository;
+
+import com.querydsl.core.types.OrderSpecifier;
+import com.querydsl.core.types.dsl.ComparableExpressionBase;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Sort;
+import org.springframework.stereotype.Component;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+import static hello.querydsl.entity.QMember.member;
+
+/**
+ * 스프링 데이터 Sort 를 미리 만들어 둔 OrderSpecifier 로 변환
+ *
+ * 허용한 프로퍼티만 정렬 가능하고, 인덱스가 없는 컬럼은 member-sort.allow-unindexed 에 지정해야 정렬 가능
+ * 변환 결과는 Sort 별로 캐시하므로 반환된 배열은 수정하면 안 된다.
+ *
+ * 정렬 가능한 프로퍼티 (MemberTeamDto 필드 이름도 허용)
+ * - id, memberId : member.id
+ * - username     : member.username
+ * - age          : member.age (인덱스 없음)
+ * - team.name, teamName : team.name (member.team 조인 필요), 역정규화 컬럼을 사용하면 member.teamName
+ */
+@Component
+public class MemberSortCompiler {
+
+    private static final int CACHE_LIMIT = 256;
+    private static final OrderSpecifier<?>[] UNSORTED = new OrderSpecifier<?>[0];
+
+    private final Map<String, SortableProperty> properties = new HashMap<>();
+    private final ConcurrentMap<Sort, OrderSpecifier<?>[]> cache = new ConcurrentHashMap<>();
+
+    public MemberSortCompiler(@Value("${member-sort.allow-unindexed:}") String[] allowUnindexed, TeamNameColumn teamNameColumn) {
+
+        Set<String> allowed = new HashSet<>(Arrays.asList(allowUnindexed));
+
+        register(new SortableProperty("id", member.id, true, false), allowed, "memberId");
+        register(new SortableProperty("username", member.username, true, false), allowed);
+        register(new SortableProperty("age", member.age, false, false), allowed);
+        register(new SortableProperty("team.name", teamNameColumn.path(), true, !teamNameColumn.isDenormalized()), allowed, "teamName");
+    }
+
+    /**
+     * @param sort
+     * @return 정렬 조건, 정렬하지 않으면 빈 배열
+     * @throws InvalidSortException 허용하지 않은 프로퍼티 또는 대소문자 무시 정렬
+     */
+    public OrderSpecifier<?>[] compile(Sort sort) {
+
+        if (sort.isUnsorted()) {
+
+            return UNSORTED;
+        }
+
+        OrderSpecifier<?>[] cached = cache.get(sort);
+
+        if (cached != null) {
+
+            return cached;
+        }
+
+        OrderSpecifier<?>[] compiled = sort.stream()
+                                            .map(this::compile)
+                                            .toArray(OrderSpecifier<?>[]::new);
+
+        // 허용된 조합만 캐시되지만 조합 수가 많아질 수 있으므로 크기 제한
+        if (cache.size() < CACHE_LIMIT) {
+
+            cache.putIfAbsent(sort, compiled);
+        }
+
+        return compiled;
+    }
+
+    /**
+     * @param sort
+     * @return member.team 조인이 필요한 정렬인지 여부
+     */
+    public boolean requiresTeamJoin(Sort sort) {
+
+        return sort.stream().anyMatch(order -> property(order).teamJoin);
+    }
+
+    private OrderSpecifier<?> compile(Sort.Order order) {
+
+        if (order.isIgnoreCase()) {
+
+            throw new InvalidSortException("대소문자를 무시하는 정렬은 지원하지 않습니다: " + order.getProperty());
+        }
+
+        return property(order).orderSpecifier(order);
+    }
+
+    private SortableProperty property(Sort.Order order) {
+
+        SortableProperty property = properties.get(order.getProperty());
+
+        if (property == null) {
+
+            throw new InvalidSortException("정렬할 수 없는 프로퍼티입니다: " + order.getProperty());
+        }
+
+        if (!property.sortable) {
+
+            throw new InvalidSortException("인덱스가 없는 컬럼은 정렬할 수 없습니다: " + order.getProperty());
+        }
+
+        return property;
+    }
+
+    private void register(SortableProperty property, Set<String> allowUnindexed, String... aliases) {
+
+        property.sortable = property.indexed || allowUnindexed.contains(property.name);
+
+        properties.put(property.name, property);
+
+        for (String alias : aliases) {
+
+            properties.put(alias, property);
+        }
+    }
+
+    private static final class SortableProperty {
+
+        private final String name;
+        private final boolean indexed;
+        private final boolean teamJoin;
+        private boolean sortable;
+
+        /**
+         * [ASC, DESC] x [NATIVE, NULLS_FIRST, NULLS_LAST]
+         */
+        private final OrderSpecifier<?>[] orderSpecifiers = new OrderSpecifier<?>[6];
+
+        private SortableProperty(String name, ComparableExpressionBase<?> path, boolean indexed, boolean teamJoin) {
+
+            this.name = name;
+            this.indexed = indexed;
+            this.teamJoin = teamJoin;
+
+            OrderSpecifier<?> asc = path.asc();
+            OrderSpecifier<?> desc = path.desc();
+
+            orderSpecifiers[0] = asc;
+            orderSpecifiers[1] = asc.nullsFirst();
+            orderSpecifiers[2] = asc.nullsLast();
+            orderSpecifiers[3] = desc;
+            orderSpecifiers[4] = desc.nullsFirst();
+            orderSpecifiers[5] = desc.nullsLast();
+        }
+
+        private OrderSpecifier<?> orderSpecifier(Sort.Order order) {
+
+            int index = order.isAscending() ? 0 : 3;
+
+            switch (order.getNullHandling()) {
+
+                case NULLS_FIRST:
+                    index += 1;
+                    break;
+
+                case NULLS_LAST:
+                    index += 2;
+                    break;
+
+                default:
+                    break;
+            }
+
+            return orderSpecifiers[index];
+        }
+    }
+}
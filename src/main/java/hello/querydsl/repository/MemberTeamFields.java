@@ -0,0 +1,136 @@
+package hello.querydsl.repository;
+
+import com.querydsl.core.types.Expression;
+import org.springframework.util.StringUtils;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static hello.querydsl.entity.QMember.member;
+import static hello.querydsl.entity.QTeam.team;
+
+/**
+ * 회원 검색 응답에서 조회할 MemberTeamDto 필드 선택 (fields=username,age)
+ *
+ * 선택한 컬럼만 Tuple 로 조회하고, team.name 을 선택하지 않으면 team 조인을 생략한다.
+ * teamId 는 member 테이블의 외래 키(member.team.id)라서 조인이 필요 없고
+ * 역정규화한 팀 이름(member.teamName)을 사용하면 teamName 도 조인이 필요 없다.
+ *
+ * 필드 조합은 5개 필드의 비트마스크(32가지)라서 미리 만들어 두고 재사용
+ * 필드 순서는 요청 순서와 상관없이 MemberTeamDto 필드 순서를 따른다.
+ */
+public final class MemberTeamFields {
+
+    private static final String[] NAMES = {"memberId", "username", "age", "teamId", "teamName"};
+    private static final Expression<?>[] EXPRESSIONS = {member.id, member.username, member.age, member.team.id, team.name};
+    private static final Expression<?>[] DENORMALIZED_EXPRESSIONS = {member.id, member.username, member.age, member.team.id, member.teamName};
+    private static final int TEAM_NAME = 1 << 4;
+
+    private static final MemberTeamFields[] SELECTIONS = new MemberTeamFields[1 << NAMES.length];
+
+    static {
+
+        for (int mask = 1; mask < SELECTIONS.length; mask++) {
+
+            SELECTIONS[mask] = new MemberTeamFields(mask);
+        }
+    }
+
+    /**
+     * 전체 필드
+     */
+    public static final MemberTeamFields ALL = SELECTIONS[SELECTIONS.length - 1];
+
+    private final String[] names;
+    private final Expression<?>[] expressions;
+    private final Expression<?>[] denormalizedExpressions;
+    private final boolean teamJoin;
+
+    private MemberTeamFields(int mask) {
+
+        List<String> names = new ArrayList<>();
+        List<Expression<?>> expressions = new ArrayList<>();
+        List<Expression<?>> denormalizedExpressions = new ArrayList<>();
+
+        for (int i = 0; i < NAMES.length; i++) {
+
+            if ((mask & (1 << i)) != 0) {
+
+                names.add(NAMES[i]);
+                expressions.add(EXPRESSIONS[i]);
+                denormalizedExpressions.add(DENORMALIZED_EXPRESSIONS[i]);
+            }
+        }
+
+        this.names = names.toArray(new String[0]);
+        this.expressions = expressions.toArray(new Expression<?>[0]);
+        this.denormalizedExpressions = denormalizedExpressions.toArray(new Expression<?>[0]);
+        this.teamJoin = (mask & TEAM_NAME) != 0;
+    }
+
+    /**
+     * @param fields 쉼표로 구분한 필드 이름, 비어 있으면 전체 필드
+     * @return 선택한 필드
+     * @throws InvalidFieldsException MemberTeamDto 에 없는 필드 또는 필드 이름 없이 쉼표만 있는 경우 (fields=,)
+     */
+    public static MemberTeamFields parse(String fields) {
+
+        if (!StringUtils.hasText(fields)) {
+
+            return ALL;
+        }
+
+        int mask = 0;
+
+        for (String field : StringUtils.tokenizeToStringArray(fields, ",")) {
+
+            mask |= 1 << indexOf(field);
+        }
+
+        if (mask == 0) {
+
+            throw new InvalidFieldsException("조회할 필드가 없습니다: " + fields);
+        }
+
+        return SELECTIONS[mask];
+    }
+
+    private static int indexOf(String field) {
+
+        for (int i = 0; i < NAMES.length; i++) {
+
+            if (NAMES[i].equals(field)) {
+
+                return i;
+            }
+        }
+
+        throw new InvalidFieldsException("조회할 수 없는 필드입니다: " + field);
+    }
+
+    /**
+     * @return 조회할 필드 이름 (수정하면 안 된다)
+     */
+    public String[] getNames() {
+
+        return names;
+    }
+
+    /**
+     * @param denormalized 역정규화한 팀 이름(member.teamName) 사용 여부 (TeamNameColumn)
+     * @return 조회할 컬럼, getNames() 와 같은 순서 (수정하면 안 된다)
+     */
+    public Expression<?>[] getExpressions(boolean denormalized) {
+
+        return denormalized ? denormalizedExpressions : expressions;
+    }
+
+    /**
+     * @param denormalized 역정규화한 팀 이름(member.teamName) 사용 여부 (TeamNameColumn)
+     * @return team 조인이 필요한 필드를 선택했는지 여부
+     */
+    public boolean requiresTeamJoin(boolean denormalized) {
+
+        return teamJoin && !denormalized;
+    }
+}
@@ -0,0 +1,270 @@
+package hello.querydsl.repository;
+
+import hello.querydsl.dto.MemberTeamDto;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PreDestroy;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 회원 아이디 조회 모으기 (DataLoader 방식)
+ *
+ * 여러 요청이 회원을 한 명씩 조회하면 요청마다 쿼리가 실행되므로
+ * 첫 요청 후 member-loader.window-micros 동안 들어온 아이디를 모아서
+ * member-loader.chunk-size 개씩 IN 쿼리로 조회하고 (MemberRepository.searchByIds) 요청별로 나누어 돌려준다.
+ * 같은 시간 안에 같은 아이디를 요청하면 한 번만 조회하고 같은 결과를 받는다.
+ *
+ * 조회는 트랜잭션 밖의 별도 스레드에서 실행하므로 결과는 커밋된 데이터 기준이다.
+ * 종료(shutdown) 후에 요청하거나 종료 때 조회하지 못한 아이디는 RejectedExecutionException 으로 완료한다.
+ *
+ * 메트릭 member.loader.batch : 한 번에 모아서 조회한 아이디 수
+ */
+@Component
+public class MemberTeamLoader {
+
+    private final MemberRepository memberRepository;
+    private final MemberLoaderSettings settings;
+    private final DistributionSummary batchSize;
+
+    private final ScheduledThreadPoolExecutor executor;
+
+    private Map<Long, CompletableFuture<MemberTeamDto>> pending = new LinkedHashMap<>();
+    private final Set<Map<Long, CompletableFuture<MemberTeamDto>>> running = Collections.newSetFromMap(new IdentityHashMap<>());
+    private boolean scheduled;
+    private boolean closed;
+
+    public MemberTeamLoader(MemberRepository memberRepository, MemberLoaderSettings settings, MeterRegistry registry) {
+
+        this.memberRepository = memberRepository;
+        this.settings = settings;
+        this.batchSize = DistributionSummary.builder("member.loader.batch")
+                            .description("한 번에 모아서 조회한 회원 아이디 수")
+                            .register(registry);
+
+        this.executor = new ScheduledThreadPoolExecutor(settings.getThreads(), runnable -> {
+            Thread thread = new Thread(runnable, "member-loader");
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.executor.setRemoveOnCancelPolicy(true);
+    }
+
+    /**
+     * @param id 회원 아이디
+     * @return 회원, 없으면 null
+     */
+    public CompletableFuture<MemberTeamDto> load(Long id) {
+
+        synchronized (this) {
+
+            return enqueue(id);
+        }
+    }
+
+    /**
+     * @param ids 회원 아이디 (중복 가능)
+     * @return 아이디별 회원, 없는 아이디는 포함되지 않는다.
+     */
+    public CompletableFuture<Map<Long, MemberTeamDto>> loadAll(Collection<Long> ids) {
+
+        Map<Long, CompletableFuture<MemberTeamDto>> futures = new LinkedHashMap<>();
+
+        synchronized (this) {
+
+            for (Long id : ids) {
+
+                futures.computeIfAbsent(id, this::enqueue);
+            }
+        }
+
+        return CompletableFuture.allOf(futures.values().toArray(new CompletableFuture<?>[0]))
+                .thenApply(done -> {
+
+                    Map<Long, MemberTeamDto> result = new LinkedHashMap<>();
+
+                    futures.forEach((id, future) -> {
+
+                        MemberTeamDto member = future.join();
+
+                        if (member != null) {
+
+                            result.put(id, member);
+                        }
+                    });
+
+                    return result;
+                });
+    }
+
+    @PreDestroy
+    public void shutdown() {
+
+        List<Map<Long, CompletableFuture<MemberTeamDto>>> batches = new ArrayList<>();
+
+        synchronized (this) {
+
+            closed = true;
+
+            batches.add(pending);
+            batches.addAll(running);
+
+            pending = new LinkedHashMap<>();
+            running.clear();
+        }
+
+        executor.shutdownNow();
+
+        RejectedExecutionException e = new RejectedExecutionException("회원 조회가 종료되었습니다.");
+
+        for (Map<Long, CompletableFuture<MemberTeamDto>> batch : batches) {
+
+            reject(batch, e);
+        }
+    }
+
+    /**
+     * synchronized 안에서 호출
+     */
+    private CompletableFuture<MemberTeamDto> enqueue(Long id) {
+
+        if (closed) {
+
+            return CompletableFuture.failedFuture(new RejectedExecutionException("회원 조회가 종료되었습니다."));
+        }
+
+        CompletableFuture<MemberTeamDto> future = pending.get(id);
+
+        if (future != null) {
+
+            return future;
+        }
+
+        future = new CompletableFuture<>();
+        pending.put(id, future);
+
+        if (pending.size() >= settings.getMaxBatchSize()) {
+
+            Map<Long, CompletableFuture<MemberTeamDto>> batch = pending;
+
+            pending = new LinkedHashMap<>();
+            running.add(batch);
+
+            try {
+
+                executor.execute(() -> fetch(batch));
+            } catch (RejectedExecutionException e) {
+
+                running.remove(batch);
+                reject(batch, e);
+            }
+        } else if (!scheduled) {
+
+            scheduled = true;
+
+            try {
+
+                executor.schedule(this::dispatch, settings.getWindowMicros(), TimeUnit.MICROSECONDS);
+            } catch (RejectedExecutionException e) {
+
+                Map<Long, CompletableFuture<MemberTeamDto>> batch = pending;
+
+                pending = new LinkedHashMap<>();
+                scheduled = false;
+                reject(batch, e);
+            }
+        }
+
+        return future;
+    }
+
+    private void dispatch() {
+
+        Map<Long, CompletableFuture<MemberTeamDto>> batch;
+
+        synchronized (this) {
+
+            batch = pending;
+
+            pending = new LinkedHashMap<>();
+            scheduled = false;
+
+            if (batch.isEmpty()) {
+
+                return;
+            }
+
+            running.add(batch);
+        }
+
+        fetch(batch);
+    }
+
+    private void fetch(Map<Long, CompletableFuture<MemberTeamDto>> batch) {
+
+        try {
+
+            fetchChunks(batch);
+        } finally {
+
+            synchronized (this) {
+
+                running.remove(batch);
+            }
+        }
+    }
+
+    private void fetchChunks(Map<Long, CompletableFuture<MemberTeamDto>> batch) {
+
+        batchSize.record(batch.size());
+
+        List<Long> ids = new ArrayList<>(batch.keySet());
+
+        for (int from = 0; from < ids.size(); from += settings.getChunkSize()) {
+
+            List<Long> chunk = ids.subList(from, Math.min(from + settings.getChunkSize(), ids.size()));
+
+            try {
+
+                Map<Long, MemberTeamDto> found = new HashMap<>();
+
+                for (MemberTeamDto member : memberRepository.searchByIds(chunk)) {
+
+                    found.put(member.getMemberId(), member);
+                }
+
+                for (Long id : chunk) {
+
+                    batch.get(id).complete(found.get(id));
+                }
+            } catch (RuntimeException e) {
+
+                for (Long id : chunk) {
+
+                    batch.get(id).completeExceptionally(e);
+                }
+            }
+        }
+    }
+
+    private static void reject(Map<Long, CompletableFuture<MemberTeamDto>> batch, RejectedExecutionException e) {
+
+        for (CompletableFuture<MemberTeamDto> future : batch.values()) {
+
+            future.completeExceptionally(e);
+        }
+    }
+}
@@ -1,21 +1,24 @@
 package hello.querydsl.repository;
 
-import com.querydsl.core.types.dsl.BooleanExpression;
 import com.querydsl.jpa.impl.JPAQuery;
 import hello.querydsl.dto.MemberSearchCondition;
 import hello.querydsl.entity.Member;
 import hello.querydsl.entity.QMember;
 import hello.querydsl.repository.support.Querydsl4RepositorySupport;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
+import org.springframework.data.domain.Sort;
 import org.springframework.data.support.PageableExecutionUtils;
 import org.springframework.stereotype.Repository;
 
+import java.util.ArrayList;
 import java.util.List;
 
 import static hello.querydsl.entity.QMember.member;
 import static hello.querydsl.entity.QTeam.team;
-import static org.springframework.util.StringUtils.hasText;
 
 /**
  * Querydsl4RepositorySupport 사용 코드
@@ -23,8 +26,13 @@ import static org.springframework.util.StringUtils.hasText;
 @Repository
 public class MemberTestRepository extends Querydsl4RepositorySupport {
 
-    public MemberTestRepository() {
+    private final MemberPredicateCompiler predicateCompiler;
+    private final MemberSortCompiler sortCompiler;
+
+    public MemberTestRepository(MemberPredicateCompiler predicateCompiler, MemberSortCompiler sortCompiler) {
         super(Member.class);
+        this.predicateCompiler = predicateCompiler;
+        this.sortCompiler = sortCompiler;
     }
 
     public List<Member> basicSelect() {
@@ -42,81 +50,87 @@ public class MemberTestRepository extends Querydsl4RepositorySupport {
 
     public Page<Member> searchPageByApplyPage(MemberSearchCondition condition, Pageable pageable) {
 
+        MemberPredicate predicate = predicateCompiler.compile(condition);
+
+        if (predicate.isImpossible()) {
+
+            return new PageImpl<>(new ArrayList<>(), pageable, 0);
+        }
+
         JPAQuery<Member> query = selectFrom(member)
                                     .leftJoin(member.team, team)
-                                    .where(
-                                            usernameEq(condition.getUsername()),
-                                            teamNameEq(condition.getTeamName()),
-                                            ageGoe(condition.getAgeGoe()),
-                                            ageLoe(condition.getAgeLoe())
-                                    );
+                                    .where(predicate.getWhere());
 
-        List<Member> content = getQuerydsl()
-                                    .applyPagination(pageable, query)
-                                    .fetch();
+        List<Member> content = applyPaging(pageable, query).fetch();
 
         return PageableExecutionUtils.getPage(content, pageable, query::fetchCount);
     }
 
     public Page<Member> applyPagination(MemberSearchCondition condition, Pageable pageable) {
 
+        MemberPredicate predicate = predicateCompiler.compile(condition);
+
+        if (predicate.isImpossible()) {
+
+            return new PageImpl<>(new ArrayList<>(), pageable, 0);
+        }
+
         return applyPagination(
                     pageable,
                     query -> query
                                 .selectFrom(member)
                                 .leftJoin(member.team, team)
-                                .where(
-                                        usernameEq(condition.getUsername()),
-                                        teamNameEq(condition.getTeamName()),
-                                        ageGoe(condition.getAgeGoe()),
-                                        ageLoe(condition.getAgeLoe())
-                                )
+                                .where(predicate.getWhere())
         );
     }
 
     public Page<Member> applyPagination2(MemberSearchCondition condition, Pageable pageable) {
 
+        MemberPredicate predicate = predicateCompiler.compile(condition);
+
+        if (predicate.isImpossible()) {
+
+            return new PageImpl<>(new ArrayList<>(), pageable, 0);
+        }
+
         return applyPagination(
                     pageable,
                     contentQuery -> contentQuery
                                         .selectFrom(member)
                                         .leftJoin(member.team, team)
-                                        .where(
-                                                usernameEq(condition.getUsername()),
-                                                teamNameEq(condition.getTeamName()),
-                                                ageGoe(condition.getAgeGoe()),
-                                                ageLoe(condition.getAgeLoe())
-                                        ),
+                                        .where(predicate.getWhere()),
                     countQuery -> countQuery
                                         .select(member.id)
                                         .from(member)
                                         .leftJoin(member.team, team)
-                                        .where(
-                                                usernameEq(condition.getUsername()),
-                                                teamNameEq(condition.getTeamName()),
-                                                ageGoe(condition.getAgeGoe()),
-                                                ageLoe(condition.getAgeLoe())
-                                        )
+                                        .where(predicate.getWhere())
         );
     }
 
-    private BooleanExpression usernameEq(String username) {
+    public Slice<Member> applySlicing(MemberSearchCondition condition, Pageable pageable) {
 
-        return hasText(username) ? member.username.eq(username) : null;
-    }
+        MemberPredicate predicate = predicateCompiler.compile(condition);
 
-    private BooleanExpression teamNameEq(String teamName) {
+        if (predicate.isImpossible()) {
 
-        return hasText(teamName) ? team.name.eq(teamName) : null;
-    }
+            return new SliceImpl<>(new ArrayList<>(), pageable, false);
+        }
 
-    private BooleanExpression ageGoe(Integer ageGoe) {
-
-        return ageGoe != null ? member.age.goe(ageGoe) : null;
+        return applySlicing(
+                    pageable,
+                    query -> query
+                                .selectFrom(member)
+                                .leftJoin(member.team, team)
+                                .where(predicate.getWhere())
+        );
     }
 
-    private BooleanExpression ageLoe(Integer ageLoe) {
+    /**
+     * 허용한 프로퍼티만 정렬 (MemberSortCompiler)
+     */
+    @Override
+    protected <T> JPAQuery<T> applySorting(Sort sort, JPAQuery<T> query) {
 
-        return ageLoe != null ? member.age.loe(ageLoe) : null;
+        return query.orderBy(sortCompiler.compile(sort));
     }
 }
@@ -0,0 +1,77 @@
+package hello.querydsl.repository;
+
+import com.querydsl.core.types.dsl.StringExpression;
+import com.querydsl.jpa.impl.JPAQuery;
+import hello.querydsl.dto.QMemberTeamDto;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import static hello.querydsl.entity.QMember.member;
+import static hello.querydsl.entity.QTeam.team;
+
+/**
+ * 검색에 사용할 팀 이름 컬럼 선택
+ *
+ * member.denormalized-team-name=true 면 member.teamName(역정규화 컬럼)을 사용해서 team 조인을 생략하고
+ * false 면 member.team 을 조인해서 team.name 을 사용한다.
+ *
+ * 역정규화 컬럼은 팀 이름 변경이 TeamNamePropagator 로 반영될 때까지 이전 이름일 수 있다.
+ */
+@Component
+public class TeamNameColumn {
+
+    private final boolean denormalized;
+    private final StringExpression path;
+    private final QMemberTeamDto projection;
+
+    public TeamNameColumn(@Value("${member.denormalized-team-name:false}") boolean denormalized) {
+
+        this.denormalized = denormalized;
+        this.path = denormalized ? member.teamName : team.name;
+
+        // teamId 는 member 테이블의 외래 키라서 조인이 필요 없다.
+        this.projection = new QMemberTeamDto(
+                member.id,
+                member.username,
+                member.age,
+                denormalized ? member.team.id : team.id,
+                path
+        );
+    }
+
+    /**
+     * @return 역정규화 컬럼(member.teamName)을 사용하는지 여부
+     */
+    public boolean isDenormalized() {
+
+        return denormalized;
+    }
+
+    /**
+     * @return 검색, 정렬, 조회에 사용할 팀 이름 (member.teamName 또는 team.name)
+     */
+    public StringExpression path() {
+
+        return path;
+    }
+
+    /**
+     * @return MemberTeamDto 프로젝션, 불변이라 재사용
+     */
+    public QMemberTeamDto projection() {
+
+        return projection;
+    }
+
+    /**
+     * 역정규화 컬럼을 사용하지 않으면 member.team 조인 추가
+     *
+     * @param query from(member) 쿼리
+     * @param <T>
+     * @return
+     */
+    public <T> JPAQuery<T> join(JPAQuery<T> query) {
+
+        return denormalized ? query : query.leftJoin(member.team, team);
+    }
+}
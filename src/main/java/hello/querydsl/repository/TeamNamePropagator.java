@@ -0,0 +1,279 @@
+package hello.querydsl.repository;
+
+import com.querydsl.jpa.JPAExpressions;
+import com.querydsl.jpa.impl.JPAQueryFactory;
+import hello.querydsl.entity.Team;
+import hello.querydsl.feed.ChangeEvent;
+import hello.querydsl.feed.ChangeOutbox;
+import lombok.extern.slf4j.Slf4j;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.event.service.spi.EventListenerRegistry;
+import org.hibernate.event.spi.EventType;
+import org.hibernate.event.spi.PostCommitUpdateEventListener;
+import org.hibernate.event.spi.PostUpdateEvent;
+import org.hibernate.persister.entity.EntityPersister;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import javax.persistence.EntityManagerFactory;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import static hello.querydsl.entity.QMember.member;
+import static hello.querydsl.entity.QTeam.team;
+
+/**
+ * 팀 이름 변경을 회원의 역정규화 컬럼(member.teamName)에 반영
+ *
+ * 커밋된 Team 이름 변경(POST_COMMIT_UPDATE)을 받아서 별도 스레드에서 해당 팀 회원을
+ * member.team-name-batch-size 건씩 나누어 벌크 update 한다. (배치마다 별도 트랜잭션)
+ * 이름은 update 시점의 team.name 을 서브쿼리로 읽으므로 연달아 이름을 바꿔도 마지막 이름이 반영된다.
+ * 아이디를 읽은 후 다른 팀으로 옮긴 회원은 update 에서도 팀 조건으로 제외한다. (옮긴 팀 이름을 덮어쓰지 않는다.)
+ *
+ * member.denormalized-team-name=true 로 시작하면 팀 이름이 비어 있는 회원을 같은 방식으로 채운다.
+ *
+ * 배치마다 변경 피드에 회원 아이디 범위 이벤트를 남긴다. (ChangeOutbox.range)
+ * 범위는 배치의 첫 아이디 ~ 마지막 아이디라서 그 사이의 다른 팀 회원도 포함하므로 payload 의 teamId 로 걸러야 한다.
+ * (backfill 은 teamId 없이 팀 이름이 비어 있던 회원 범위)
+ */
+@Slf4j
+@Component
+public class TeamNamePropagator implements PostCommitUpdateEventListener {
+
+    private final EntityManagerFactory emf;
+    private final JPAQueryFactory queryFactory;
+    private final TransactionTemplate transactionTemplate;
+    private final TeamNameColumn teamNameColumn;
+    private final ChangeOutbox changeOutbox;
+    private final int batchSize;
+
+    private final Set<Long> pending = ConcurrentHashMap.newKeySet();
+
+    private final ExecutorService executor = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "team-name-propagator");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    public TeamNamePropagator(EntityManagerFactory emf,
+                              JPAQueryFactory queryFactory,
+                              PlatformTransactionManager transactionManager,
+                              TeamNameColumn teamNameColumn,
+                              ChangeOutbox changeOutbox,
+                              @Value("${member.team-name-batch-size:1000}") int batchSize) {
+
+        this.emf = emf;
+        this.queryFactory = queryFactory;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.teamNameColumn = teamNameColumn;
+        this.changeOutbox = changeOutbox;
+        this.batchSize = batchSize;
+    }
+
+    @PostConstruct
+    public void register() {
+
+        emf.unwrap(SessionFactoryImplementor.class)
+                .getServiceRegistry()
+                .getService(EventListenerRegistry.class)
+                .appendListeners(EventType.POST_COMMIT_UPDATE, this);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void backfillOnStartup() {
+
+        if (teamNameColumn.isDenormalized()) {
+
+            executor.execute(this::backfill);
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+
+        executor.shutdownNow();
+    }
+
+    /**
+     * 팀 이름 반영 예약, 이미 예약된 팀이면 무시
+     *
+     * @param teamId
+     */
+    public void schedule(Long teamId) {
+
+        if (pending.add(teamId)) {
+
+            executor.execute(() -> {
+
+                pending.remove(teamId);
+                propagate(teamId);
+            });
+        }
+    }
+
+    /**
+     * 팀 회원의 팀 이름을 나누어 반영
+     *
+     * @param teamId
+     * @return 반영한 회원 수
+     */
+    public long propagate(Long teamId) {
+
+        long updated = 0;
+        Long lastId = 0L;
+
+        Map<String, Object> changes = new LinkedHashMap<>();
+        changes.put("field", "teamName");
+        changes.put("teamId", teamId);
+
+        while (true) {
+
+            List<Long> ids = queryFactory
+                                .select(member.id)
+                                .from(member)
+                                .where(member.team.id.eq(teamId), member.id.gt(lastId))
+                                .orderBy(member.id.asc())
+                                .limit(batchSize)
+                                .fetch();
+
+            if (ids.isEmpty()) {
+
+                break;
+            }
+
+            updated += propagate(teamId, ids, changes);
+
+            lastId = ids.get(ids.size() - 1);
+        }
+
+        log.info("team name propagated: teamId={}, members={}", teamId, updated);
+
+        return updated;
+    }
+
+    /**
+     * 배치 하나 반영 (별도 트랜잭션)
+     *
+     * @param teamId
+     * @param ids 앞에서 조회한 팀 회원 아이디, 그 사이 다른 팀으로 옮긴 회원은 반영하지 않는다.
+     * @param changes 변경 이벤트 내용
+     * @return 실제로 반영한 회원 수
+     */
+    long propagate(Long teamId, List<Long> ids, Map<String, Object> changes) {
+
+        return transactionTemplate.execute(status -> {
+
+            long count = queryFactory
+                            .update(member)
+                            .set(member.teamName, JPAExpressions.select(team.name).from(team).where(team.id.eq(teamId)))
+                            .where(member.id.in(ids), member.team.id.eq(teamId))
+                            .execute();
+
+            changeOutbox.range(ChangeEvent.EntityType.MEMBER, ChangeEvent.Operation.UPDATE, ids.get(0), ids.get(ids.size() - 1), changes);
+
+            return count;
+        });
+    }
+
+    /**
+     * 팀이 있지만 팀 이름이 비어 있는 회원을 나누어 채움
+     *
+     * @return 채운 회원 수
+     */
+    public long backfill() {
+
+        long updated = 0;
+        Long lastId = 0L;
+
+        while (true) {
+
+            List<Long> ids = queryFactory
+                                .select(member.id)
+                                .from(member)
+                                .where(member.team.isNotNull(), member.teamName.isNull(), member.id.gt(lastId))
+                                .orderBy(member.id.asc())
+                                .limit(batchSize)
+                                .fetch();
+
+            if (ids.isEmpty()) {
+
+                break;
+            }
+
+            updated += transactionTemplate.execute(status -> {
+
+                long count = queryFactory
+                                .update(member)
+                                .set(member.teamName, JPAExpressions.select(team.name).from(team).where(team.eq(member.team)))
+                                .where(member.id.in(ids))
+                                .execute();
+
+                changeOutbox.range(ChangeEvent.EntityType.MEMBER, ChangeEvent.Operation.UPDATE, ids.get(0), ids.get(ids.size() - 1),
+                        Collections.singletonMap("field", "teamName"));
+
+                return count;
+            });
+
+            lastId = ids.get(ids.size() - 1);
+        }
+
+        if (updated > 0) {
+
+            log.info("team name backfilled: members={}", updated);
+        }
+
+        return updated;
+    }
+
+    @Override
+    public void onPostUpdate(PostUpdateEvent event) {
+
+        if (event.getEntity() instanceof Team && nameChanged(event)) {
+
+            schedule((Long) event.getId());
+        }
+    }
+
+    @Override
+    public void onPostUpdateCommitFailed(PostUpdateEvent event) {
+    }
+
+    @Override
+    public boolean requiresPostCommitHandling(EntityPersister persister) {
+
+        return Team.class.equals(persister.getMappedClass());
+    }
+
+    @Override
+    @SuppressWarnings("deprecation")
+    public boolean requiresPostCommitHanding(EntityPersister persister) {
+
+        return requiresPostCommitHandling(persister);
+    }
+
+    private static boolean nameChanged(PostUpdateEvent event) {
+
+        // 이전 상태를 모르면 바뀐 것으로 처리
+        if (event.getOldState() == null) {
+
+            return true;
+        }
+
+        int index = event.getPersister().getEntityMetamodel().getPropertyIndex("name");
+
+        return !Objects.equals(event.getOldState()[index], event.getState()[index]);
+    }
+}
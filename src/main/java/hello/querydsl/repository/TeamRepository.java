@@ -0,0 +1,10 @@
+package hello.querydsl.repository;
+
+import hello.querydsl.entity.Team;
+import org.springframework.data.jpa.repository.JpaRepository;
+
+/**
+ * 스프링 데이터 리포지토리에 사용자 정의 인터페이스 상속
+ */
+public interface TeamRepository extends JpaRepository<Team, Long>, TeamRepositoryCustom {
+}
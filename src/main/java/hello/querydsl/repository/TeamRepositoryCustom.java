@@ -0,0 +1,13 @@
+package hello.querydsl.repository;
+
+import hello.querydsl.dto.TeamSummaryDto;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+
+/**
+ * 사용자 정의 인터페이스
+ */
+public interface TeamRepositoryCustom {
+
+    Page<TeamSummaryDto> searchSummaries(Pageable pageable, int memberLimit);
+}
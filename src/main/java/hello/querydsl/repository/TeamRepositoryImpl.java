@@ -0,0 +1,150 @@
+package hello.querydsl.repository;
+
+import com.querydsl.core.Tuple;
+import com.querydsl.jpa.impl.JPAQuery;
+import com.querydsl.jpa.impl.JPAQueryFactory;
+import hello.querydsl.dto.MemberTeamDto;
+import hello.querydsl.dto.TeamSummaryDto;
+import hello.querydsl.repository.support.QueryMetrics;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.support.PageableExecutionUtils;
+
+import javax.persistence.EntityManager;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import static hello.querydsl.entity.QMember.member;
+import static hello.querydsl.entity.QTeam.team;
+
+/**
+ * 사용자 정의 인터페이스 구현
+ */
+public class TeamRepositoryImpl implements TeamRepositoryCustom {
+
+    /**
+     * 팀별 앞쪽 memberLimit 명 (회원 아이디 순서)
+     *
+     * JPQL 은 윈도우 함수를 지원하지 않아서 네이티브 SQL 로 조회
+     */
+    private static final String TOP_MEMBERS_SQL =
+            "SELECT member_id, username, age, team_id FROM (" +
+            " SELECT m.member_id, m.username, m.age, m.team_id," +
+            " ROW_NUMBER() OVER (PARTITION BY m.team_id ORDER BY m.member_id) AS rn" +
+            " FROM member m WHERE m.team_id IN (:teamIds)" +
+            ") ranked WHERE rn <= :memberLimit ORDER BY team_id, rn";
+
+    private final EntityManager em;
+    private final JPAQueryFactory queryFactory;
+    private final QueryMetrics queryMetrics;
+
+    public TeamRepositoryImpl(EntityManager em, JPAQueryFactory queryFactory, QueryMetrics queryMetrics) {
+
+        this.em = em;
+        this.queryFactory = queryFactory;
+        this.queryMetrics = queryMetrics;
+    }
+
+    /**
+     * 팀 목록과 팀별 회원 수, 나이 집계, 앞쪽 회원 일부 조회
+     *
+     * team.members 를 팀마다 조회하면 N + 1, 페치 조인하면 팀 x 회원 카테시안 곱이 되므로
+     * 팀 수와 상관없이 쿼리 3개(+ 필요할 때 카운트 쿼리)로 조회하고 메모리에서 합친다.
+     *
+     * 1. 팀 페이지 (팀 아이디 순서)
+     * 2. 페이지 팀들의 회원 수, 나이 집계 (group by team_id)
+     * 3. 페이지 팀들의 앞쪽 memberLimit 명 (ROW_NUMBER() OVER (PARTITION BY team_id))
+     *
+     * @param pageable 팀 페이지, 정렬은 무시
+     * @param memberLimit 팀별로 조회할 회원 수, 0 이면 회원을 조회하지 않는다.
+     * @return
+     */
+    @Override
+    public Page<TeamSummaryDto> searchSummaries(Pageable pageable, int memberLimit) {
+
+        List<Tuple> teams = queryMetrics.record("TeamRepository.searchSummaries", null, () -> queryFactory
+                                .select(team.id, team.name)
+                                .from(team)
+                                .orderBy(team.id.asc())
+                                .offset(pageable.getOffset())
+                                .limit(pageable.getPageSize())
+                                .fetch(), List::size);
+
+        JPAQuery<Long> countQuery = queryFactory
+                                        .select(team.count())
+                                        .from(team);
+
+        if (teams.isEmpty()) {
+
+            return PageableExecutionUtils.getPage(new ArrayList<>(), pageable, countQuery::fetchOne);
+        }
+
+        Map<Long, TeamSummaryDto> summaries = new LinkedHashMap<>();
+
+        for (Tuple row : teams) {
+
+            summaries.put(row.get(team.id), new TeamSummaryDto(row.get(team.id), row.get(team.name)));
+        }
+
+        List<Long> teamIds = new ArrayList<>(summaries.keySet());
+
+        fetchStats(summaries, teamIds);
+
+        if (memberLimit > 0) {
+
+            fetchTopMembers(summaries, teamIds, memberLimit);
+        }
+
+        return PageableExecutionUtils.getPage(
+                new ArrayList<>(summaries.values()),
+                pageable,
+                () -> queryMetrics.record("TeamRepository.searchSummaries.count", null, countQuery::fetchOne, count -> 1)
+        );
+    }
+
+    private void fetchStats(Map<Long, TeamSummaryDto> summaries, List<Long> teamIds) {
+
+        List<Tuple> stats = queryMetrics.record("TeamRepository.searchSummaries.stats", null, () -> queryFactory
+                                .select(member.team.id, member.count(), member.age.min(), member.age.max(), member.age.avg())
+                                .from(member)
+                                .where(member.team.id.in(teamIds))
+                                .groupBy(member.team.id)
+                                .fetch(), List::size);
+
+        for (Tuple row : stats) {
+
+            TeamSummaryDto summary = summaries.get(row.get(member.team.id));
+
+            summary.setMemberCount(row.get(member.count()));
+            summary.setMinAge(row.get(member.age.min()));
+            summary.setMaxAge(row.get(member.age.max()));
+            summary.setAvgAge(row.get(member.age.avg()));
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private void fetchTopMembers(Map<Long, TeamSummaryDto> summaries, List<Long> teamIds, int memberLimit) {
+
+        List<Object[]> rows = queryMetrics.record("TeamRepository.searchSummaries.members", null, () -> em
+                                .createNativeQuery(TOP_MEMBERS_SQL)
+                                .setParameter("teamIds", teamIds)
+                                .setParameter("memberLimit", memberLimit)
+                                .getResultList(), List::size);
+
+        for (Object[] row : rows) {
+
+            Long teamId = ((Number) row[3]).longValue();
+            TeamSummaryDto summary = summaries.get(teamId);
+
+            summary.getMembers().add(new MemberTeamDto(
+                    ((Number) row[0]).longValue(),
+                    (String) row[1],
+                    ((Number) row[2]).intValue(),
+                    teamId,
+                    summary.getName()
+            ));
+        }
+    }
+}
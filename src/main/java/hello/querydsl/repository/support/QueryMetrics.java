@@ -0,0 +1,164 @@
+package hello.querydsl.repository.support;
+
+import hello.querydsl.dto.MemberSearchCondition;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.stereotype.Component;
+
+import java.util.StringJoiner;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+import java.util.function.ToIntFunction;
+
+import static org.springframework.util.StringUtils.hasText;
+
+/**
+ * 리포지토리 쿼리 메트릭
+ *
+ * 리포지토리 메소드(method)와 검색 조건 중 값이 있는 필드 조합(shape)을 태그로
+ * 응답 시간(querydsl.query), 조회 건수(querydsl.query.rows), 오류(querydsl.query.errors) 를 기록
+ *
+ * 검색 조건 조합은 4개 필드의 비트마스크(16가지)라서
+ * 메소드별로 미터를 배열에 캐시해두고 호출마다 레지스트리를 조회하지 않는다.
+ */
+@Component
+public class QueryMetrics {
+
+    private static final int USERNAME = 1;
+    private static final int TEAM_NAME = 1 << 1;
+    private static final int AGE_GOE = 1 << 2;
+    private static final int AGE_LOE = 1 << 3;
+
+    private static final String[] SHAPES = new String[16];
+
+    static {
+
+        for (int mask = 0; mask < SHAPES.length; mask++) {
+
+            StringJoiner joiner = new StringJoiner(",");
+
+            if ((mask & USERNAME) != 0) joiner.add("username");
+            if ((mask & TEAM_NAME) != 0) joiner.add("teamName");
+            if ((mask & AGE_GOE) != 0) joiner.add("ageGoe");
+            if ((mask & AGE_LOE) != 0) joiner.add("ageLoe");
+
+            SHAPES[mask] = mask == 0 ? "none" : joiner.toString();
+        }
+    }
+
+    private final MeterRegistry registry;
+    private final ConcurrentMap<String, Meters[]> meters = new ConcurrentHashMap<>();
+
+    public QueryMetrics(MeterRegistry registry) {
+
+        this.registry = registry;
+    }
+
+    /**
+     * 쿼리 실행 시간, 조회 건수, 오류 기록
+     *
+     * @param method 리포지토리 메소드 이름
+     * @param condition 검색 조건
+     * @param query 실행할 쿼리
+     * @param rows 결과에서 조회 건수 추출
+     * @param <T>
+     * @return 쿼리 결과
+     */
+    public <T> T record(String method, MemberSearchCondition condition, Supplier<T> query, ToIntFunction<T> rows) {
+
+        int shape = shape(condition);
+        Meters meter = meters(method, shape);
+
+        long start = System.nanoTime();
+
+        try {
+
+            T result = query.get();
+
+            meter.timer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+            meter.rows.record(rows.applyAsInt(result));
+
+            return result;
+        } catch (RuntimeException e) {
+
+            meter.timer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+
+            Counter.builder("querydsl.query.errors")
+                    .tag("method", method)
+                    .tag("shape", SHAPES[shape])
+                    .tag("exception", e.getClass().getSimpleName())
+                    .register(registry)
+                    .increment();
+
+            throw e;
+        }
+    }
+
+    /**
+     * 검색 조건 중 값이 있는 필드 조합
+     *
+     * @param condition
+     * @return username,teamName,ageGoe,ageLoe 순서로 값이 있는 필드 이름, 없으면 none
+     */
+    public static String shapeOf(MemberSearchCondition condition) {
+
+        return SHAPES[shape(condition)];
+    }
+
+    private static int shape(MemberSearchCondition condition) {
+
+        if (condition == null) {
+
+            return 0;
+        }
+
+        int mask = 0;
+
+        if (hasText(condition.getUsername())) mask |= USERNAME;
+        if (hasText(condition.getTeamName())) mask |= TEAM_NAME;
+        if (condition.getAgeGoe() != null) mask |= AGE_GOE;
+        if (condition.getAgeLoe() != null) mask |= AGE_LOE;
+
+        return mask;
+    }
+
+    private Meters meters(String method, int shape) {
+
+        Meters[] byShape = meters.computeIfAbsent(method, key -> new Meters[SHAPES.length]);
+
+        Meters meter = byShape[shape];
+
+        if (meter == null) {
+
+            // 같은 태그로 register 하면 레지스트리가 기존 미터를 돌려주므로 경합해도 안전
+            meter = new Meters(registry, method, SHAPES[shape]);
+            byShape[shape] = meter;
+        }
+
+        return meter;
+    }
+
+    private static final class Meters {
+
+        private final Timer timer;
+        private final DistributionSummary rows;
+
+        private Meters(MeterRegistry registry, String method, String shape) {
+
+            this.timer = Timer.builder("querydsl.query")
+                                .tag("method", method)
+                                .tag("shape", shape)
+                                .publishPercentileHistogram()
+                                .register(registry);
+
+            this.rows = DistributionSummary.builder("querydsl.query.rows")
+                                .tag("method", method)
+                                .tag("shape", shape)
+                                .register(registry);
+        }
+    }
+}
@@ -8,6 +8,9 @@ import com.querydsl.jpa.impl.JPAQueryFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
+import org.springframework.data.domain.Sort;
 import org.springframework.data.jpa.repository.support.JpaEntityInformation;
 import org.springframework.data.jpa.repository.support.JpaEntityInformationSupport;
 import org.springframework.data.jpa.repository.support.Querydsl;
@@ -29,12 +32,13 @@ import java.util.function.Function;
  * 장점
  * - 스프링 데이터가 제공하는 페이징을 편리하게 변환
  * - 페이징과 카운트 쿼리 분리 가능
+ * - 카운트 쿼리 없는 Slice 조회 지원
  * - 스프링 데이터 Sort 지원
  * - select(), selectFrom() 으로 시작 가능하여 명시적임
  * - EntityManager, QueryFactory 제공
  */
 @Repository
-public class Querydsl4RepositorySupport {
+public abstract class Querydsl4RepositorySupport {
 
     private final Class domainClass;
     private Querydsl querydsl;
@@ -59,7 +63,14 @@ public class Querydsl4RepositorySupport {
 
         this.entityManager = entityManager;
         this.querydsl = new Querydsl(entityManager, new PathBuilder<>(path.getType(), path.getMetadata()));
-        this.queryFactory = new JPAQueryFactory(entityManager);
+    }
+
+    @Autowired
+    public void setQueryFactory(JPAQueryFactory queryFactory) {
+
+        Assert.notNull(queryFactory, "QueryFactory must not be null!");
+
+        this.queryFactory = queryFactory;
     }
 
     @PostConstruct
@@ -95,11 +106,50 @@ public class Querydsl4RepositorySupport {
         return getQueryFactory().selectFrom(from);
     }
 
+    /**
+     * 스프링 데이터 Sort 를 쿼리에 적용
+     *
+     * 기본은 Querydsl.applySorting 으로 PathBuilder 를 사용해서 엔티티의 모든 프로퍼티로 정렬 가능
+     * 정렬 가능한 프로퍼티를 제한하려면 재정의
+     *
+     * @param sort
+     * @param query
+     * @param <T>
+     * @return
+     */
+    protected <T> JPAQuery<T> applySorting(Sort sort, JPAQuery<T> query) {
+
+        getQuerydsl().applySorting(sort, query);
+
+        return query;
+    }
+
+    /**
+     * 정렬, offset, limit 적용
+     *
+     * @param pageable
+     * @param query
+     * @param <T>
+     * @return
+     */
+    protected <T> JPAQuery<T> applyPaging(Pageable pageable, JPAQuery<T> query) {
+
+        applySorting(pageable.getSort(), query);
+
+        if (pageable.isPaged()) {
+
+            query.offset(pageable.getOffset())
+                    .limit(pageable.getPageSize());
+        }
+
+        return query;
+    }
+
     protected <T> Page<T> applyPagination(Pageable pageable, Function<JPAQueryFactory, JPAQuery> contentQuery) {
 
         JPAQuery jpaQuery = contentQuery.apply(getQueryFactory());
 
-        List<T> content = getQuerydsl().applyPagination(pageable, jpaQuery).fetch();
+        List<T> content = applyPaging(pageable, jpaQuery).fetch();
 
         return PageableExecutionUtils.getPage(content, pageable, jpaQuery::fetchCount);
     }
@@ -113,10 +163,40 @@ public class Querydsl4RepositorySupport {
 
         JPAQuery jpaContentQuery = contentQuery.apply(getQueryFactory());
 
-        List<T> content = getQuerydsl().applyPagination(pageable, jpaContentQuery).fetch();
+        List<T> content = applyPaging(pageable, jpaContentQuery).fetch();
 
         JPAQuery countResult = countQuery.apply(getQueryFactory());
 
         return PageableExecutionUtils.getPage(content, pageable, countResult::fetchCount);
     }
+
+    /**
+     * 카운트 쿼리 없이 Slice 로 조회
+     *
+     * 페이지 크기 + 1 개를 조회해서 다음 페이지 존재 여부를 판단
+     *
+     * @param pageable
+     * @param contentQuery
+     * @param <T>
+     * @return
+     */
+    protected <T> Slice<T> applySlicing(Pageable pageable, Function<JPAQueryFactory, JPAQuery> contentQuery) {
+
+        JPAQuery jpaQuery = contentQuery.apply(getQueryFactory());
+
+        applySorting(pageable.getSort(), jpaQuery)
+                .offset(pageable.getOffset())
+                .limit(pageable.getPageSize() + 1);
+
+        List<T> content = jpaQuery.fetch();
+
+        boolean hasNext = content.size() > pageable.getPageSize();
+
+        if (hasNext) {
+
+            content.remove(pageable.getPageSize());
+        }
+
+        return new SliceImpl<>(content, pageable, hasNext);
+    }
 }
@@ -0,0 +1,48 @@
+package hello.querydsl.sql;
+
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 데이터 버전 (쓰기가 커밋될 때마다 증가하는 번호)
+ *
+ * 조회 결과가 바뀌었을 수 있는지를 쿼리 없이 판단하기 위해 사용 (ETag)
+ * DataVersionListener 가 JDBC 수준에서 insert, update, delete 를 감지하므로
+ * 엔티티 변경, Querydsl 벌크 execute(), JdbcTemplate 모두 반영된다.
+ *
+ * 버전은 JVM 안에서만 유효하다. 재시작하면 epoch 가 바뀌고, 여러 인스턴스가 같은 DB 를 쓰면 다른 인스턴스의 쓰기는 알 수 없다.
+ */
+@Component
+public class DataVersion {
+
+    private final String epoch = Long.toHexString(ThreadLocalRandom.current().nextLong());
+    private final AtomicLong version = new AtomicLong();
+
+    /**
+     * 조회 쿼리를 실행하기 전에 읽어야 한다. (조회 후에 읽으면 조회와 커밋 사이의 변경을 놓칠 수 있다.)
+     *
+     * @return 현재 버전
+     */
+    public long current() {
+
+        return version.get();
+    }
+
+    /**
+     * 쓰기 커밋 후 호출
+     */
+    public void increment() {
+
+        version.incrementAndGet();
+    }
+
+    /**
+     * @return 재시작 전 버전과 구분하기 위한 값
+     */
+    public String getEpoch() {
+
+        return epoch;
+    }
+}
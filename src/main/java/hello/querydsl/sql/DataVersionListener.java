@@ -0,0 +1,141 @@
+package hello.querydsl.sql;
+
+import com.p6spy.engine.common.ConnectionInformation;
+import com.p6spy.engine.common.StatementInformation;
+import com.p6spy.engine.event.SimpleJdbcEventListener;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+
+import java.sql.SQLException;
+import java.util.Locale;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 쓰기 SQL 이 커밋되면 DataVersion 증가
+ *
+ * 트랜잭션 안의 쓰기는 커넥션에 표시해 두고 커밋 후에 증가시킨다.
+ * 커밋 전에 증가시키면 그 사이에 조회한 이전 데이터가 새 버전으로 기록될 수 있다.
+ * 자동 커밋 커넥션은 실행 직후 증가, 롤백하면 증가시키지 않는다.
+ */
+@Component
+@RequiredArgsConstructor
+public class DataVersionListener extends SimpleJdbcEventListener {
+
+    private final DataVersion dataVersion;
+
+    /**
+     * 커밋되지 않은 쓰기가 있는 커넥션
+     */
+    private final Set<Integer> pending = ConcurrentHashMap.newKeySet();
+
+    @Override
+    public void onAfterAnyExecute(StatementInformation statementInformation, long timeElapsedNanos, SQLException e) {
+
+        if (e != null || !isWrite(statementInformation.getSql())) {
+
+            return;
+        }
+
+        ConnectionInformation connection = statementInformation.getConnectionInformation();
+
+        if (autoCommit(connection)) {
+
+            dataVersion.increment();
+        } else {
+
+            pending.add(connection.getConnectionId());
+        }
+    }
+
+    @Override
+    public void onAfterCommit(ConnectionInformation connectionInformation, long timeElapsedNanos, SQLException e) {
+
+        if (pending.remove(connectionInformation.getConnectionId())) {
+
+            dataVersion.increment();
+        }
+    }
+
+    @Override
+    public void onAfterRollback(ConnectionInformation connectionInformation, long timeElapsedNanos, SQLException e) {
+
+        pending.remove(connectionInformation.getConnectionId());
+    }
+
+    /**
+     * 커밋이나 롤백 없이 닫힌 커넥션은 커넥션 풀이 롤백한다.
+     */
+    @Override
+    public void onAfterConnectionClose(ConnectionInformation connectionInformation, SQLException e) {
+
+        pending.remove(connectionInformation.getConnectionId());
+    }
+
+    private static boolean autoCommit(ConnectionInformation connection) {
+
+        try {
+
+            return connection.getConnection().getAutoCommit();
+        } catch (SQLException e) {
+
+            // 알 수 없으면 바로 증가 (버전은 자주 바뀌어도 결과가 틀리지 않는다.)
+            return true;
+        }
+    }
+
+    /**
+     * @param sql 하이버네이트 주석(/* ... *&#47;)이 앞에 붙을 수 있다.
+     * @return insert, update, delete, merge, truncate 여부
+     */
+    static boolean isWrite(String sql) {
+
+        if (sql == null) {
+
+            return false;
+        }
+
+        int start = 0;
+
+        while (true) {
+
+            while (start < sql.length() && Character.isWhitespace(sql.charAt(start))) {
+
+                start++;
+            }
+
+            if (!sql.startsWith("/*", start)) {
+
+                break;
+            }
+
+            int end = sql.indexOf("*/", start + 2);
+
+            if (end < 0) {
+
+                return false;
+            }
+
+            start = end + 2;
+        }
+
+        int end = start;
+
+        while (end < sql.length() && Character.isLetter(sql.charAt(end))) {
+
+            end++;
+        }
+
+        switch (sql.substring(start, end).toLowerCase(Locale.ROOT)) {
+
+            case "insert":
+            case "update":
+            case "delete":
+            case "merge":
+            case "truncate":
+                return true;
+            default:
+                return false;
+        }
+    }
+}
@@ -0,0 +1,18 @@
+package hello.querydsl.sql;
+
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+
+/**
+ * 느린 쿼리 한 건과 실행 계획
+ */
+@Getter
+@RequiredArgsConstructor
+public class SlowQuery {
+
+    private final long timestamp;
+    private final long elapsedMillis;
+    private final String sql;           // 파라미터 바인딩 전 SQL
+    private final String sqlWithValues; // 바인딩된 파라미터 값을 채운 SQL
+    private final String plan;          // EXPLAIN 결과
+}
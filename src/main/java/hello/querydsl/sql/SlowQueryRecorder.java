@@ -0,0 +1,171 @@
+package hello.querydsl.sql;
+
+import com.p6spy.engine.common.StatementInformation;
+import com.p6spy.engine.event.SimpleJdbcEventListener;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PreDestroy;
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.StringJoiner;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 느린 쿼리 기록
+ *
+ * 임계 시간을 넘긴 SQL 의 실행 계획을 별도 스레드에서 EXPLAIN 으로 조회하고
+ * 가장 느린 topN 개만 메모리에 보관한다. 같은 SQL 은 가장 느렸던 한 건만 남긴다.
+ *
+ * DataSource 는 p6spy 가 리스너를 모아 DataSource 를 감싸는 과정과 순환하지 않도록 지연 조회
+ */
+@Slf4j
+@Component
+public class SlowQueryRecorder extends SimpleJdbcEventListener {
+
+    private final SlowQuerySettings settings;
+    private final ObjectProvider<DataSource> dataSource;
+
+    private final ThreadPoolExecutor explainExecutor = new ThreadPoolExecutor(
+            1, 1, 0, TimeUnit.MILLISECONDS,
+            new ArrayBlockingQueue<>(100),
+            runnable -> {
+                Thread thread = new Thread(runnable, "slow-query-explain");
+                thread.setDaemon(true);
+                return thread;
+            },
+            new ThreadPoolExecutor.DiscardPolicy()
+    );
+
+    private final Map<String, SlowQuery> queries = new LinkedHashMap<>();
+
+    public SlowQueryRecorder(SlowQuerySettings settings, ObjectProvider<DataSource> dataSource) {
+
+        this.settings = settings;
+        this.dataSource = dataSource;
+    }
+
+    @Override
+    public void onAfterAnyExecute(StatementInformation statementInformation, long timeElapsedNanos, SQLException e) {
+
+        long elapsedMillis = TimeUnit.NANOSECONDS.toMillis(timeElapsedNanos);
+
+        if (elapsedMillis < settings.getThresholdMillis() || e != null) {
+
+            return;
+        }
+
+        String sql = statementInformation.getSql();
+
+        // EXPLAIN 자체가 느린 경우 다시 기록하지 않도록 제외
+        if (sql == null || isExplain(sql)) {
+
+            return;
+        }
+
+        String sqlWithValues = SqlFormatter.withValues(statementInformation);
+        long timestamp = System.currentTimeMillis();
+
+        explainExecutor.execute(() -> record(new SlowQuery(timestamp, elapsedMillis, sql, sqlWithValues, explain(sqlWithValues))));
+    }
+
+    /**
+     * @return 느린 순서로 정렬된 쿼리 목록
+     */
+    public synchronized List<SlowQuery> getQueries() {
+
+        List<SlowQuery> result = new ArrayList<>(queries.values());
+
+        result.sort(Comparator.comparingLong(SlowQuery::getElapsedMillis).reversed());
+
+        return result;
+    }
+
+    public synchronized void clear() {
+
+        queries.clear();
+    }
+
+    @PreDestroy
+    public void shutdown() {
+
+        explainExecutor.shutdownNow();
+    }
+
+    synchronized void record(SlowQuery query) {
+
+        SlowQuery existing = queries.get(query.getSql());
+
+        if (existing != null && existing.getElapsedMillis() >= query.getElapsedMillis()) {
+
+            return;
+        }
+
+        queries.put(query.getSql(), query);
+
+        if (queries.size() > settings.getTopN()) {
+
+            queries.values().stream()
+                    .min(Comparator.comparingLong(SlowQuery::getElapsedMillis))
+                    .ifPresent(fastest -> queries.remove(fastest.getSql()));
+        }
+    }
+
+    private String explain(String sqlWithValues) {
+
+        if (!isDml(sqlWithValues)) {
+
+            return null;
+        }
+
+        String explain = settings.isAnalyze() && isSelect(sqlWithValues) ? "EXPLAIN ANALYZE " : "EXPLAIN ";
+
+        try (Connection connection = dataSource.getObject().getConnection();
+             Statement statement = connection.createStatement();
+             ResultSet rs = statement.executeQuery(explain + sqlWithValues)) {
+
+            StringJoiner plan = new StringJoiner("\n");
+
+            while (rs.next()) {
+
+                plan.add(rs.getString(1));
+            }
+
+            return plan.toString();
+        } catch (SQLException e) {
+
+            log.debug("EXPLAIN 실패: {}", sqlWithValues, e);
+
+            return "EXPLAIN 실패: " + e.getMessage();
+        }
+    }
+
+    private static boolean isExplain(String sql) {
+
+        return SqlFormatter.startsWith(sql, "explain");
+    }
+
+    private static boolean isSelect(String sql) {
+
+        return SqlFormatter.startsWith(sql, "select");
+    }
+
+    private static boolean isDml(String sql) {
+
+        return isSelect(sql)
+                || SqlFormatter.startsWith(sql, "insert")
+                || SqlFormatter.startsWith(sql, "update")
+                || SqlFormatter.startsWith(sql, "delete");
+    }
+}
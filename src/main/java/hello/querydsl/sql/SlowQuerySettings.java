@@ -0,0 +1,25 @@
+package hello.querydsl.sql;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+/**
+ * 느린 쿼리 기록 설정
+ */
+@Component
+@ConfigurationProperties(prefix = "slow-query")
+@Getter @Setter
+public class SlowQuerySettings {
+
+    private volatile long thresholdMillis = 200;
+    private int topN = 20;
+
+    /**
+     * EXPLAIN ANALYZE 사용 여부
+     *
+     * ANALYZE 는 쿼리를 한번 더 실행하므로 SELECT 에만 사용
+     */
+    private boolean analyze = false;
+}
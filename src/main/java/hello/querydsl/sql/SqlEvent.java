@@ -0,0 +1,18 @@
+package hello.querydsl.sql;
+
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+
+/**
+ * 실행된 SQL 한 건
+ */
+@Getter
+@RequiredArgsConstructor
+public class SqlEvent {
+
+    private final long timestamp;
+    private final long elapsedNanos;
+    private final int connectionId;
+    private final String sql;
+    private final String error;
+}
@@ -0,0 +1,95 @@
+package hello.querydsl.sql;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.function.Consumer;
+
+/**
+ * 락 없는 고정 크기 링 버퍼 (다중 생산자, 단일 소비자)
+ *
+ * 생산자는 CAS 로 슬롯을 확보하고, 버퍼가 가득 차면 기다리지 않고 이벤트를 버린다.
+ * 소비자는 SqlLogWriter 스레드 하나뿐이다.
+ */
+public class SqlEventRingBuffer {
+
+    private final AtomicReferenceArray<SqlEvent> slots;
+    private final int mask;
+
+    private final AtomicLong head = new AtomicLong();
+    private final AtomicLong tail = new AtomicLong();
+    private final AtomicLong dropped = new AtomicLong();
+
+    /**
+     * @param capacity 2의 거듭제곱으로 올림
+     */
+    public SqlEventRingBuffer(int capacity) {
+
+        int size = Integer.highestOneBit(Math.max(capacity - 1, 1)) << 1;
+
+        this.slots = new AtomicReferenceArray<>(size);
+        this.mask = size - 1;
+    }
+
+    /**
+     * @param event
+     * @return 버퍼가 가득 차서 버렸으면 false
+     */
+    public boolean offer(SqlEvent event) {
+
+        long index;
+
+        do {
+
+            index = head.get();
+
+            if (index - tail.get() >= slots.length()) {
+
+                dropped.incrementAndGet();
+
+                return false;
+            }
+        } while (!head.compareAndSet(index, index + 1));
+
+        slots.lazySet((int) index & mask, event);
+
+        return true;
+    }
+
+    /**
+     * 소비자 스레드에서만 호출
+     *
+     * @param consumer
+     * @param limit 최대 처리 건수
+     * @return 처리한 건수
+     */
+    public int drain(Consumer<SqlEvent> consumer, int limit) {
+
+        int count = 0;
+        long index = tail.get();
+
+        while (count < limit) {
+
+            int slot = (int) index & mask;
+            SqlEvent event = slots.get(slot);
+
+            // 슬롯을 확보했지만 아직 기록하지 않은 생산자가 있으면 다음 drain 에서 처리
+            if (event == null) {
+
+                break;
+            }
+
+            slots.lazySet(slot, null);
+            tail.lazySet(++index);
+
+            consumer.accept(event);
+            count++;
+        }
+
+        return count;
+    }
+
+    public long getDropped() {
+
+        return dropped.get();
+    }
+}
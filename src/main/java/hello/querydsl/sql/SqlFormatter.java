@@ -0,0 +1,130 @@
+package hello.querydsl.sql;
+
+import com.p6spy.engine.common.PreparedStatementInformation;
+import com.p6spy.engine.common.StatementInformation;
+import com.p6spy.engine.common.Value;
+
+import java.lang.reflect.Method;
+import java.util.Collections;
+import java.util.Map;
+
+/**
+ * 바인딩된 파라미터 값을 채운 SQL 생성
+ *
+ * use_sql_comments 로 SQL 앞에 JPQL 주석이 붙으면
+ * p6spy 의 getSqlWithValues() 가 주석 안의 ? 에도 값을 채워서 이후 값이 한 칸씩 밀린다.
+ * 주석을 제거한 SQL 에 직접 값을 채운다.
+ */
+final class SqlFormatter {
+
+    private static final Method PARAMETER_VALUES = parameterValuesMethod();
+
+    private SqlFormatter() {
+    }
+
+    static String withValues(StatementInformation statementInformation) {
+
+        String sql = statementInformation.getSql();
+
+        if (sql == null) {
+
+            return null;
+        }
+
+        String body = stripComment(sql);
+
+        if (body.length() == sql.trim().length()) {
+
+            return statementInformation.getSqlWithValues();
+        }
+
+        if (!(statementInformation instanceof PreparedStatementInformation)) {
+
+            return body;
+        }
+
+        Map<Integer, Value> values = parameterValues((PreparedStatementInformation) statementInformation);
+
+        StringBuilder result = new StringBuilder(body.length() + values.size() * 8);
+        boolean inLiteral = false;
+        int index = 0;
+
+        for (int i = 0; i < body.length(); i++) {
+
+            char c = body.charAt(i);
+
+            if (c == '\'') {
+
+                inLiteral = !inLiteral;
+            }
+
+            if (c == '?' && !inLiteral) {
+
+                Value value = values.get(index++);
+
+                result.append(value == null ? "?" : value.toString());
+            } else {
+
+                result.append(c);
+            }
+        }
+
+        return result.toString();
+    }
+
+    /**
+     * SQL 앞에 붙은 주석 제거
+     */
+    static String stripComment(String sql) {
+
+        String trimmed = sql.trim();
+
+        if (trimmed.startsWith("/*")) {
+
+            int end = trimmed.indexOf("*/");
+
+            return end < 0 ? trimmed : trimmed.substring(end + 2).trim();
+        }
+
+        return trimmed;
+    }
+
+    static boolean startsWith(String sql, String keyword) {
+
+        return stripComment(sql).regionMatches(true, 0, keyword, 0, keyword.length());
+    }
+
+    @SuppressWarnings("unchecked")
+    private static Map<Integer, Value> parameterValues(PreparedStatementInformation statementInformation) {
+
+        if (PARAMETER_VALUES == null) {
+
+            return Collections.emptyMap();
+        }
+
+        try {
+
+            return (Map<Integer, Value>) PARAMETER_VALUES.invoke(statementInformation);
+        } catch (ReflectiveOperationException e) {
+
+            return Collections.emptyMap();
+        }
+    }
+
+    /**
+     * getParameterValues() 는 protected 라서 리플렉션으로 접근
+     */
+    private static Method parameterValuesMethod() {
+
+        try {
+
+            Method method = PreparedStatementInformation.class.getDeclaredMethod("getParameterValues");
+            method.setAccessible(true);
+
+            return method;
+        } catch (ReflectiveOperationException | RuntimeException e) {
+
+            return null;
+        }
+    }
+}
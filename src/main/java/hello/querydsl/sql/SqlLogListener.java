@@ -0,0 +1,39 @@
+package hello.querydsl.sql;
+
+import com.p6spy.engine.common.StatementInformation;
+import com.p6spy.engine.event.SimpleJdbcEventListener;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+
+import java.sql.SQLException;
+
+/**
+ * p6spy 로 수집한 SQL 실행 이벤트 중 기록 대상만 SqlLogWriter 로 전달
+ *
+ * 바인딩 값이 포함된 SQL 문자열은 기록 대상일 때만 만든다.
+ * p6spy 의 getSqlWithValues 는 JPQL 주석(use_sql_comments)의 ? 에도 값을 넣어서 값이 한 칸씩 밀리므로 SqlFormatter 사용
+ */
+@Component
+@RequiredArgsConstructor
+public class SqlLogListener extends SimpleJdbcEventListener {
+
+    private final SqlLogSettings settings;
+    private final SqlLogWriter writer;
+
+    @Override
+    public void onAfterAnyExecute(StatementInformation statementInformation, long timeElapsedNanos, SQLException e) {
+
+        if (!settings.shouldLog(timeElapsedNanos, e != null)) {
+
+            return;
+        }
+
+        writer.offer(new SqlEvent(
+                System.currentTimeMillis(),
+                timeElapsedNanos,
+                statementInformation.getConnectionInformation().getConnectionId(),
+                SqlFormatter.withValues(statementInformation),
+                e == null ? null : e.getMessage()
+        ));
+    }
+}
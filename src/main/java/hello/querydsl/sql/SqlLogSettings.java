@@ -0,0 +1,57 @@
+package hello.querydsl.sql;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * SQL 로그 설정
+ *
+ * mode, sampleRate, slowThresholdMillis 는 /sql-log 로 실행 중에 변경 가능
+ */
+@Component
+@ConfigurationProperties(prefix = "sql-log")
+@Getter @Setter
+public class SqlLogSettings {
+
+    public enum Mode {
+
+        OFF,        // 기록하지 않음
+        SAMPLED,    // 느린 SQL, 오류, sampleRate 비율만큼 기록
+        FULL        // 모든 SQL 기록
+    }
+
+    private volatile Mode mode = Mode.SAMPLED;
+    private volatile double sampleRate = 0.01;
+    private volatile long slowThresholdMillis = 100;
+
+    private int bufferSize = 8192;
+
+    /**
+     * SQL 실행마다 호출되므로 가볍게 판단
+     *
+     * @param elapsedNanos
+     * @param error
+     * @return
+     */
+    public boolean shouldLog(long elapsedNanos, boolean error) {
+
+        switch (mode) {
+
+            case FULL:
+                return true;
+
+            case SAMPLED:
+                return error
+                        || elapsedNanos >= TimeUnit.MILLISECONDS.toNanos(slowThresholdMillis)
+                        || (sampleRate > 0 && ThreadLocalRandom.current().nextDouble() < sampleRate);
+
+            default:
+                return false;
+        }
+    }
+}
@@ -0,0 +1,98 @@
+package hello.querydsl.sql;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * 링 버퍼에 쌓인 SQL 이벤트를 별도 스레드에서 로그로 남긴다.
+ *
+ * 요청 스레드는 버퍼에 넣기만 하고 로그 포맷팅, 출력 비용은 지불하지 않는다.
+ */
+@Slf4j
+@Component
+public class SqlLogWriter {
+
+    private static final int BATCH_SIZE = 256;
+    private static final long IDLE_PARK_NANOS = TimeUnit.MILLISECONDS.toNanos(10);
+
+    private final SqlEventRingBuffer buffer;
+    private final AtomicLong written = new AtomicLong();
+
+    private volatile boolean running;
+    private Thread thread;
+
+    public SqlLogWriter(SqlLogSettings settings) {
+
+        this.buffer = new SqlEventRingBuffer(settings.getBufferSize());
+    }
+
+    @PostConstruct
+    public void start() {
+
+        running = true;
+
+        thread = new Thread(this::run, "sql-log-writer");
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    @PreDestroy
+    public void stop() throws InterruptedException {
+
+        running = false;
+
+        LockSupport.unpark(thread);
+        thread.join(TimeUnit.SECONDS.toMillis(1));
+    }
+
+    public boolean offer(SqlEvent event) {
+
+        return buffer.offer(event);
+    }
+
+    public long getWritten() {
+
+        return written.get();
+    }
+
+    public long getDropped() {
+
+        return buffer.getDropped();
+    }
+
+    private void run() {
+
+        while (running) {
+
+            if (buffer.drain(this::write, BATCH_SIZE) == 0) {
+
+                LockSupport.parkNanos(IDLE_PARK_NANOS);
+            }
+        }
+
+        // 종료 전에 남은 이벤트 기록
+        while (buffer.drain(this::write, BATCH_SIZE) > 0) {
+        }
+    }
+
+    private void write(SqlEvent event) {
+
+        long elapsedMicros = TimeUnit.NANOSECONDS.toMicros(event.getElapsedNanos());
+
+        if (event.getError() == null) {
+
+            log.info("{} us | connection {} | {}", elapsedMicros, event.getConnectionId(), event.getSql());
+        } else {
+
+            log.warn("{} us | connection {} | {} | error: {}", elapsedMicros, event.getConnectionId(), event.getSql(), event.getError());
+        }
+
+        written.incrementAndGet();
+    }
+}
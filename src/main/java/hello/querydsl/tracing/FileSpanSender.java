@@ -0,0 +1,86 @@
+package hello.querydsl.tracing;
+
+import zipkin2.Call;
+import zipkin2.codec.Encoding;
+import zipkin2.reporter.Sender;
+
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+
+/**
+ * Zipkin v2 JSON 으로 인코딩된 스팬을 파일에 한 줄씩 기록
+ *
+ * BatchSpanProcessor 의 백그라운드 스레드에서 호출된다.
+ */
+public class FileSpanSender extends Sender {
+
+    private static final int MESSAGE_MAX_BYTES = 5 * 1024 * 1024;
+
+    private final OutputStream out;
+
+    public FileSpanSender(Path file) {
+
+        try {
+
+            if (file.getParent() != null) {
+
+                Files.createDirectories(file.getParent());
+            }
+
+            this.out = new BufferedOutputStream(Files.newOutputStream(file, StandardOpenOption.CREATE, StandardOpenOption.APPEND));
+        } catch (IOException e) {
+
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    @Override
+    public Encoding encoding() {
+
+        return Encoding.JSON;
+    }
+
+    @Override
+    public int messageMaxBytes() {
+
+        return MESSAGE_MAX_BYTES;
+    }
+
+    @Override
+    public int messageSizeInBytes(List<byte[]> encodedSpans) {
+
+        return Encoding.JSON.listSizeInBytes(encodedSpans);
+    }
+
+    @Override
+    public synchronized Call<Void> sendSpans(List<byte[]> encodedSpans) {
+
+        try {
+
+            for (byte[] span : encodedSpans) {
+
+                out.write(span);
+                out.write('\n');
+            }
+
+            out.flush();
+        } catch (IOException e) {
+
+            throw new UncheckedIOException(e);
+        }
+
+        return Call.create(null);
+    }
+
+    @Override
+    public synchronized void close() throws IOException {
+
+        out.close();
+    }
+}
@@ -0,0 +1,49 @@
+package hello.querydsl.tracing;
+
+import com.p6spy.engine.common.StatementInformation;
+import com.p6spy.engine.event.SimpleJdbcEventListener;
+import io.opentelemetry.api.trace.Span;
+import io.opentelemetry.api.trace.StatusCode;
+import io.opentelemetry.api.trace.Tracer;
+
+import java.sql.SQLException;
+
+/**
+ * TracingJPAQuery 의 fetch 안에서 실행된 SQL 을 jdbc.execute 스팬으로 기록
+ */
+public class JdbcTracingListener extends SimpleJdbcEventListener {
+
+    private final Tracer tracer;
+
+    public JdbcTracingListener(Tracer tracer) {
+
+        this.tracer = tracer;
+    }
+
+    @Override
+    public void onAfterAnyExecute(StatementInformation statementInformation, long timeElapsedNanos, SQLException e) {
+
+        QueryPhases phases = QueryPhases.current();
+
+        if (phases == null) {
+
+            return;
+        }
+
+        long end = Spans.now();
+
+        phases.jdbcNanos += timeElapsedNanos;
+        phases.lastJdbcEnd = end;
+
+        Span span = Spans.start(tracer, "jdbc.execute", end - timeElapsedNanos);
+        span.setAttribute("db.statement", statementInformation.getSql());
+
+        if (e != null) {
+
+            span.recordException(e);
+            span.setStatus(StatusCode.ERROR);
+        }
+
+        Spans.end(span, end);
+    }
+}
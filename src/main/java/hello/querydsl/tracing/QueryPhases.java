@@ -0,0 +1,36 @@
+package hello.querydsl.tracing;
+
+/**
+ * 쿼리 한 번을 실행하는 동안 단계별 소요 시간 누적
+ *
+ * TracingJPAQuery 가 fetch 시작 시 현재 스레드에 등록하고,
+ * TracingEntityManager(JPQL -> SQL 변환), JdbcTracingListener(JDBC 실행)가 값을 더한다.
+ */
+class QueryPhases {
+
+    private static final ThreadLocal<QueryPhases> CURRENT = new ThreadLocal<>();
+
+    long serializeNanos;
+    long translateNanos;
+    long jdbcNanos;
+    long lastJdbcEnd;
+
+    static QueryPhases current() {
+
+        return CURRENT.get();
+    }
+
+    static QueryPhases begin() {
+
+        QueryPhases phases = new QueryPhases();
+
+        CURRENT.set(phases);
+
+        return phases;
+    }
+
+    static void end() {
+
+        CURRENT.remove();
+    }
+}
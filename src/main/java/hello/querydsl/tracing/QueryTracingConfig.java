@@ -0,0 +1,98 @@
+package hello.querydsl.tracing;
+
+import com.querydsl.jpa.impl.JPAQueryFactory;
+import io.opentelemetry.api.common.AttributeKey;
+import io.opentelemetry.api.common.Attributes;
+import io.opentelemetry.api.trace.Tracer;
+import io.opentelemetry.exporter.zipkin.ZipkinSpanExporter;
+import io.opentelemetry.sdk.resources.Resource;
+import io.opentelemetry.sdk.trace.SdkTracerProvider;
+import io.opentelemetry.sdk.trace.SdkTracerProviderBuilder;
+import io.opentelemetry.sdk.trace.export.BatchSpanProcessor;
+import io.opentelemetry.sdk.trace.export.SpanExporter;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.util.StringUtils;
+
+import javax.persistence.EntityManager;
+import java.nio.file.Paths;
+
+/**
+ * 쿼리 단계별 트레이싱 설정
+ *
+ * query-tracing.enabled=true 일 때만 TracingJPAQueryFactory 와 트레이싱 관련 빈을 등록한다.
+ * 스팬은 Zipkin v2 형식으로 파일(query-tracing.file), 수집기(query-tracing.zipkin-endpoint),
+ * 스프링 빈으로 등록된 SpanExporter 로 내보낸다.
+ */
+@Configuration
+@EnableConfigurationProperties(QueryTracingProperties.class)
+public class QueryTracingConfig {
+
+    /**
+     * JPAQueryFactory 스프링 빈 등록
+     *
+     * 트레이싱을 사용하지 않으면 기본 JPAQueryFactory
+     */
+    @Bean
+    public JPAQueryFactory jpaQueryFactory(EntityManager em, QueryTracingProperties properties, ObjectProvider<Tracer> tracer) {
+
+        return properties.isEnabled() ? new TracingJPAQueryFactory(em, tracer.getObject()) : new JPAQueryFactory(em);
+    }
+
+    @Bean(destroyMethod = "close")
+    @ConditionalOnProperty(prefix = "query-tracing", name = "enabled", havingValue = "true")
+    public SdkTracerProvider sdkTracerProvider(QueryTracingProperties properties, ObjectProvider<SpanExporter> exporters) {
+
+        Resource resource = Resource.getDefault()
+                                .merge(Resource.create(Attributes.of(AttributeKey.stringKey("service.name"), properties.getServiceName())));
+
+        SdkTracerProviderBuilder builder = SdkTracerProvider.builder().setResource(resource);
+
+        if (StringUtils.hasText(properties.getFile())) {
+
+            builder.addSpanProcessor(BatchSpanProcessor.builder(
+                    ZipkinSpanExporter.builder()
+                            .setSender(new FileSpanSender(Paths.get(properties.getFile())))
+                            .build()
+            ).build());
+        }
+
+        if (StringUtils.hasText(properties.getZipkinEndpoint())) {
+
+            builder.addSpanProcessor(BatchSpanProcessor.builder(
+                    ZipkinSpanExporter.builder()
+                            .setEndpoint(properties.getZipkinEndpoint())
+                            .build()
+            ).build());
+        }
+
+        exporters.forEach(exporter -> builder.addSpanProcessor(BatchSpanProcessor.builder(exporter).build()));
+
+        return builder.build();
+    }
+
+    @Bean
+    @ConditionalOnProperty(prefix = "query-tracing", name = "enabled", havingValue = "true")
+    public Tracer queryTracer(SdkTracerProvider sdkTracerProvider) {
+
+        return sdkTracerProvider.get("hello.querydsl");
+    }
+
+    @Bean
+    @ConditionalOnProperty(prefix = "query-tracing", name = "enabled", havingValue = "true")
+    public JdbcTracingListener jdbcTracingListener(Tracer queryTracer) {
+
+        return new JdbcTracingListener(queryTracer);
+    }
+
+    @Bean
+    @ConditionalOnProperty(prefix = "query-tracing", name = "enabled", havingValue = "true")
+    public FilterRegistrationBean<TracingFilter> tracingFilter(Tracer queryTracer) {
+
+        return new FilterRegistrationBean<>(new TracingFilter(queryTracer));
+    }
+}
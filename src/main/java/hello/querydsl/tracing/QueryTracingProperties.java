@@ -0,0 +1,26 @@
+package hello.querydsl.tracing;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * 쿼리 단계별 트레이싱 설정
+ */
+@ConfigurationProperties(prefix = "query-tracing")
+@Getter @Setter
+public class QueryTracingProperties {
+
+    private boolean enabled = false;
+    private String serviceName = "querydsl";
+
+    /**
+     * Zipkin v2 JSON 형식으로 스팬을 한 줄씩 기록할 파일
+     */
+    private String file;
+
+    /**
+     * 스팬을 전송할 Zipkin 호환 수집기 주소 (예: http://localhost:9411/api/v2/spans)
+     */
+    private String zipkinEndpoint;
+}
@@ -0,0 +1,45 @@
+package hello.querydsl.tracing;
+
+import io.opentelemetry.api.trace.Span;
+import io.opentelemetry.api.trace.Tracer;
+import io.opentelemetry.sdk.common.Clock;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 시작, 종료 시각을 직접 지정하는 스팬 생성
+ *
+ * 단계 시간은 측정이 끝난 뒤에 알 수 있으므로 스팬을 사후에 만든다.
+ */
+final class Spans {
+
+    private static final Clock CLOCK = Clock.getDefault();
+
+    private Spans() {
+    }
+
+    /**
+     * @return epoch 기준 나노초
+     */
+    static long now() {
+
+        return CLOCK.now();
+    }
+
+    static Span start(Tracer tracer, String name, long startEpochNanos) {
+
+        return tracer.spanBuilder(name)
+                        .setStartTimestamp(startEpochNanos, TimeUnit.NANOSECONDS)
+                        .startSpan();
+    }
+
+    static void end(Span span, long endEpochNanos) {
+
+        span.end(endEpochNanos, TimeUnit.NANOSECONDS);
+    }
+
+    static void record(Tracer tracer, String name, long startEpochNanos, long endEpochNanos) {
+
+        end(start(tracer, name, startEpochNanos), endEpochNanos);
+    }
+}
@@ -0,0 +1,80 @@
+package hello.querydsl.tracing;
+
+import io.opentelemetry.api.trace.Span;
+import io.opentelemetry.api.trace.Tracer;
+
+import javax.persistence.EntityManager;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+
+/**
+ * createQuery(String) 에서 하이버네이트가 JPQL 을 SQL 로 변환하는 시간을 기록하는 EntityManager
+ *
+ * 변환 결과는 하이버네이트 쿼리 플랜 캐시에 저장되므로 같은 JPQL 은 두번째부터 짧게 기록된다.
+ */
+final class TracingEntityManager implements InvocationHandler {
+
+    private final EntityManager delegate;
+    private final Tracer tracer;
+
+    private TracingEntityManager(EntityManager delegate, Tracer tracer) {
+
+        this.delegate = delegate;
+        this.tracer = tracer;
+    }
+
+    static EntityManager wrap(EntityManager delegate, Tracer tracer) {
+
+        return (EntityManager) Proxy.newProxyInstance(
+                TracingEntityManager.class.getClassLoader(),
+                new Class<?>[]{EntityManager.class},
+                new TracingEntityManager(delegate, tracer)
+        );
+    }
+
+    @Override
+    public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+
+        QueryPhases phases = QueryPhases.current();
+
+        if (phases == null || !isCreateQuery(method, args)) {
+
+            return invokeDelegate(method, args);
+        }
+
+        long start = Spans.now();
+
+        try {
+
+            return invokeDelegate(method, args);
+        } finally {
+
+            long end = Spans.now();
+
+            phases.translateNanos += end - start;
+
+            Span span = Spans.start(tracer, "hibernate.translate", start);
+            span.setAttribute("jpql", (String) args[0]);
+
+            Spans.end(span, end);
+        }
+    }
+
+    private Object invokeDelegate(Method method, Object[] args) throws Throwable {
+
+        try {
+
+            return method.invoke(delegate, args);
+        } catch (InvocationTargetException e) {
+
+            throw e.getTargetException();
+        }
+    }
+
+    private static boolean isCreateQuery(Method method, Object[] args) {
+
+        return method.getName().equals("createQuery") && args != null && args.length > 0 && args[0] instanceof String;
+    }
+}
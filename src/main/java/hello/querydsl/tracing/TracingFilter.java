@@ -0,0 +1,53 @@
+package hello.querydsl.tracing;
+
+import io.opentelemetry.api.trace.Span;
+import io.opentelemetry.api.trace.SpanKind;
+import io.opentelemetry.api.trace.StatusCode;
+import io.opentelemetry.api.trace.Tracer;
+import io.opentelemetry.context.Scope;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import javax.servlet.FilterChain;
+import javax.servlet.ServletException;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
+
+/**
+ * 요청 하나를 루트 스팬으로 기록해서 요청 안의 쿼리 스팬을 하나의 트레이스로 묶는다.
+ */
+public class TracingFilter extends OncePerRequestFilter {
+
+    private final Tracer tracer;
+
+    public TracingFilter(Tracer tracer) {
+
+        this.tracer = tracer;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain) throws ServletException, IOException {
+
+        Span span = tracer.spanBuilder(request.getMethod() + " " + request.getRequestURI())
+                            .setSpanKind(SpanKind.SERVER)
+                            .setAttribute("http.method", request.getMethod())
+                            .setAttribute("http.target", request.getRequestURI())
+                            .startSpan();
+
+        try (Scope ignored = span.makeCurrent()) {
+
+            filterChain.doFilter(request, response);
+
+            span.setAttribute("http.status_code", response.getStatus());
+        } catch (IOException | ServletException | RuntimeException e) {
+
+            span.recordException(e);
+            span.setStatus(StatusCode.ERROR);
+
+            throw e;
+        } finally {
+
+            span.end();
+        }
+    }
+}
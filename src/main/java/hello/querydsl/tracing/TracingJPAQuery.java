@@ -0,0 +1,133 @@
+package hello.querydsl.tracing;
+
+import com.querydsl.core.QueryResults;
+import com.querydsl.jpa.JPQLSerializer;
+import com.querydsl.jpa.JPQLTemplates;
+import com.querydsl.jpa.impl.JPAQuery;
+import io.opentelemetry.api.trace.Span;
+import io.opentelemetry.api.trace.StatusCode;
+import io.opentelemetry.api.trace.Tracer;
+import io.opentelemetry.context.Scope;
+
+import javax.persistence.EntityManager;
+import java.util.List;
+import java.util.function.Supplier;
+
+/**
+ * 단계별 스팬을 남기는 JPAQuery
+ *
+ * querydsl.build     : 쿼리 생성부터 fetch 호출까지 (Querydsl 쿼리 트리 구성)
+ * querydsl.{fetch}   : fetch 전체, 하위 단계는 아래 스팬으로 기록
+ *   querydsl.serialize   : Querydsl 쿼리 트리 -> JPQL
+ *   hibernate.translate  : JPQL -> SQL
+ *   jdbc.execute         : SQL 실행
+ *   hydrate              : 마지막 SQL 실행 이후 결과 조회 및 DTO, 엔티티 변환
+ */
+public class TracingJPAQuery<T> extends JPAQuery<T> {
+
+    private final Tracer tracer;
+    private final long createdAt = Spans.now();
+
+    public TracingJPAQuery(EntityManager em, JPQLTemplates templates, Tracer tracer) {
+
+        super(em, templates);
+        this.tracer = tracer;
+    }
+
+    @Override
+    public List<T> fetch() {
+
+        return trace("fetch", super::fetch);
+    }
+
+    @Override
+    public T fetchOne() {
+
+        return trace("fetchOne", super::fetchOne);
+    }
+
+    @Override
+    public QueryResults<T> fetchResults() {
+
+        return trace("fetchResults", super::fetchResults);
+    }
+
+    @Override
+    public long fetchCount() {
+
+        return trace("fetchCount", super::fetchCount);
+    }
+
+    @Override
+    protected JPQLSerializer serialize(boolean forCountRow) {
+
+        QueryPhases phases = QueryPhases.current();
+
+        if (phases == null) {
+
+            return super.serialize(forCountRow);
+        }
+
+        long start = Spans.now();
+
+        JPQLSerializer serializer = super.serialize(forCountRow);
+
+        long end = Spans.now();
+
+        phases.serializeNanos += end - start;
+
+        Span span = Spans.start(tracer, "querydsl.serialize", start);
+        span.setAttribute("count", forCountRow);
+
+        Spans.end(span, end);
+
+        return serializer;
+    }
+
+    private <R> R trace(String operation, Supplier<R> fetch) {
+
+        // fetchFirst() -> fetchOne() 처럼 내부에서 다시 호출된 경우
+        if (QueryPhases.current() != null) {
+
+            return fetch.get();
+        }
+
+        long start = Spans.now();
+
+        Spans.record(tracer, "querydsl.build", createdAt, start);
+
+        Span span = Spans.start(tracer, "querydsl." + operation, start);
+        QueryPhases phases = QueryPhases.begin();
+
+        try (Scope ignored = span.makeCurrent()) {
+
+            R result = fetch.get();
+
+            long end = Spans.now();
+
+            if (phases.lastJdbcEnd > 0) {
+
+                Spans.record(tracer, "hydrate", phases.lastJdbcEnd, end);
+            }
+
+            span.setAttribute("serialize.nanos", phases.serializeNanos);
+            span.setAttribute("translate.nanos", phases.translateNanos);
+            span.setAttribute("jdbc.nanos", phases.jdbcNanos);
+
+            Spans.end(span, end);
+
+            return result;
+        } catch (RuntimeException e) {
+
+            span.recordException(e);
+            span.setStatus(StatusCode.ERROR);
+
+            Spans.end(span, Spans.now());
+
+            throw e;
+        } finally {
+
+            QueryPhases.end();
+        }
+    }
+}
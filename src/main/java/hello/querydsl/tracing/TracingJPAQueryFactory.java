@@ -0,0 +1,34 @@
+package hello.querydsl.tracing;
+
+import com.querydsl.jpa.JPQLTemplates;
+import com.querydsl.jpa.impl.JPAProvider;
+import com.querydsl.jpa.impl.JPAQuery;
+import com.querydsl.jpa.impl.JPAQueryFactory;
+import io.opentelemetry.api.trace.Tracer;
+
+import javax.persistence.EntityManager;
+
+/**
+ * select(), selectFrom(), from() 으로 시작하는 쿼리를 TracingJPAQuery 로 생성
+ */
+public class TracingJPAQueryFactory extends JPAQueryFactory {
+
+    private final EntityManager entityManager;
+    private final JPQLTemplates templates;
+    private final Tracer tracer;
+
+    public TracingJPAQueryFactory(EntityManager entityManager, Tracer tracer) {
+
+        super(entityManager);
+
+        this.entityManager = TracingEntityManager.wrap(entityManager, tracer);
+        this.templates = JPAProvider.getTemplates(entityManager);
+        this.tracer = tracer;
+    }
+
+    @Override
+    public JPAQuery<?> query() {
+
+        return new TracingJPAQuery<Void>(entityManager, templates, tracer);
+    }
+}
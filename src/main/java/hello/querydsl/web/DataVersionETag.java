@@ -0,0 +1,17 @@
+package hello.querydsl.web;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * 데이터 버전(DataVersion)으로 ETag 를 붙이는 조회 핸들러
+ *
+ * If-None-Match 가 현재 ETag 와 같으면 핸들러를 실행하지 않고 304 로 응답한다. (DataVersionETagInterceptor)
+ * 응답이 DB 데이터와 요청 URL 로만 결정되는 GET 핸들러에만 사용해야 한다.
+ */
+@Target(ElementType.METHOD)
+@Retention(RetentionPolicy.RUNTIME)
+public @interface DataVersionETag {
+}
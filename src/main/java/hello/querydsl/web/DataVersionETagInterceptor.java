@@ -0,0 +1,59 @@
+package hello.querydsl.web;
+
+import hello.querydsl.sql.DataVersion;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpHeaders;
+import org.springframework.stereotype.Component;
+import org.springframework.web.context.request.ServletWebRequest;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.HandlerInterceptor;
+
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+
+/**
+ * @DataVersionETag 핸들러의 조건부 GET 처리
+ *
+ * ETag 는 W/"{epoch}-{version}" 이고, 핸들러 실행 전에 버전을 읽는다.
+ * 조회 중에 커밋된 변경은 버전이 다시 증가하므로 다음 요청에서 전체 응답을 받는다.
+ * (예전 데이터에 새 ETag 가 붙는 일은 없고, 새 데이터에 예전 ETag 가 붙는 경우만 있다.)
+ *
+ * ETag 가 같으면 검색, 카운트 쿼리 없이 304
+ *
+ * Accept 에 따라 JSON, 간단한 JSON(MemberTeamPageHttpMessageConverter) 으로 응답하는 핸들러는
+ * 304 를 포함한 모든 응답에 Vary: Accept 를 붙이고, 간단한 JSON 의 ETag 는 W/"{epoch}-{version}-compact" 로 구분한다.
+ */
+@Component
+@RequiredArgsConstructor
+public class DataVersionETagInterceptor implements HandlerInterceptor {
+
+    private final DataVersion dataVersion;
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+
+        if (!(handler instanceof HandlerMethod)) {
+
+            return true;
+        }
+
+        HandlerMethod handlerMethod = (HandlerMethod) handler;
+        boolean negotiable = MemberTeamPageHttpMessageConverter.supports(handlerMethod.getReturnType());
+
+        if (negotiable) {
+
+            response.addHeader(HttpHeaders.VARY, HttpHeaders.ACCEPT);
+        }
+
+        if (!handlerMethod.hasMethodAnnotation(DataVersionETag.class)) {
+
+            return true;
+        }
+
+        String representation = negotiable && MemberTeamPageHttpMessageConverter.isRequested(request.getHeader(HttpHeaders.ACCEPT)) ? "-compact" : "";
+        String etag = "W/\"" + dataVersion.getEpoch() + "-" + dataVersion.current() + representation + "\"";
+
+        // GET, HEAD 에서 If-None-Match 가 같으면 304 로 설정, 아니면 ETag 헤더만 추가
+        return !new ServletWebRequest(request, response).checkNotModified(etag);
+    }
+}
@@ -0,0 +1,37 @@
+package hello.querydsl.web;
+
+import hello.querydsl.repository.DeepOffsetException;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.ExceptionHandler;
+import org.springframework.web.bind.annotation.RestControllerAdvice;
+
+import javax.servlet.http.HttpServletRequest;
+import java.time.OffsetDateTime;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * 조회 위치 제한(DeepOffsetException) 응답에만 거부 이유를 포함
+ *
+ * 기본 오류 응답과 같은 형식에 message 로 after 조회 안내를 담는다.
+ * 다른 예외 메시지는 응답에 포함하지 않는다. (server.error.include-message 기본값 never)
+ */
+@RestControllerAdvice
+public class DeepOffsetExceptionHandler {
+
+    @ExceptionHandler(DeepOffsetException.class)
+    public ResponseEntity<Map<String, Object>> handle(DeepOffsetException e, HttpServletRequest request) {
+
+        HttpStatus status = HttpStatus.BAD_REQUEST;
+
+        Map<String, Object> body = new LinkedHashMap<>();
+        body.put("timestamp", OffsetDateTime.now());
+        body.put("status", status.value());
+        body.put("error", status.getReasonPhrase());
+        body.put("message", e.getMessage());
+        body.put("path", request.getRequestURI());
+
+        return ResponseEntity.status(status).body(body);
+    }
+}
@@ -0,0 +1,25 @@
+package hello.querydsl.web;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+/**
+ * 회원 페이지 간단한 JSON 응답 설정 (MemberTeamPageHttpMessageConverter)
+ */
+@Component
+@ConfigurationProperties(prefix = "member-page")
+@Getter @Setter
+public class MemberPageSettings {
+
+    /**
+     * Accept-Encoding 에 gzip 이 있으면 압축
+     */
+    private boolean gzip = true;
+
+    /**
+     * 이 건수 이상인 페이지만 압축 (작은 응답은 압축 비용이 더 크다.)
+     */
+    private int gzipMinRows = 50;
+}
@@ -0,0 +1,294 @@
+package hello.querydsl.web;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import hello.querydsl.dto.MemberTeamDto;
+import org.springframework.core.MethodParameter;
+import org.springframework.core.ResolvableType;
+import org.springframework.data.domain.Slice;
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpInputMessage;
+import org.springframework.http.HttpOutputMessage;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.AbstractGenericHttpMessageConverter;
+import org.springframework.http.converter.HttpMessageNotReadableException;
+import org.springframework.stereotype.Component;
+import org.springframework.util.InvalidMimeTypeException;
+import org.springframework.util.StringUtils;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.lang.reflect.ParameterizedType;
+import java.lang.reflect.Type;
+import java.util.List;
+import java.util.Locale;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Accept: application/vnd.member-page+json 이면 Page, Slice&lt;MemberTeamDto&gt; 를 MemberTeamPageWriter 로 응답
+ *
+ * curl -H 'Accept: application/vnd.member-page+json' -H 'Accept-Encoding: gzip' localhost:8080/v3/members?teamName=teamA
+ *
+ * 기존 클라이언트는 PageImpl JSON 을 그대로 받도록 Accept 에 이 타입을 명시한 요청만 처리한다.
+ * (Accept 가 없거나 *&#47;* 이면 application/json)
+ * Jackson 컨버터도 application/*+json 을 지원하므로 Jackson 컨버터보다 앞에 있어야 한다.
+ * 스프링 부트가 HttpMessageConverter 빈을 기본 컨버터 앞에 등록한다. (HttpMessageConvertersAutoConfiguration)
+ *
+ * 같은 URL 이 Accept 에 따라 다른 표현으로 응답하므로 DataVersionETagInterceptor 가
+ * 이 타입을 반환하는 핸들러에 Vary: Accept 를 붙이고 표현별로 다른 ETag 를 만든다. (supports, isRequested)
+ */
+@Component
+public class MemberTeamPageHttpMessageConverter extends AbstractGenericHttpMessageConverter<Slice<MemberTeamDto>> {
+
+    public static final MediaType MEDIA_TYPE = MediaType.parseMediaType(MemberTeamPageWriter.MEDIA_TYPE_VALUE);
+
+    private final MemberTeamPageWriter writer;
+    private final MemberPageSettings settings;
+
+    public MemberTeamPageHttpMessageConverter(ObjectMapper objectMapper, MemberPageSettings settings) {
+
+        super(MEDIA_TYPE);
+
+        this.writer = new MemberTeamPageWriter(objectMapper.getFactory());
+        this.settings = settings;
+    }
+
+    /**
+     * 응답 가능한 타입을 모을 때(mediaType 이 null) 포함되지 않도록 명시된 타입만 지원
+     */
+    @Override
+    public boolean canWrite(Type type, Class<?> clazz, MediaType mediaType) {
+
+        return mediaType != null && !mediaType.isWildcardType() && canWrite(mediaType) && isMemberTeamSlice(type);
+    }
+
+    @Override
+    public boolean canRead(Type type, Class<?> contextClass, MediaType mediaType) {
+
+        return false;
+    }
+
+    @Override
+    protected boolean canRead(MediaType mediaType) {
+
+        return false;
+    }
+
+    @Override
+    protected boolean supports(Class<?> clazz) {
+
+        return Slice.class.isAssignableFrom(clazz);
+    }
+
+    @Override
+    protected void writeInternal(Slice<MemberTeamDto> slice, Type type, HttpOutputMessage outputMessage) throws IOException {
+
+        HttpHeaders headers = outputMessage.getHeaders();
+
+        if (!settings.isGzip()) {
+
+            writer.write(slice, outputMessage.getBody());
+
+            return;
+        }
+
+        headers.add(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+
+        if (slice.getNumberOfElements() < settings.getGzipMinRows() || !acceptsGzip()) {
+
+            writer.write(slice, outputMessage.getBody());
+
+            return;
+        }
+
+        headers.set(HttpHeaders.CONTENT_ENCODING, "gzip");
+
+        // 헤더는 getBody() 에서 확정되므로 그 전에 설정
+        OutputStream body = outputMessage.getBody();
+        GZIPOutputStream gzip = new GZIPOutputStream(body, 8 * 1024);
+
+        writer.write(slice, gzip);
+        gzip.finish();
+    }
+
+    @Override
+    public Slice<MemberTeamDto> read(Type type, Class<?> contextClass, HttpInputMessage inputMessage) {
+
+        throw new HttpMessageNotReadableException("요청 본문으로 사용할 수 없습니다.", inputMessage);
+    }
+
+    @Override
+    protected Slice<MemberTeamDto> readInternal(Class<? extends Slice<MemberTeamDto>> clazz, HttpInputMessage inputMessage) {
+
+        throw new HttpMessageNotReadableException("요청 본문으로 사용할 수 없습니다.", inputMessage);
+    }
+
+    /**
+     * @param returnType 핸들러 반환 타입, ResponseEntity 는 본문 타입으로 판단
+     * @return 이 컨버터로 응답할 수 있는 핸들러인지 여부 (Accept 에 따라 표현이 달라진다.)
+     */
+    public static boolean supports(MethodParameter returnType) {
+
+        ResolvableType type = ResolvableType.forMethodParameter(returnType);
+
+        if (type.resolve() != null && HttpEntity.class.isAssignableFrom(type.resolve())) {
+
+            type = type.getGeneric(0);
+        }
+
+        return isMemberTeamSlice(type.getType());
+    }
+
+    /**
+     * 콘텐츠 협상 결과 예측
+     *
+     * 품질, 구체성 순서로 정렬한 Accept 에서 JSON 컨버터가 응답할 수 있는 타입보다
+     * 이 타입이 먼저 나오는 경우에만 이 컨버터가 선택된다.
+     *
+     * @param accept Accept 헤더
+     * @return 이 컨버터로 응답하는지 여부
+     */
+    public static boolean isRequested(String accept) {
+
+        if (accept == null) {
+
+            return false;
+        }
+
+        List<MediaType> mediaTypes;
+
+        try {
+
+            mediaTypes = MediaType.parseMediaTypes(accept);
+        } catch (InvalidMimeTypeException e) {
+
+            return false;
+        }
+
+        MediaType.sortBySpecificityAndQuality(mediaTypes);
+
+        for (MediaType mediaType : mediaTypes) {
+
+            if (mediaType.getQualityValue() == 0) {
+
+                continue;
+            }
+
+            if (MEDIA_TYPE.equalsTypeAndSubtype(mediaType)) {
+
+                return true;
+            }
+
+            if (mediaType.isCompatibleWith(MediaType.APPLICATION_JSON) || "json".equals(mediaType.getSubtypeSuffix())) {
+
+                return false;
+            }
+        }
+
+        return false;
+    }
+
+    /**
+     * @param type 핸들러 반환 타입 (Page&lt;MemberTeamDto&gt;, Slice&lt;MemberTeamDto&gt;)
+     */
+    private static boolean isMemberTeamSlice(Type type) {
+
+        if (!(type instanceof ParameterizedType)) {
+
+            return false;
+        }
+
+        ParameterizedType parameterized = (ParameterizedType) type;
+
+        return parameterized.getRawType() instanceof Class
+                && Slice.class.isAssignableFrom((Class<?>) parameterized.getRawType())
+                && parameterized.getActualTypeArguments()[0] == MemberTeamDto.class;
+    }
+
+    private static boolean acceptsGzip() {
+
+        RequestAttributes attributes = RequestContextHolder.getRequestAttributes();
+
+        if (!(attributes instanceof ServletRequestAttributes)) {
+
+            return false;
+        }
+
+        return acceptsGzip(((ServletRequestAttributes) attributes).getRequest().getHeader(HttpHeaders.ACCEPT_ENCODING));
+    }
+
+    /**
+     * Accept-Encoding 의 gzip 또는 * 의 q 값으로 판단 (gzip;q=0 이면 거부)
+     *
+     * @param acceptEncoding Accept-Encoding 헤더
+     * @return gzip 으로 응답해도 되는지 여부
+     */
+    static boolean acceptsGzip(String acceptEncoding) {
+
+        if (acceptEncoding == null) {
+
+            return false;
+        }
+
+        Double gzip = null;
+        Double any = null;
+
+        for (String coding : StringUtils.tokenizeToStringArray(acceptEncoding, ",")) {
+
+            String[] parts = StringUtils.tokenizeToStringArray(coding, ";");
+
+            if (parts.length == 0) {
+
+                continue;
+            }
+
+            String name = parts[0].toLowerCase(Locale.ROOT);
+            double quality = quality(parts);
+
+            if ("gzip".equals(name) || "x-gzip".equals(name)) {
+
+                gzip = quality;
+            } else if ("*".equals(name)) {
+
+                any = quality;
+            }
+        }
+
+        if (gzip != null) {
+
+            return gzip > 0;
+        }
+
+        return any != null && any > 0;
+    }
+
+    /**
+     * @return q 파라미터 값, 없으면 1, 잘못된 값이면 0
+     */
+    private static double quality(String[] parts) {
+
+        for (int i = 1; i < parts.length; i++) {
+
+            String parameter = parts[i];
+            int eq = parameter.indexOf('=');
+
+            if (eq < 0 || !"q".equalsIgnoreCase(parameter.substring(0, eq).trim())) {
+
+                continue;
+            }
+
+            try {
+
+                return Double.parseDouble(parameter.substring(eq + 1).trim());
+            } catch (NumberFormatException e) {
+
+                return 0;
+            }
+        }
+
+        return 1;
+    }
+}
@@ -0,0 +1,122 @@
+package hello.querydsl.web;
+
+import com.fasterxml.jackson.core.JsonEncoding;
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.SerializableString;
+import com.fasterxml.jackson.core.io.SerializedString;
+import hello.querydsl.dto.MemberTeamDto;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Slice;
+
+import java.io.IOException;
+import java.io.OutputStream;
+
+/**
+ * 회원 페이지 간단한 JSON 쓰기
+ *
+ * PageImpl 을 Jackson 으로 직렬화하면 pageable, sort 정보가 함께 나가고 프로퍼티를 리플렉션으로 조회한다.
+ * 필드 이름을 미리 인코딩해 두고 JsonGenerator 로 출력 스트림에 바로 쓴다. (중간 트리, 문자열 없음)
+ *
+ * <pre>
+ * Page  : {"content":[{"memberId":1,"username":"member1","age":10,"teamId":1,"teamName":"teamA"}, ...],
+ *          "page":0,"size":20,"totalElements":100,"totalPages":5}
+ * Slice : {"content":[...],"page":0,"size":20,"hasNext":true}
+ * </pre>
+ */
+public class MemberTeamPageWriter {
+
+    public static final String MEDIA_TYPE_VALUE = "application/vnd.member-page+json";
+
+    private static final SerializableString CONTENT = new SerializedString("content");
+    private static final SerializableString MEMBER_ID = new SerializedString("memberId");
+    private static final SerializableString USERNAME = new SerializedString("username");
+    private static final SerializableString AGE = new SerializedString("age");
+    private static final SerializableString TEAM_ID = new SerializedString("teamId");
+    private static final SerializableString TEAM_NAME = new SerializedString("teamName");
+    private static final SerializableString PAGE = new SerializedString("page");
+    private static final SerializableString SIZE = new SerializedString("size");
+    private static final SerializableString TOTAL_ELEMENTS = new SerializedString("totalElements");
+    private static final SerializableString TOTAL_PAGES = new SerializedString("totalPages");
+    private static final SerializableString HAS_NEXT = new SerializedString("hasNext");
+
+    private final JsonFactory jsonFactory;
+
+    public MemberTeamPageWriter(JsonFactory jsonFactory) {
+
+        this.jsonFactory = jsonFactory;
+    }
+
+    /**
+     * @param slice Page 면 전체 건수, 아니면 다음 페이지 여부를 쓴다.
+     * @param out 닫지 않는다.
+     */
+    public void write(Slice<MemberTeamDto> slice, OutputStream out) throws IOException {
+
+        try (JsonGenerator generator = jsonFactory.createGenerator(out, JsonEncoding.UTF8)) {
+
+            generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+            generator.writeStartObject();
+
+            generator.writeFieldName(CONTENT);
+            generator.writeStartArray();
+
+            for (MemberTeamDto member : slice.getContent()) {
+
+                writeMember(generator, member);
+            }
+
+            generator.writeEndArray();
+
+            generator.writeFieldName(PAGE);
+            generator.writeNumber(slice.getNumber());
+            generator.writeFieldName(SIZE);
+            generator.writeNumber(slice.getSize());
+
+            if (slice instanceof Page) {
+
+                Page<MemberTeamDto> page = (Page<MemberTeamDto>) slice;
+
+                generator.writeFieldName(TOTAL_ELEMENTS);
+                generator.writeNumber(page.getTotalElements());
+                generator.writeFieldName(TOTAL_PAGES);
+                generator.writeNumber(page.getTotalPages());
+            } else {
+
+                generator.writeFieldName(HAS_NEXT);
+                generator.writeBoolean(slice.hasNext());
+            }
+
+            generator.writeEndObject();
+        }
+    }
+
+    private static void writeMember(JsonGenerator generator, MemberTeamDto member) throws IOException {
+
+        generator.writeStartObject();
+
+        generator.writeFieldName(MEMBER_ID);
+        writeNumber(generator, member.getMemberId());
+        generator.writeFieldName(USERNAME);
+        generator.writeString(member.getUsername());
+        generator.writeFieldName(AGE);
+        generator.writeNumber(member.getAge());
+        generator.writeFieldName(TEAM_ID);
+        writeNumber(generator, member.getTeamId());
+        generator.writeFieldName(TEAM_NAME);
+        generator.writeString(member.getTeamName());
+
+        generator.writeEndObject();
+    }
+
+    private static void writeNumber(JsonGenerator generator, Long value) throws IOException {
+
+        if (value == null) {
+
+            generator.writeNull();
+        } else {
+
+            generator.writeNumber(value);
+        }
+    }
+}
@@ -18,7 +18,8 @@ import hello.querydsl.dto.UserDto;
 import hello.querydsl.entity.Member;
 import hello.querydsl.entity.QMember;
 import hello.querydsl.entity.QTeam;
-import hello.querydsl.entity.Team;
+import hello.querydsl.support.BasicFixture;
+import hello.querydsl.support.UseFixture;
 import org.assertj.core.api.Assertions;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -40,9 +41,12 @@ import static org.assertj.core.api.Assertions.*;
 
 /**
  * JPQL vs Querydsl 테스트 코드
+ *
+ * teamA(member1, member2), teamB(member3, member4) 는 BasicFixture 로 한 번만 저장하고 테스트마다 롤백으로 유지
  */
 @SpringBootTest
 @Transactional
+@UseFixture(BasicFixture.class)
 public class QuerydslBasicTest {
 
     @Autowired
@@ -55,23 +59,6 @@ public class QuerydslBasicTest {
 
         // EntityManager 로 JPAQueryFactory 생성
         queryFactory = new JPAQueryFactory(em);
-
-        Team teamA = new Team("teamA");
-        Team teamB = new Team("teamB");
-
-        em.persist(teamA);
-        em.persist(teamB);
-
-        Member member1 = new Member("member1", 10, teamA);
-        Member member2 = new Member("member2", 20, teamA);
-
-        Member member3 = new Member("member3", 30, teamB);
-        Member member4 = new Member("member4", 40, teamB);
-
-        em.persist(member1);
-        em.persist(member2);
-        em.persist(member3);
-        em.persist(member4);
     }
 
     /**
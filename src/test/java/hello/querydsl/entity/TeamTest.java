@@ -0,0 +1,128 @@
+package hello.querydsl.entity;
+
+import hello.querydsl.dto.MemberTeamDto;
+import hello.querydsl.repository.MemberRepository;
+import hello.querydsl.support.QueryCount;
+import hello.querydsl.support.QueryCounter;
+import org.hibernate.Hibernate;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.transaction.annotation.Transactional;
+
+import javax.persistence.EntityManager;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * team.members EXTRA 지연 로딩 테스트
+ */
+@SpringBootTest
+@Transactional
+class TeamTest {
+
+    @Autowired
+    EntityManager em;
+
+    @Autowired
+    MemberRepository memberRepository;
+
+    Long teamAId;
+    Long teamBId;
+
+    @BeforeEach
+    public void before() {
+
+        Team teamA = new Team("teamA");
+        Team teamB = new Team("teamB");
+
+        em.persist(teamA);
+        em.persist(teamB);
+
+        for (int i = 0; i < 10; i++) {
+
+            em.persist(new Member("member" + i, i, teamA));
+        }
+
+        em.persist(new Member("memberB", 50, teamB));
+
+        em.flush();
+        em.clear();
+
+        teamAId = teamA.getId();
+        teamBId = teamB.getId();
+    }
+
+    @Test
+    public void addWithoutLoadingTest() {
+
+        Team teamA = em.find(Team.class, teamAId);
+
+        QueryCount count = QueryCounter.count(() -> {
+
+            em.persist(new Member("member10", 10, teamA));
+            em.flush();
+        });
+
+        // 시퀀스 조회, insert 만 실행 (팀 회원 조회 없음)
+        assertThat(count.getStatements()).noneMatch(sql -> sql.toLowerCase().startsWith("select") && sql.toLowerCase().contains("from member"));
+        assertThat(Hibernate.isInitialized(teamA.getMembers())).isFalse();
+    }
+
+    @Test
+    public void changeTeamTest() {
+
+        Member member = em.createQuery("SELECT m FROM Member m WHERE m.username = 'memberB'", Member.class).getSingleResult();
+        Team teamA = em.find(Team.class, teamAId);
+
+        QueryCount count = QueryCounter.count(() -> {
+
+            member.changeTeam(teamA);
+            em.flush();
+        });
+
+        // 이전 팀(프록시), 새 팀의 회원 컬렉션 모두 로딩하지 않고 update 한 번
+        assertThat(count.getTotal()).isEqualTo(1);
+        assertThat(Hibernate.isInitialized(teamA.getMembers())).isFalse();
+
+        em.clear();
+
+        assertThat(em.find(Team.class, teamAId).getMembers().size()).isEqualTo(11);
+        assertThat(em.find(Team.class, teamBId).getMembers().size()).isEqualTo(0);
+    }
+
+    @Test
+    public void sizeAndContainsTest() {
+
+        Team teamA = em.find(Team.class, teamAId);
+        Member memberB = em.createQuery("SELECT m FROM Member m WHERE m.username = 'memberB'", Member.class).getSingleResult();
+
+        QueryCount count = QueryCounter.count(() -> {
+
+            assertThat(teamA.getMembers().size()).isEqualTo(10);
+            assertThat(teamA.getMembers().contains(memberB)).isFalse();
+        });
+
+        // count 쿼리, 존재 여부 쿼리
+        assertThat(count.getTotal()).isEqualTo(2);
+        assertThat(Hibernate.isInitialized(teamA.getMembers())).isFalse();
+    }
+
+    @Test
+    public void searchTeamMembersTest() {
+
+        Page<MemberTeamDto> page = memberRepository.searchTeamMembers(teamAId, PageRequest.of(1, 3));
+
+        assertThat(page.getTotalElements()).isEqualTo(10);
+        assertThat(page.getContent()).extracting("username").containsExactly("member3", "member4", "member5");
+        assertThat(page.getContent()).extracting("teamName").containsOnly("teamA");
+
+        Page<MemberTeamDto> sorted = memberRepository.searchTeamMembers(teamAId, PageRequest.of(0, 2, Sort.by(Sort.Direction.DESC, "username")));
+
+        assertThat(sorted.getContent()).extracting("username").containsExactly("member9", "member8");
+    }
+}
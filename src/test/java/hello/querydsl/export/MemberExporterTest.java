@@ -0,0 +1,101 @@
+package hello.querydsl.export;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import hello.querydsl.dto.MemberSearchCondition;
+import hello.querydsl.dto.MemberTeamDto;
+import hello.querydsl.support.BasicFixture;
+import hello.querydsl.support.UseFixture;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.nio.channels.Channels;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.tuple;
+
+/**
+ * 회원 내보내기 테스트
+ *
+ * batch-size=3 이라서 회원 4명이 블록 2개로 나뉜다.
+ */
+@SpringBootTest(properties = "member-export.batch-size=3")
+@Transactional
+@UseFixture(BasicFixture.class)
+class MemberExporterTest {
+
+    @Autowired
+    MemberExporter memberExporter;
+
+    @Autowired
+    ObjectMapper objectMapper;
+
+    @Test
+    public void binaryRoundTripTest() throws Exception {
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        long count = memberExporter.exportBinary(new MemberSearchCondition(), Channels.newChannel(out));
+
+        List<List<MemberTeamDto>> blocks = new ArrayList<>();
+
+        try (MemberTeamBinaryReader reader = new MemberTeamBinaryReader(Channels.newChannel(new ByteArrayInputStream(out.toByteArray())))) {
+
+            List<MemberTeamDto> block;
+
+            while ((block = reader.readBlock()) != null) {
+
+                blocks.add(block);
+            }
+        }
+
+        assertThat(count).isEqualTo(4);
+        assertThat(blocks).extracting(List::size).containsExactly(3, 1);
+
+        // JSON 내보내기와 같은 내용
+        ByteArrayOutputStream json = new ByteArrayOutputStream();
+
+        memberExporter.exportJson(new MemberSearchCondition(), json);
+
+        List<MemberTeamDto> actual = new ArrayList<>();
+
+        blocks.forEach(actual::addAll);
+
+        assertThat(objectMapper.writeValueAsString(actual)).isEqualTo(json.toString(StandardCharsets.UTF_8));
+        assertThat(actual).extracting("username", "teamName")
+                .containsExactly(
+                        tuple("member1", "teamA"),
+                        tuple("member2", "teamA"),
+                        tuple("member3", "teamB"),
+                        tuple("member4", "teamB")
+                );
+
+        assertThat(out.size()).isLessThan(json.size() / 3);
+    }
+
+    @Test
+    public void conditionTest() throws Exception {
+
+        MemberSearchCondition condition = new MemberSearchCondition();
+        condition.setTeamName("teamB");
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        memberExporter.exportBinary(condition, Channels.newChannel(out));
+
+        List<MemberTeamDto> members = new ArrayList<>();
+
+        try (MemberTeamBinaryReader reader = new MemberTeamBinaryReader(Channels.newChannel(new ByteArrayInputStream(out.toByteArray())))) {
+
+            assertThat(reader.forEach(members::add)).isEqualTo(2);
+        }
+
+        assertThat(members).extracting("username").containsExactly("member3", "member4");
+    }
+}
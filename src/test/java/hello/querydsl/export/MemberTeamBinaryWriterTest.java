@@ -0,0 +1,203 @@
+package hello.querydsl.export;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import hello.querydsl.dto.MemberTeamDto;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * 바이너리 내보내기 쓰기, 읽기 테스트
+ */
+class MemberTeamBinaryWriterTest {
+
+    @Test
+    public void roundTripTest() throws IOException {
+
+        List<MemberTeamDto> block1 = Arrays.asList(
+                new MemberTeamDto(1L, "member1", 10, 1L, "teamA"),
+                new MemberTeamDto(2L, null, 0, null, null),
+                new MemberTeamDto(900_000_000_000L, "회원 \"3\"", -5, 2L, "팀B")
+        );
+
+        List<MemberTeamDto> block2 = Arrays.asList(
+                new MemberTeamDto(5L, "member5", Integer.MAX_VALUE, 2L, "팀B"),
+                new MemberTeamDto(4L, "", Integer.MIN_VALUE, 3L, "teamC"),
+                new MemberTeamDto(6L, "member6", 60, 1L, "teamA")
+        );
+
+        byte[] bytes = write(block1, block2);
+
+        List<List<MemberTeamDto>> blocks = readBlocks(bytes);
+
+        assertThat(blocks).containsExactly(block1, block2);
+    }
+
+    @Test
+    public void sizeTest() throws IOException {
+
+        List<MemberTeamDto> members = new ArrayList<>();
+
+        for (long i = 1; i <= 1000; i++) {
+
+            members.add(new MemberTeamDto(i, "member" + i, (int) (i % 100), i % 10 + 1, "team" + (i % 10)));
+        }
+
+        byte[] bytes = write(members);
+        byte[] json = new ObjectMapper().writeValueAsBytes(members);
+
+        // 아이디, 나이, 팀 아이디, 팀 이름 번호는 1 바이트씩 + 이름
+        assertThat(bytes.length).isLessThan(json.length / 3);
+        assertThat(readBlocks(bytes)).containsExactly(members);
+    }
+
+    @Test
+    public void largeBlockTest() throws IOException {
+
+        // 기본 버퍼(64KB)보다 큰 블록
+        char[] name = new char[100_000];
+        Arrays.fill(name, '가');
+
+        List<MemberTeamDto> members = Arrays.asList(new MemberTeamDto(1L, new String(name), 10, null, null));
+
+        assertThat(readBlocks(write(members))).containsExactly(members);
+    }
+
+    @Test
+    public void emptyTest() throws IOException {
+
+        assertThat(readBlocks(write())).isEmpty();
+    }
+
+    @Test
+    public void truncatedTest() throws IOException {
+
+        byte[] bytes = write(Arrays.asList(new MemberTeamDto(1L, "member1", 10, 1L, "teamA")));
+
+        // 끝 표시 없음
+        byte[] truncated = Arrays.copyOf(bytes, bytes.length - 4);
+
+        assertThatThrownBy(() -> readBlocks(truncated)).isInstanceOf(EOFException.class);
+    }
+
+    @Test
+    public void invalidFormatTest() {
+
+        assertThatThrownBy(() -> readBlocks("[{\"memberId\":1}]".getBytes()))
+                .isInstanceOf(IOException.class)
+                .hasMessageContaining("형식");
+    }
+
+    @Test
+    public void corruptCountTest() {
+
+        // 본문 : 새 팀 이름 0 개, 회원 수 2^31 (varint 80 80 80 80 08)
+        assertThatThrownBy(() -> readBlocks(block(0x00, 0x80, 0x80, 0x80, 0x80, 0x08)))
+                .isInstanceOf(IOException.class)
+                .hasMessageContaining("회원 수");
+
+        // 음수로 읽히는 회원 수 (2^63)
+        assertThatThrownBy(() -> readBlocks(block(0x00, 0x80, 0x80, 0x80, 0x80, 0x80, 0x80, 0x80, 0x80, 0x80, 0x01)))
+                .isInstanceOf(IOException.class)
+                .hasMessageContaining("회원 수");
+
+        // 새 팀 이름 수가 블록 길이보다 큼
+        assertThatThrownBy(() -> readBlocks(block(0x7F, 0x00)))
+                .isInstanceOf(IOException.class)
+                .hasMessageContaining("팀 이름 수");
+    }
+
+    @Test
+    public void corruptStringTest() {
+
+        // 팀 이름 길이 2^63
+        assertThatThrownBy(() -> readBlocks(block(0x01, 0x80, 0x80, 0x80, 0x80, 0x80, 0x80, 0x80, 0x80, 0x80, 0x01, 0x00)))
+                .isInstanceOf(IOException.class)
+                .hasMessageContaining("문자열 길이");
+    }
+
+    @Test
+    public void corruptDictionaryTest() {
+
+        // 회원 1 명 : 아이디 1, username null, 나이 0, 팀 없음, 팀 이름 번호 2^63 (사전은 비어 있음)
+        assertThatThrownBy(() -> readBlocks(block(0x00, 0x01, 0x02, 0x00, 0x00, 0x00,
+                                                  0x80, 0x80, 0x80, 0x80, 0x80, 0x80, 0x80, 0x80, 0x80, 0x01)))
+                .isInstanceOf(IOException.class)
+                .hasMessageContaining("사전");
+
+        // 사전에 없는 번호
+        assertThatThrownBy(() -> readBlocks(block(0x00, 0x01, 0x02, 0x00, 0x00, 0x00, 0x05)))
+                .isInstanceOf(IOException.class)
+                .hasMessageContaining("사전");
+    }
+
+    /**
+     * 헤더, 본문 하나, 끝 표시로 된 파일
+     */
+    private static byte[] block(int... body) {
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        out.writeBytes(MemberTeamBinaryFormat.MAGIC);
+        out.write(MemberTeamBinaryFormat.VERSION);
+
+        out.writeBytes(ByteBuffer.allocate(4).putInt(body.length).array());
+
+        for (int b : body) {
+
+            out.write(b);
+        }
+
+        out.writeBytes(new byte[4]);
+
+        return out.toByteArray();
+    }
+
+    @SafeVarargs
+    private static byte[] write(List<MemberTeamDto>... blocks) throws IOException {
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        try (MemberTeamBinaryWriter writer = new MemberTeamBinaryWriter(Channels.newChannel(out))) {
+
+            for (List<MemberTeamDto> block : blocks) {
+
+                writer.writeBlock(block);
+            }
+
+            writer.finish();
+
+            assertThat(writer.getBytes()).isEqualTo(out.size());
+        }
+
+        return out.toByteArray();
+    }
+
+    private static List<List<MemberTeamDto>> readBlocks(byte[] bytes) throws IOException {
+
+        List<List<MemberTeamDto>> blocks = new ArrayList<>();
+
+        try (MemberTeamBinaryReader reader = new MemberTeamBinaryReader(Channels.newChannel(new ByteArrayInputStream(bytes)))) {
+
+            List<MemberTeamDto> block;
+
+            while ((block = reader.readBlock()) != null) {
+
+                blocks.add(block);
+            }
+        }
+
+        return blocks;
+    }
+}
@@ -0,0 +1,295 @@
+package hello.querydsl.feed;
+
+import com.querydsl.jpa.impl.JPAQueryFactory;
+import hello.querydsl.entity.Member;
+import hello.querydsl.entity.Team;
+import hello.querydsl.repository.TeamNamePropagator;
+import hello.querydsl.support.BasicFixture;
+import hello.querydsl.support.UseFixture;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import javax.persistence.EntityManager;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static hello.querydsl.entity.QMember.member;
+import static hello.querydsl.feed.QChangeEvent.changeEvent;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+
+/**
+ * 변경 피드 테스트
+ *
+ * 커밋된 변경만 기록되는지 확인해야 하므로 @Transactional 없이 실행하고 픽스처 복원으로 정리
+ */
+@SpringBootTest(properties = "change-feed.buffer-size=4")
+@AutoConfigureMockMvc
+@UseFixture(BasicFixture.class)
+class ChangeFeedTest {
+
+    @Autowired
+    MockMvc mockMvc;
+
+    @Autowired
+    TransactionTemplate transactionTemplate;
+
+    @Autowired
+    EntityManager em;
+
+    @Autowired
+    JPAQueryFactory queryFactory;
+
+    @Autowired
+    ChangeFeed changeFeed;
+
+    @Autowired
+    TeamNamePropagator propagator;
+
+    @Autowired
+    JdbcTemplate jdbcTemplate;
+
+    /**
+     * 픽스처 저장도 이벤트를 남기므로 테스트 시작 시점의 마지막 아이디 이후만 확인
+     */
+    Long startId;
+
+    @BeforeEach
+    public void before() {
+
+        Long max = queryFactory.select(changeEvent.id.max()).from(changeEvent).fetchOne();
+
+        startId = max == null ? 0L : max;
+    }
+
+    @Test
+    public void outboxTest() {
+
+        Long memberId = transactionTemplate.execute(status -> {
+
+            Member created = new Member("member5", 50);
+            em.persist(created);
+
+            return created.getId();
+        });
+
+        transactionTemplate.executeWithoutResult(status -> em.find(Member.class, memberId).setUsername("member5-renamed"));
+
+        List<ChangeEvent> events = eventsAfter(startId);
+
+        assertThat(events).extracting(ChangeEvent::getOperation)
+                .containsExactly(ChangeEvent.Operation.INSERT, ChangeEvent.Operation.UPDATE);
+        assertThat(events).extracting(ChangeEvent::getEntityId).containsOnly(memberId);
+        assertThat(events.get(1).getPayload()).contains("\"username\":\"member5-renamed\"");
+    }
+
+    @Test
+    public void rollbackTest() {
+
+        transactionTemplate.executeWithoutResult(status -> {
+
+            em.persist(new Team("teamC"));
+            em.flush();
+
+            status.setRollbackOnly();
+        });
+
+        assertThat(eventsAfter(startId)).isEmpty();
+    }
+
+    @Test
+    public void rangeTest() {
+
+        Long teamAId = queryFactory.select(member.team.id).from(member).where(member.username.eq("member1")).fetchOne();
+        Long member1Id = queryFactory.select(member.id).from(member).where(member.username.eq("member1")).fetchOne();
+        Long member3Id = queryFactory.select(member.id).from(member).where(member.username.eq("member3")).fetchOne();
+
+        // teamA : member1, member3 / teamB : member2 (범위 가운데), member4
+        transactionTemplate.executeWithoutResult(status -> {
+
+            Team teamA = em.find(Team.class, teamAId);
+            Member member2 = queryFactory.selectFrom(member).where(member.username.eq("member2")).fetchOne();
+            Team teamB = queryFactory.select(member.team).from(member).where(member.username.eq("member4")).fetchOne();
+
+            member2.changeTeam(teamB);
+            em.find(Member.class, member3Id).changeTeam(teamA);
+        });
+
+        Long start = queryFactory.select(changeEvent.id.max()).from(changeEvent).fetchOne();
+
+        propagator.propagate(teamAId);
+
+        List<ChangeEvent> events = eventsAfter(start);
+
+        assertThat(events).hasSize(1);
+        assertThat(events.get(0).getOperation()).isEqualTo(ChangeEvent.Operation.UPDATE);
+        assertThat(events.get(0).getEntityId()).isNull();
+
+        // 범위는 배치의 첫 아이디 ~ 마지막 아이디라서 teamB 의 member2 도 포함한다. (상위 집합)
+        assertThat(events.get(0).getFromId()).isEqualTo(member1Id);
+        assertThat(events.get(0).getToId()).isEqualTo(member3Id);
+        assertThat(events.get(0).getPayload())
+                .contains("\"field\":\"teamName\"")
+                .contains("\"teamId\":" + teamAId);
+    }
+
+    @Test
+    public void subscribeTest() throws Exception {
+
+        MvcResult result = mockMvc.perform(get("/v1/changes"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        transactionTemplate.executeWithoutResult(status -> em.persist(new Member("member5", 50)));
+
+        String content = await(result.getResponse(), "member5");
+
+        assertThat(content).contains("event:change").contains("\"operation\":\"INSERT\"");
+    }
+
+    @Test
+    public void replayTest() throws Exception {
+
+        transactionTemplate.executeWithoutResult(status -> em.persist(new Member("member5", 50)));
+
+        // 끊긴 동안 커밋된 이벤트를 Last-Event-ID 이후부터 다시 받는다.
+        MvcResult result = mockMvc.perform(get("/v1/changes").header("Last-Event-ID", startId))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        String content = await(result.getResponse(), "member5");
+
+        assertThat(content).contains("id:" + eventsAfter(startId).get(0).getId());
+    }
+
+    @Test
+    public void replayOutOfOrderCommitTest() {
+
+        long now = System.currentTimeMillis();
+
+        // 오래전에 저장된 이벤트, 먼저 아이디를 받았지만 늦게 커밋된 이벤트, 구독자가 마지막으로 받은 이벤트 순서의 아이디
+        insertEvent(1L, now - 60_000);
+        insertEvent(2L, now);
+        insertEvent(3L, now);
+
+        List<ChangeEvent> events = eventsAfter(startId);
+        Long oldId = events.get(0).getId();
+        Long lateId = events.get(1).getId();
+        Long lastId = events.get(2).getId();
+
+        RecordingEmitter emitter = new RecordingEmitter();
+
+        changeFeed.subscribe(lastId, emitter);
+
+        // 아이디가 더 작아도 Last-Event-ID 이벤트 직전에 저장된 이벤트는 다시 보낸다.
+        assertThat(emitter.sent).anyMatch(event -> event.startsWith("id:" + lateId + "\n"));
+        assertThat(emitter.sent).noneMatch(event -> event.startsWith("id:" + oldId + "\n"));
+        assertThat(emitter.sent).noneMatch(event -> event.startsWith("id:" + lastId + "\n"));
+    }
+
+    @Test
+    public void overflowTest() throws Exception {
+
+        RecordingEmitter emitter = new RecordingEmitter();
+        int subscribers = changeFeed.getSubscriberCount();
+
+        changeFeed.subscribe(null, emitter);
+
+        List<ChangeEvent> events = new ArrayList<>();
+
+        for (long i = 1; i <= 5; i++) {
+
+            ChangeEvent event = new ChangeEvent(ChangeEvent.EntityType.MEMBER, ChangeEvent.Operation.UPDATE, i, null, null, null);
+            event.stored(startId + i, System.currentTimeMillis());
+            events.add(event);
+        }
+
+        // 버퍼(4)를 넘으면 기다리지 않고 reset 후 구독 해제
+        changeFeed.publish(events);
+
+        // 다른 테스트에서 남은 구독자가 있을 수 있으므로 늘어나지 않았는지만 확인
+        assertThat(changeFeed.getSubscriberCount()).isLessThanOrEqualTo(subscribers);
+
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+
+        while (!emitter.completed && System.nanoTime() < deadline) {
+
+            Thread.sleep(10);
+        }
+
+        assertThat(emitter.completed).isTrue();
+        assertThat(emitter.sent).anyMatch(event -> event.contains("event:reset"));
+        assertThat(emitter.sent).noneMatch(event -> event.contains("event:change"));
+    }
+
+    private void insertEvent(Long memberId, long createdAt) {
+
+        jdbcTemplate.update("INSERT INTO change_event (entity_type, operation, entity_id, created_at) VALUES (?, ?, ?, ?)",
+                ChangeEvent.EntityType.MEMBER.name(), ChangeEvent.Operation.UPDATE.name(), memberId, createdAt);
+    }
+
+    private List<ChangeEvent> eventsAfter(Long id) {
+
+        return queryFactory
+                .selectFrom(changeEvent)
+                .where(changeEvent.id.gt(id))
+                .orderBy(changeEvent.id.asc())
+                .fetch();
+    }
+
+    /**
+     * 다른 스레드가 보내므로 기대하는 내용이 올 때까지 기다림
+     */
+    private String await(MockHttpServletResponse response, String expected) throws Exception {
+
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        String content = response.getContentAsString();
+
+        while (!content.contains(expected) && System.nanoTime() < deadline) {
+
+            Thread.sleep(10);
+            content = response.getContentAsString();
+        }
+
+        assertThat(content).contains(expected);
+
+        return content;
+    }
+
+    /**
+     * 보낸 이벤트를 기록만 하는 SseEmitter
+     */
+    static class RecordingEmitter extends SseEmitter {
+
+        final List<String> sent = new ArrayList<>();
+
+        volatile boolean completed;
+
+        @Override
+        public synchronized void send(SseEventBuilder builder) {
+
+            StringBuilder text = new StringBuilder();
+
+            builder.build().forEach(data -> text.append(data.getData()));
+
+            sent.add(text.toString());
+        }
+
+        @Override
+        public synchronized void complete() {
+
+            completed = true;
+        }
+    }
+}
@@ -0,0 +1,134 @@
+package hello.querydsl.importer;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import hello.querydsl.entity.Member;
+import hello.querydsl.support.BasicFixture;
+import hello.querydsl.support.UseFixture;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.web.servlet.MockMvc;
+
+import javax.persistence.EntityManager;
+import java.io.BufferedReader;
+import java.io.StringReader;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.tuple;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * 회원 대량 등록 테스트
+ *
+ * 청크마다 커밋하므로 @Transactional 없이 실행하고 픽스처 복원으로 정리
+ */
+@SpringBootTest(properties = "member-import.chunk-size=2")
+@AutoConfigureMockMvc
+@UseFixture(BasicFixture.class)
+class MemberImporterTest {
+
+    @Autowired
+    MemberImporter memberImporter;
+
+    @Autowired
+    ObjectMapper objectMapper;
+
+    @Autowired
+    EntityManager em;
+
+    @Autowired
+    MockMvc mockMvc;
+
+    @Test
+    public void ndjsonTest() {
+
+        String file = String.join("\n",
+                "{\"username\":\"member5\",\"age\":50,\"teamName\":\"teamA\"}",
+                "{\"username\":\"member6\",\"age\":60}",
+                "",
+                "{\"username\":\"member7\",\"age\":",
+                "{\"username\":\"member8\",\"age\":80,\"teamName\":\"teamC\"}",
+                "{\"username\":\" \",\"age\":90}",
+                "{\"username\":\"member9\",\"age\":90,\"teamName\":\"teamB\"}"
+        );
+
+        List<MemberImportProgress> progresses = new ArrayList<>();
+
+        MemberImportProgress last = memberImporter.importMembers(reader(MemberImportFormat.NDJSON, file), progresses::add);
+
+        assertThat(last.isDone()).isTrue();
+        assertThat(last.getProcessed()).isEqualTo(6);
+        assertThat(last.getImported()).isEqualTo(3);
+        assertThat(last.getFailed()).isEqualTo(3);
+
+        // 청크(2건) 커밋마다 한 번, 마지막 청크(1건), 완료
+        assertThat(progresses).extracting("imported", "done")
+                .containsExactly(tuple(2L, false), tuple(3L, false), tuple(3L, true));
+
+        assertThat(progresses).flatExtracting(MemberImportProgress::getFailures)
+                .extracting("line")
+                .containsExactly(4L, 5L, 6L);
+
+        List<Member> members = em.createQuery("SELECT m FROM Member m LEFT JOIN FETCH m.team WHERE m.age >= 50 ORDER BY m.age", Member.class)
+                                    .getResultList();
+
+        assertThat(members).extracting("username", "age", "teamName")
+                .containsExactly(
+                        tuple("member5", 50, "teamA"),
+                        tuple("member6", 60, null),
+                        tuple("member9", 90, "teamB")
+                );
+
+        assertThat(members.get(0).getTeam().getName()).isEqualTo("teamA");
+    }
+
+    @Test
+    public void csvTest() throws Exception {
+
+        String file = String.join("\n",
+                "teamName,username,age",
+                "teamA,\"kim, \"\"young\"\"\",20",
+                "teamB,member6,abc",
+                ",member7,"
+        );
+
+        String response = mockMvc.perform(post("/v1/members/import")
+                                        .contentType("text/csv")
+                                        .content(file))
+                                .andExpect(status().isOk())
+                                .andReturn()
+                                .getResponse()
+                                .getContentAsString();
+
+        String[] lines = response.split("\n");
+        JsonNode last = objectMapper.readTree(lines[lines.length - 1]);
+
+        assertThat(last.get("done").asBoolean()).isTrue();
+        assertThat(last.get("imported").asLong()).isEqualTo(1);
+        assertThat(last.get("failed").asLong()).isEqualTo(2);
+
+        List<String> usernames = em.createQuery("SELECT m.username FROM Member m WHERE m.team.name = 'teamA' ORDER BY m.id", String.class)
+                                    .getResultList();
+
+        assertThat(usernames).containsExactly("member1", "member2", "kim, \"young\"");
+    }
+
+    @Test
+    public void invalidHeaderTest() throws Exception {
+
+        mockMvc.perform(post("/v1/members/import")
+                        .contentType("text/csv")
+                        .content("name,age\nmember5,50"))
+                .andExpect(status().isBadRequest());
+    }
+
+    private MemberImportReader reader(MemberImportFormat format, String file) {
+
+        return format.reader(new BufferedReader(new StringReader(file)), objectMapper);
+    }
+}
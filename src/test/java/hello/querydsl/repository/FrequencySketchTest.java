@@ -0,0 +1,55 @@
+package hello.querydsl.repository;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class FrequencySketchTest {
+
+    @Test
+    public void incrementTest() {
+
+        FrequencySketch sketch = new FrequencySketch(64);
+
+        for (int i = 1; i <= 5; i++) {
+
+            assertThat(sketch.increment("teamA")).isEqualTo(i);
+        }
+
+        assertThat(sketch.frequency("teamA")).isEqualTo(5);
+        assertThat(sketch.frequency("teamB")).isZero();
+    }
+
+    @Test
+    public void saturateTest() {
+
+        FrequencySketch sketch = new FrequencySketch(64);
+
+        for (int i = 0; i < 100; i++) {
+
+            sketch.increment("teamA");
+        }
+
+        // 4비트 카운터라 15 에서 멈춘다.
+        assertThat(sketch.frequency("teamA")).isEqualTo(15);
+    }
+
+    @Test
+    public void agingTest() {
+
+        FrequencySketch sketch = new FrequencySketch(16);
+
+        for (int i = 0; i < 10; i++) {
+
+            sketch.increment("old");
+        }
+
+        // 올린 횟수가 width * 10 (160) 이 되면 절반으로 줄어든다.
+        for (int i = 0; i < 150; i++) {
+
+            sketch.increment("key" + i);
+        }
+
+        assertThat(sketch.frequency("old")).isLessThan(10);
+    }
+}
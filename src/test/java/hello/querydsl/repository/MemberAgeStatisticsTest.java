@@ -0,0 +1,164 @@
+package hello.querydsl.repository;
+
+import hello.querydsl.dto.MemberTeamDto;
+import hello.querydsl.entity.Member;
+import hello.querydsl.entity.Team;
+import hello.querydsl.support.QueryCount;
+import hello.querydsl.support.QueryCounter;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.persistence.EntityManager;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * 나이 집계 캐시 테스트
+ *
+ * 커밋된 변경만 반영하므로 @Transactional 없이 TransactionTemplate 으로 커밋하고 직접 정리
+ */
+@SpringBootTest
+class MemberAgeStatisticsTest {
+
+    @Autowired
+    EntityManager em;
+
+    @Autowired
+    TransactionTemplate tx;
+
+    @Autowired
+    MemberAgeStatistics ageStatistics;
+
+    @Autowired
+    MemberRepository memberRepository;
+
+    Long teamAId;
+    Long teamBId;
+
+    @BeforeEach
+    public void before() {
+
+        tx.executeWithoutResult(status -> {
+
+            Team teamA = new Team("teamA");
+            Team teamB = new Team("teamB");
+
+            em.persist(teamA);
+            em.persist(teamB);
+
+            em.persist(new Member("member1", 10, teamA));
+            em.persist(new Member("member2", 20, teamA));
+            em.persist(new Member("member3", 30, teamB));
+            em.persist(new Member("member4", 40, teamB));
+
+            teamAId = teamA.getId();
+            teamBId = teamB.getId();
+        });
+
+        ageStatistics.invalidate();
+    }
+
+    @AfterEach
+    public void after() {
+
+        tx.executeWithoutResult(status -> {
+
+            em.createQuery("DELETE FROM Member m").executeUpdate();
+            em.createQuery("DELETE FROM Team t").executeUpdate();
+        });
+
+        ageStatistics.invalidate();
+    }
+
+    @Test
+    public void loadTest() {
+
+        AgeStats global = ageStatistics.global();
+
+        assertThat(global.getCount()).isEqualTo(4);
+        assertThat(global.getMin()).isEqualTo(10);
+        assertThat(global.getMax()).isEqualTo(40);
+        assertThat(global.getAvg()).isEqualTo(25.0);
+
+        assertThat(ageStatistics.team(teamAId).getAvg()).isEqualTo(15.0);
+        assertThat(ageStatistics.team(-1L).isEmpty()).isTrue();
+    }
+
+    @Test
+    public void incrementalTest() {
+
+        // 적재
+        ageStatistics.global();
+
+        tx.executeWithoutResult(status -> {
+
+            Member member4 = memberRepository.findByUsername("member4").get(0);
+
+            // 팀 이동 + 나이 변경
+            member4.setAge(50);
+            member4.changeTeam(em.find(Team.class, teamAId));
+
+            em.persist(new Member("member5", 5, null));
+            em.remove(memberRepository.findByUsername("member1").get(0));
+        });
+
+        // 롤백된 변경은 반영하지 않음
+        tx.executeWithoutResult(status -> {
+
+            em.persist(new Member("member6", 100, null));
+            status.setRollbackOnly();
+        });
+
+        QueryCount count = QueryCounter.count(() -> {
+
+            AgeStats global = ageStatistics.global();
+
+            assertThat(global.getCount()).isEqualTo(4);
+            assertThat(global.getMin()).isEqualTo(5);
+            assertThat(global.getMax()).isEqualTo(50);
+            assertThat(global.getAvg()).isEqualTo(26.25);
+
+            AgeStats teamA = ageStatistics.team(teamAId);
+
+            assertThat(teamA.getCount()).isEqualTo(2);
+            assertThat(teamA.getMin()).isEqualTo(20);
+            assertThat(teamA.getMax()).isEqualTo(50);
+
+            AgeStats teamB = ageStatistics.team(teamBId);
+
+            assertThat(teamB.getCount()).isEqualTo(1);
+            assertThat(teamB.getMax()).isEqualTo(30);
+        });
+
+        // 다시 집계하지 않음
+        assertThat(count.getTotal()).isZero();
+    }
+
+    @Test
+    public void inlineTest() {
+
+        ageStatistics.global();
+        ageStatistics.team(teamBId);
+
+        List<List<MemberTeamDto>> results = new ArrayList<>();
+
+        QueryCount count = QueryCounter.count(() -> {
+
+            results.add(memberRepository.searchOlderThanAverage(null));
+            results.add(memberRepository.searchOldest(teamBId));
+        });
+
+        assertThat(results.get(0)).extracting("username").containsExactlyInAnyOrder("member3", "member4");
+        assertThat(results.get(1)).extracting("username").containsExactly("member4");
+
+        // 서브쿼리 없이 상수 파라미터로 조회
+        assertThat(count.getTotal()).isEqualTo(2);
+        assertThat(count.getStatements()).noneMatch(sql -> sql.contains("avg(") || sql.contains("max("));
+    }
+}
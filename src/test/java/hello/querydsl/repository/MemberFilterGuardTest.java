@@ -0,0 +1,74 @@
+package hello.querydsl.repository;
+
+import com.querydsl.core.BooleanBuilder;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+
+import java.util.Arrays;
+import java.util.Collections;
+
+import static hello.querydsl.entity.QMember.member;
+import static hello.querydsl.entity.QTeam.team;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * 웹 바인딩 조건 비용 제한 테스트
+ */
+class MemberFilterGuardTest {
+
+    MemberFilterGuard filterGuard = new MemberFilterGuard(100, 20, 1000, 3);
+
+    @Test
+    public void selectiveTest() {
+
+        Pageable pageable = filterGuard.guard(team.name.eq("teamA").and(member.age.between(10, 30)), PageRequest.of(0, 50));
+
+        assertThat(pageable.getPageSize()).isEqualTo(50);
+
+        // 최대 페이지 크기 제한
+        assertThat(filterGuard.guard(member.username.in("member1", "member2"), PageRequest.of(0, 500)).getPageSize())
+                .isEqualTo(100);
+    }
+
+    @Test
+    public void unselectiveTest() {
+
+        // 조건 없음
+        assertThat(filterGuard.guard(null, PageRequest.of(0, 50)).getPageSize()).isEqualTo(20);
+        assertThat(filterGuard.guard(new BooleanBuilder(), PageRequest.of(0, 50)).getPageSize()).isEqualTo(20);
+
+        // 인덱스 없는 컬럼 조건만 있으면 페이지 크기를 줄이고, 요청한 위치는 유지
+        Pageable pageable = filterGuard.guard(member.age.goe(10), PageRequest.of(2, 50));
+
+        assertThat(pageable.getPageSize()).isEqualTo(20);
+        assertThat(pageable.getOffset()).isEqualTo(100);
+
+        // OR 는 모든 조건이 선택적이어야 함
+        assertThat(filterGuard.guard(member.username.eq("member1").or(member.age.eq(10)), PageRequest.of(0, 50)).getPageSize())
+                .isEqualTo(20);
+
+        assertThatThrownBy(() -> filterGuard.guard(member.age.goe(10), PageRequest.of(100, 20)))
+                .isInstanceOf(InvalidFilterException.class);
+    }
+
+    @Test
+    public void rejectTest() {
+
+        // 허용하지 않은 컬럼
+        assertThatThrownBy(() -> filterGuard.guard(team.id.eq(1L), PageRequest.of(0, 10)))
+                .isInstanceOf(InvalidFilterException.class);
+
+        // 허용하지 않은 연산 (함수를 씌워 인덱스를 못 타는 조건)
+        assertThatThrownBy(() -> filterGuard.guard(member.username.lower().eq("member1"), PageRequest.of(0, 10)))
+                .isInstanceOf(InvalidFilterException.class);
+
+        // IN 값 개수 제한
+        assertThatThrownBy(() -> filterGuard.guard(member.username.in(Arrays.asList("a", "b", "c", "d")), PageRequest.of(0, 10)))
+                .isInstanceOf(InvalidFilterException.class);
+
+        assertThat(filterGuard.guard(member.username.in(Collections.singletonList("a")), PageRequest.of(0, 10)).getPageSize())
+                .isEqualTo(10);
+    }
+}
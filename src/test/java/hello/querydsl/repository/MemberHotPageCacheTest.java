@@ -0,0 +1,190 @@
+package hello.querydsl.repository;
+
+import hello.querydsl.dto.MemberSearchCondition;
+import hello.querydsl.dto.MemberTeamDto;
+import hello.querydsl.entity.Member;
+import hello.querydsl.entity.Team;
+import hello.querydsl.support.BasicFixture;
+import hello.querydsl.support.QueryCount;
+import hello.querydsl.support.QueryCounter;
+import hello.querydsl.support.UseFixture;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.persistence.EntityManager;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * 첫 페이지 캐시 테스트
+ *
+ * 커밋된 쓰기로 캐시가 바뀌는지 확인해야 하므로 @Transactional 없이 실행하고 픽스처 복원으로 정리
+ * 백그라운드 갱신은 주기를 길게 잡고 refresh() 를 직접 호출한다.
+ */
+@SpringBootTest(properties = {
+        "member-hot-page.min-frequency=2",
+        "member-hot-page.top-k=2",
+        "member-hot-page.refresh-millis=3600000"
+})
+@UseFixture(BasicFixture.class)
+class MemberHotPageCacheTest {
+
+    @Autowired
+    MemberHotPageCache cache;
+
+    @Autowired
+    TransactionTemplate transactionTemplate;
+
+    @Autowired
+    EntityManager em;
+
+    @Autowired
+    MeterRegistry meterRegistry;
+
+    @BeforeEach
+    public void before() {
+
+        cache.clear();
+    }
+
+    @Test
+    public void hitTest() {
+
+        MemberSearchCondition condition = condition("teamA");
+
+        cache.searchPage(condition, PageRequest.of(0, 10));
+        cache.searchPage(condition, PageRequest.of(0, 10));
+
+        // 공백만 다른 조건도 같은 키
+        QueryCount count = QueryCounter.count(() -> {
+
+            Page<MemberTeamDto> page = cache.searchPage(condition(" teamA "), PageRequest.of(0, 10));
+
+            assertThat(page.getContent()).extracting("username").containsExactly("member1", "member2");
+            assertThat(page.getTotalElements()).isEqualTo(2);
+        });
+
+        assertThat(count.getTotal()).isZero();
+        assertThat(meterRegistry.get("member.hot-page.hit-ratio").gauge().value()).isGreaterThan(0);
+    }
+
+    @Test
+    public void otherPageTest() {
+
+        MemberSearchCondition condition = condition("teamA");
+
+        for (int i = 0; i < 3; i++) {
+
+            cache.searchPage(condition, PageRequest.of(1, 1));
+        }
+
+        QueryCount count = QueryCounter.count(() -> cache.searchPage(condition, PageRequest.of(1, 1)));
+
+        assertThat(count.getTotal()).isPositive();
+    }
+
+    @Test
+    public void writeTest() {
+
+        MemberSearchCondition condition = condition("teamA");
+
+        cache.searchPage(condition, PageRequest.of(0, 10));
+        cache.searchPage(condition, PageRequest.of(0, 10));
+
+        addMember("member5", "teamA");
+
+        // 쓰기 후에는 오래된 페이지로 응답하지 않는다.
+        QueryCount count = QueryCounter.count(() -> assertThat(cache.searchPage(condition, PageRequest.of(0, 10)).getTotalElements()).isEqualTo(3));
+
+        assertThat(count.getTotal()).isPositive();
+    }
+
+    @Test
+    public void refreshTest() {
+
+        MemberSearchCondition condition = condition("teamA");
+
+        cache.searchPage(condition, PageRequest.of(0, 10));
+        cache.searchPage(condition, PageRequest.of(0, 10));
+
+        addMember("member5", "teamA");
+
+        cache.refresh();
+
+        assertThat(meterRegistry.get("member.hot-page.staleness").gauge().value()).isZero();
+
+        // 백그라운드 갱신 후에는 쿼리 없이 새 페이지로 응답
+        QueryCount count = QueryCounter.count(() -> {
+
+            Page<MemberTeamDto> page = cache.searchPage(condition, PageRequest.of(0, 10));
+
+            assertThat(page.getContent()).extracting("username").containsExactly("member1", "member2", "member5");
+            assertThat(page.getTotalElements()).isEqualTo(3);
+        });
+
+        assertThat(count.getTotal()).isZero();
+    }
+
+    @Test
+    public void evictTest() {
+
+        // 빈도는 테스트끼리 공유하므로 다른 테스트에서 쓰지 않는 조건 사용
+        MemberSearchCondition age10 = ageGoe(10);
+        MemberSearchCondition age20 = ageGoe(20);
+        MemberSearchCondition age30 = ageGoe(30);
+
+        for (int i = 0; i < 2; i++) {
+
+            cache.searchPage(age10, PageRequest.of(0, 10));
+        }
+
+        for (int i = 0; i < 3; i++) {
+
+            cache.searchPage(age20, PageRequest.of(0, 10));
+        }
+
+        // top-k(2) 가 찼으므로 가장 적게 조회된 age10 과 교체
+        for (int i = 0; i < 4; i++) {
+
+            cache.searchPage(age30, PageRequest.of(0, 10));
+        }
+
+        assertThat(QueryCounter.count(() -> cache.searchPage(age30, PageRequest.of(0, 10))).getTotal()).isZero();
+        assertThat(QueryCounter.count(() -> cache.searchPage(age20, PageRequest.of(0, 10))).getTotal()).isZero();
+        assertThat(QueryCounter.count(() -> cache.searchPage(age10, PageRequest.of(0, 10))).getTotal()).isPositive();
+    }
+
+    private void addMember(String username, String teamName) {
+
+        transactionTemplate.executeWithoutResult(status -> {
+
+            Team found = em.createQuery("select t from Team t where t.name = :name", Team.class)
+                            .setParameter("name", teamName)
+                            .getSingleResult();
+
+            em.persist(new Member(username, 50, found));
+        });
+    }
+
+    private static MemberSearchCondition condition(String teamName) {
+
+        MemberSearchCondition condition = new MemberSearchCondition();
+        condition.setTeamName(teamName);
+
+        return condition;
+    }
+
+    private static MemberSearchCondition ageGoe(int age) {
+
+        MemberSearchCondition condition = new MemberSearchCondition();
+        condition.setAgeGoe(age);
+
+        return condition;
+    }
+}
@@ -4,6 +4,8 @@ import hello.querydsl.dto.MemberSearchCondition;
 import hello.querydsl.dto.MemberTeamDto;
 import hello.querydsl.entity.Member;
 import hello.querydsl.entity.Team;
+import hello.querydsl.support.QueryCount;
+import hello.querydsl.support.QueryCounter;
 import org.assertj.core.api.Assertions;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -99,4 +101,44 @@ class MemberJpaRepositoryTest {
                 .containsExactly("member4");
 
     }
-}
\ No newline at end of file
+
+    /**
+     * 엔티티 조회 후 지연 로딩으로 팀에 접근하면 N+1 발생
+     * DTO 로 조회하면 쿼리 1번
+     */
+    @Test
+    public void nPlusOneTest() {
+
+        Team teamA = new Team("teamA");
+        Team teamB = new Team("teamB");
+
+        em.persist(teamA);
+        em.persist(teamB);
+
+        em.persist(new Member("member1", 10, teamA));
+        em.persist(new Member("member2", 20, teamA));
+        em.persist(new Member("member3", 30, teamB));
+        em.persist(new Member("member4", 40, teamB));
+
+        em.flush();
+        em.clear();
+
+        MemberSearchCondition condition = new MemberSearchCondition();
+
+        QueryCount entityCount = QueryCounter.count(() -> {
+
+            for (Member member : memberJpaRepository.searchMember(condition)) {
+
+                member.getTeam().getName();
+            }
+        });
+
+        assertThat(entityCount.hasNPlusOne()).isTrue();
+        assertThat(entityCount.getTotal()).isEqualTo(3);
+
+        QueryCount dtoCount = QueryCounter.count(() -> memberJpaRepository.search(condition));
+
+        assertThat(dtoCount.hasNPlusOne()).isFalse();
+        assertThat(dtoCount.getTotal()).isEqualTo(1);
+    }
+}
@@ -0,0 +1,127 @@
+package hello.querydsl.repository;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import hello.querydsl.support.BasicFixture;
+import hello.querydsl.support.UseFixture;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.hamcrest.Matchers.containsString;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * 회원 페이징 조회 위치 제한과 after 조회 테스트
+ */
+@SpringBootTest(properties = "member-paging.max-offset=2")
+@AutoConfigureMockMvc
+@UseFixture(BasicFixture.class)
+class MemberPagingGuardTest {
+
+    @Autowired
+    MockMvc mockMvc;
+
+    @Autowired
+    ObjectMapper objectMapper;
+
+    @Autowired
+    MeterRegistry meterRegistry;
+
+    @Test
+    public void deepOffsetTest() throws Exception {
+
+        double rejected = count("rejected");
+
+        mockMvc.perform(get("/v3/members?page=2&size=1"))
+                .andExpect(status().isOk());
+
+        MvcResult result = mockMvc.perform(get("/v3/members?page=3&size=1"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.status").value(400))
+                .andExpect(jsonPath("$.message", containsString("after=")))
+                .andReturn();
+
+        assertThat(result.getResolvedException())
+                .isInstanceOf(DeepOffsetException.class)
+                .hasMessageContaining("after=");
+
+        mockMvc.perform(get("/v2/members?page=1&size=3")).andExpect(status().isBadRequest());
+        mockMvc.perform(get("/v2/members?page=1&size=3&fields=username")).andExpect(status().isBadRequest());
+        mockMvc.perform(get("/v4/members?page=1&size=3")).andExpect(status().isBadRequest());
+        mockMvc.perform(get("/v5/members?page=1&size=3")).andExpect(status().isBadRequest());
+
+        assertThat(count("rejected") - rejected).isEqualTo(5);
+    }
+
+    @Test
+    public void afterTest() throws Exception {
+
+        double keyset = count("keyset");
+
+        List<String> usernames = new ArrayList<>();
+        String url = "/v3/members?size=3&after=0";
+
+        MvcResult first = mockMvc.perform(get(url))
+                .andExpect(status().isOk())
+                .andReturn();
+
+        JsonNode page = objectMapper.readTree(first.getResponse().getContentAsString());
+        page.get("content").forEach(member -> usernames.add(member.get("username").asText()));
+
+        assertThat(page.get("last").asBoolean()).isFalse();
+
+        long lastId = page.get("content").get(2).get("memberId").asLong();
+        String next = "http://localhost/v3/members?size=3&after=" + lastId;
+
+        assertThat(first.getResponse().getHeader(HttpHeaders.LINK)).isEqualTo("<" + next + ">; rel=\"next\"");
+
+        MvcResult second = mockMvc.perform(get(next))
+                .andExpect(status().isOk())
+                .andExpect(header().doesNotExist(HttpHeaders.LINK))
+                .andReturn();
+
+        objectMapper.readTree(second.getResponse().getContentAsString())
+                .get("content").forEach(member -> usernames.add(member.get("username").asText()));
+
+        assertThat(usernames).containsExactly("member1", "member2", "member3", "member4");
+        assertThat(count("keyset") - keyset).isEqualTo(2);
+    }
+
+    @Test
+    public void afterConditionTest() throws Exception {
+
+        MvcResult result = mockMvc.perform(get("/v2/members?teamName=teamB&after=0&page=100"))
+                .andExpect(status().isOk())
+                .andReturn();
+
+        JsonNode content = objectMapper.readTree(result.getResponse().getContentAsString()).get("content");
+
+        assertThat(content).hasSize(2);
+        assertThat(content.get(0).get("username").asText()).isEqualTo("member3");
+
+        // 회원 아이디 순서로만 조회 가능
+        mockMvc.perform(get("/v4/members?after=0&sort=username"))
+                .andExpect(status().isBadRequest());
+
+        mockMvc.perform(get("/v4/members?after=0&sort=id,asc"))
+                .andExpect(status().isOk());
+    }
+
+    private double count(String outcome) {
+
+        return meterRegistry.get("querydsl.paging").tag("outcome", outcome).counter().count();
+    }
+}
@@ -0,0 +1,98 @@
+package hello.querydsl.repository;
+
+import hello.querydsl.dto.MemberSearchCondition;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import static hello.querydsl.entity.QMember.member;
+import static hello.querydsl.entity.QTeam.team;
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * 검색 조건 변환 테스트
+ */
+class MemberPredicateCompilerTest {
+
+    MeterRegistry registry = new SimpleMeterRegistry();
+    MemberPredicateCompiler predicateCompiler = new MemberPredicateCompiler(registry, new TeamNameColumn(false));
+
+    @Test
+    public void normalizeTest() {
+
+        MemberSearchCondition condition = new MemberSearchCondition();
+        condition.setUsername("  member1 ");
+        condition.setTeamName(" ");
+        condition.setAgeGoe(20);
+        condition.setAgeLoe(20);
+
+        MemberPredicate predicate = predicateCompiler.compile(condition);
+
+        assertThat(predicate.getWhere()).containsExactly(member.username.eq("member1"), member.age.eq(20));
+        assertThat(predicate.requiresTeamJoin()).isFalse();
+        assertThat(predicate.isImpossible()).isFalse();
+    }
+
+    @Test
+    public void reuseTest() {
+
+        MemberSearchCondition condition = new MemberSearchCondition();
+        condition.setTeamName("teamB");
+        condition.setAgeGoe(35);
+
+        MemberSearchCondition same = new MemberSearchCondition();
+        same.setTeamName(" teamB ");
+        same.setAgeGoe(35);
+
+        MemberPredicate predicate = predicateCompiler.compile(condition);
+
+        assertThat(predicate.getWhere()).containsExactly(team.name.eq("teamB"), member.age.goe(35));
+        assertThat(predicate.requiresTeamJoin()).isTrue();
+
+        // 정규화 결과가 같으면 변환 결과 재사용
+        assertThat(predicateCompiler.compile(same)).isSameAs(predicate);
+
+        assertThat(count("compiled")).isEqualTo(1);
+        assertThat(count("reused")).isEqualTo(1);
+    }
+
+    @Test
+    public void denormalizedTest() {
+
+        MemberPredicateCompiler denormalized = new MemberPredicateCompiler(registry, new TeamNameColumn(true));
+
+        MemberSearchCondition condition = new MemberSearchCondition();
+        condition.setTeamName("teamB");
+
+        MemberPredicate predicate = denormalized.compile(condition);
+
+        // team 조인 없이 역정규화 컬럼으로 검색
+        assertThat(predicate.getWhere()).containsExactly(member.teamName.eq("teamB"));
+        assertThat(predicate.requiresTeamJoin()).isFalse();
+    }
+
+    @Test
+    public void impossibleTest() {
+
+        MemberSearchCondition condition = new MemberSearchCondition();
+        condition.setAgeGoe(40);
+        condition.setAgeLoe(30);
+
+        MemberPredicate predicate = predicateCompiler.compile(condition);
+
+        assertThat(predicate.isImpossible()).isTrue();
+        assertThat(count("short-circuit")).isEqualTo(1);
+    }
+
+    @Test
+    public void emptyTest() {
+
+        assertThat(predicateCompiler.compile(new MemberSearchCondition()).getWhere()).isEmpty();
+        assertThat(predicateCompiler.compile(null).getWhere()).isEmpty();
+    }
+
+    private double count(String result) {
+
+        return registry.get("querydsl.predicate").tag("result", result).counter().count();
+    }
+}
@@ -1,16 +1,27 @@
 package hello.querydsl.repository;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
 import hello.querydsl.dto.MemberSearchCondition;
 import hello.querydsl.dto.MemberTeamDto;
+import hello.querydsl.dto.MemberTeamRow;
 import hello.querydsl.entity.Member;
 import hello.querydsl.entity.QMember;
+import hello.querydsl.entity.QTeam;
 import hello.querydsl.entity.Team;
+import hello.querydsl.support.QueryCount;
+import hello.querydsl.support.QueryCounter;
 import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.Slice;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.transaction.annotation.Transactional;
 
 import javax.persistence.EntityManager;
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
 
 import static org.assertj.core.api.Assertions.assertThat;
@@ -83,6 +94,256 @@ class MemberRepositoryTest {
 
     }
 
+    /**
+     * 카운트 쿼리 없는 Slice 조회 테스트
+     */
+    @Test
+    public void searchSliceTest() {
+
+        Team teamA = new Team("teamA");
+        Team teamB = new Team("teamB");
+
+        em.persist(teamA);
+        em.persist(teamB);
+
+        Member member1 = new Member("member1", 10, teamA);
+        Member member2 = new Member("member2", 20, teamA);
+
+        Member member3 = new Member("member3", 30, teamB);
+        Member member4 = new Member("member4", 40, teamB);
+
+        em.persist(member1);
+        em.persist(member2);
+        em.persist(member3);
+        em.persist(member4);
+
+        MemberSearchCondition condition = new MemberSearchCondition();
+
+        Slice<MemberTeamDto> first = memberRepository.searchSlice(condition, PageRequest.of(0, 3));
+
+        assertThat(first.getContent()).hasSize(3);
+        assertThat(first.hasNext()).isTrue();
+
+        Slice<MemberTeamDto> last = memberRepository.searchSlice(condition, PageRequest.of(1, 3));
+
+        assertThat(last.getContent()).hasSize(1);
+        assertThat(last.hasNext()).isFalse();
+    }
+
+    /**
+     * 페이징 쿼리 실행 횟수 테스트
+     */
+    @Test
+    public void searchPageQueryBudgetTest() {
+
+        Team teamA = new Team("teamA");
+        Team teamB = new Team("teamB");
+
+        em.persist(teamA);
+        em.persist(teamB);
+
+        em.persist(new Member("member1", 10, teamA));
+        em.persist(new Member("member2", 20, teamA));
+        em.persist(new Member("member3", 30, teamB));
+        em.persist(new Member("member4", 40, teamB));
+
+        em.flush();
+        em.clear();
+
+        MemberSearchCondition condition = new MemberSearchCondition();
+
+        // 데이터 조회 쿼리 + 카운트 쿼리
+        QueryCount complex = QueryCounter.count(() -> memberRepository.searchPageComplex(condition, PageRequest.of(0, 2)));
+        assertThat(complex.getTotal()).isLessThanOrEqualTo(2);
+
+        // 첫 페이지의 데이터가 페이지 크기보다 작으면 카운트 쿼리 생략
+        QueryCount lastPage = QueryCounter.count(() -> memberRepository.searchPageComplex(condition, PageRequest.of(0, 10)));
+        assertThat(lastPage.getTotal()).isEqualTo(1);
+
+        // Slice 는 카운트 쿼리 없음
+        QueryCount slice = QueryCounter.count(() -> memberRepository.searchSlice(condition, PageRequest.of(0, 2)));
+        assertThat(slice.getTotal()).isEqualTo(1);
+    }
+
+    /**
+     * 선택한 필드만 조회 테스트
+     */
+    @Test
+    public void searchPageFieldsTest() throws Exception {
+
+        Team teamA = new Team("teamA");
+
+        em.persist(teamA);
+
+        em.persist(new Member("member1", 10, teamA));
+        em.persist(new Member("member2", 20, teamA));
+        em.persist(new Member("member3", 30, null));
+
+        em.flush();
+        em.clear();
+
+        MemberSearchCondition condition = new MemberSearchCondition();
+        condition.setAgeGoe(15);
+
+        List<Page<MemberTeamRow>> pages = new ArrayList<>();
+
+        QueryCount count = QueryCounter.count(() -> pages.add(memberRepository.searchPageFields(
+                condition,
+                MemberTeamFields.parse("username,age,teamId"),
+                PageRequest.of(0, 10, Sort.by("username"))
+        )));
+
+        Page<MemberTeamRow> result = pages.get(0);
+
+        assertThat(result.getTotalElements()).isEqualTo(2);
+        assertThat(result.getContent()).extracting(row -> row.get("username")).containsExactly("member2", "member3");
+
+        // team 조인 없이 조회
+        assertThat(count.getTotal()).isEqualTo(1);
+        assertThat(count.getStatements().get(0)).doesNotContainIgnoringCase("join");
+
+        // 선택한 필드만 직렬화
+        assertThat(new ObjectMapper().writeValueAsString(result.getContent()))
+                .isEqualTo("[{\"username\":\"member2\",\"age\":20,\"teamId\":" + teamA.getId() + "},"
+                        + "{\"username\":\"member3\",\"age\":30,\"teamId\":null}]");
+    }
+
+    /**
+     * 여러 검색 조건을 한 번에 조회 테스트
+     */
+    @Test
+    public void searchAllTest() {
+
+        Team teamA = new Team("teamA");
+        Team teamB = new Team("teamB");
+
+        em.persist(teamA);
+        em.persist(teamB);
+
+        em.persist(new Member("member1", 10, teamA));
+        em.persist(new Member("member2", 20, teamA));
+        em.persist(new Member("member3", 30, teamB));
+        em.persist(new Member("member4", 40, null));
+
+        em.flush();
+        em.clear();
+
+        MemberSearchCondition byTeam = new MemberSearchCondition();
+        byTeam.setTeamName("teamA");
+
+        MemberSearchCondition byAge = new MemberSearchCondition();
+        byAge.setAgeGoe(30);
+
+        MemberSearchCondition byUsername = new MemberSearchCondition();
+        byUsername.setUsername(" member2 ");
+
+        MemberSearchCondition impossible = new MemberSearchCondition();
+        impossible.setAgeGoe(40);
+        impossible.setAgeLoe(10);
+
+        List<List<MemberTeamDto>> results = new ArrayList<>();
+
+        QueryCount count = QueryCounter.count(() -> results.addAll(
+                memberRepository.searchAll(Arrays.asList(byTeam, byAge, byUsername, impossible, byTeam))
+        ));
+
+        assertThat(count.getTotal()).isEqualTo(1);
+
+        assertThat(results).hasSize(5);
+        assertThat(results.get(0)).extracting("username").containsExactlyInAnyOrder("member1", "member2");
+        assertThat(results.get(1)).extracting("username").containsExactlyInAnyOrder("member3", "member4");
+        assertThat(results.get(2)).extracting("username").containsExactly("member2");
+        assertThat(results.get(3)).isEmpty();
+        assertThat(results.get(4)).extracting("username").containsExactlyInAnyOrder("member1", "member2");
+    }
+
+    /**
+     * 결과가 없는 검색 조건은 쿼리를 실행하지 않음
+     */
+    @Test
+    public void impossibleConditionTest() {
+
+        em.persist(new Member("member1", 10, null));
+
+        MemberSearchCondition condition = new MemberSearchCondition();
+        condition.setAgeGoe(40);
+        condition.setAgeLoe(30);
+
+        QueryCount count = QueryCounter.count(() -> {
+
+            assertThat(memberRepository.search(condition)).isEmpty();
+            assertThat(memberRepository.searchPageComplex(condition, PageRequest.of(0, 10)).getTotalElements()).isZero();
+            assertThat(memberRepository.searchSlice(condition, PageRequest.of(0, 10)).hasNext()).isFalse();
+        });
+
+        assertThat(count.getTotal()).isZero();
+    }
+
+    /**
+     * 웹 바인딩 조건으로 MemberTeamDto 조회 테스트
+     */
+    @Test
+    public void searchByPredicateTest() {
+
+        Team teamA = new Team("teamA");
+        Team teamB = new Team("teamB");
+
+        em.persist(teamA);
+        em.persist(teamB);
+
+        em.persist(new Member("member1", 10, teamA));
+        em.persist(new Member("member2", 20, teamA));
+        em.persist(new Member("member3", 30, teamB));
+        em.persist(new Member("member4", 40, null));
+
+        Slice<MemberTeamDto> result = memberRepository.searchByPredicate(
+                QTeam.team.name.eq("teamA").and(QMember.member.age.between(15, 40)),
+                PageRequest.of(0, 10)
+        );
+
+        assertThat(result.getContent()).extracting("username").containsExactly("member2");
+
+        // 조건이 없으면 페이지 크기를 줄여서 조회 (팀이 없는 회원 포함)
+        Slice<MemberTeamDto> all = memberRepository.searchByPredicate(null, PageRequest.of(0, 1000, Sort.by("username")));
+
+        assertThat(all.getSize()).isEqualTo(20);
+        assertThat(all.getContent()).extracting("username").containsExactly("member1", "member2", "member3", "member4");
+    }
+
+    /**
+     * 허용한 프로퍼티로 정렬한 페이징 테스트
+     */
+    @Test
+    public void searchPageSortTest() {
+
+        Team teamA = new Team("teamA");
+        Team teamB = new Team("teamB");
+
+        em.persist(teamA);
+        em.persist(teamB);
+
+        em.persist(new Member("member1", 10, teamA));
+        em.persist(new Member("member2", 20, teamA));
+        em.persist(new Member("member3", 30, teamB));
+        em.persist(new Member("member4", 40, teamB));
+
+        MemberSearchCondition condition = new MemberSearchCondition();
+
+        Page<MemberTeamDto> result = memberRepository.searchPageComplex(
+                condition,
+                PageRequest.of(0, 3, Sort.by(Sort.Order.desc("teamName"), Sort.Order.desc("username")))
+        );
+
+        assertThat(result.getContent())
+                .extracting("username")
+                .containsExactly("member4", "member3", "member2");
+
+        assertThrows(
+                InvalidSortException.class,
+                () -> memberRepository.searchPageComplex(condition, PageRequest.of(0, 3, Sort.by("age")))
+        );
+    }
+
     /**
      * 스프링 데이터 JPA 가 제공하는 Querydsl 기능 테스트
      */
@@ -0,0 +1,73 @@
+package hello.querydsl.repository;
+
+import com.querydsl.core.types.OrderSpecifier;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.Sort;
+
+import static hello.querydsl.entity.QMember.member;
+import static hello.querydsl.entity.QTeam.team;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * 정렬 조건 변환 테스트
+ */
+class MemberSortCompilerTest {
+
+    MemberSortCompiler sortCompiler = new MemberSortCompiler(new String[0], new TeamNameColumn(false));
+
+    @Test
+    public void compileTest() {
+
+        Sort sort = Sort.by(Sort.Order.desc("teamName"), Sort.Order.asc("username").nullsLast());
+
+        OrderSpecifier<?>[] orderSpecifiers = sortCompiler.compile(sort);
+
+        assertThat(orderSpecifiers).containsExactly(team.name.desc(), member.username.asc().nullsLast());
+        assertThat(sortCompiler.requiresTeamJoin(sort)).isTrue();
+
+        // 같은 Sort 는 캐시된 결과 사용
+        assertThat(sortCompiler.compile(Sort.by(Sort.Order.desc("teamName"), Sort.Order.asc("username").nullsLast())))
+                .isSameAs(orderSpecifiers);
+    }
+
+    @Test
+    public void denormalizedTest() {
+
+        MemberSortCompiler denormalized = new MemberSortCompiler(new String[0], new TeamNameColumn(true));
+
+        assertThat(denormalized.compile(Sort.by("teamName"))).containsExactly(member.teamName.asc());
+        assertThat(denormalized.requiresTeamJoin(Sort.by("teamName"))).isFalse();
+    }
+
+    @Test
+    public void unsortedTest() {
+
+        assertThat(sortCompiler.compile(Sort.unsorted())).isEmpty();
+        assertThat(sortCompiler.requiresTeamJoin(Sort.unsorted())).isFalse();
+    }
+
+    @Test
+    public void rejectTest() {
+
+        // 허용하지 않은 프로퍼티
+        assertThatThrownBy(() -> sortCompiler.compile(Sort.by("team.id")))
+                .isInstanceOf(InvalidSortException.class);
+
+        // 인덱스가 없는 컬럼
+        assertThatThrownBy(() -> sortCompiler.compile(Sort.by("age")))
+                .isInstanceOf(InvalidSortException.class);
+
+        // 대소문자 무시 정렬
+        assertThatThrownBy(() -> sortCompiler.compile(Sort.by(Sort.Order.asc("username").ignoreCase())))
+                .isInstanceOf(InvalidSortException.class);
+    }
+
+    @Test
+    public void allowUnindexedTest() {
+
+        MemberSortCompiler allowAge = new MemberSortCompiler(new String[]{"age"}, new TeamNameColumn(false));
+
+        assertThat(allowAge.compile(Sort.by("age"))).containsExactly(member.age.asc());
+    }
+}
@@ -0,0 +1,65 @@
+package hello.querydsl.repository;
+
+import org.junit.jupiter.api.Test;
+
+import static hello.querydsl.entity.QMember.member;
+import static hello.querydsl.entity.QTeam.team;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * 필드 선택 테스트
+ */
+class MemberTeamFieldsTest {
+
+    @Test
+    public void parseTest() {
+
+        MemberTeamFields fields = MemberTeamFields.parse("age, username");
+
+        // MemberTeamDto 필드 순서
+        assertThat(fields.getNames()).containsExactly("username", "age");
+        assertThat(fields.getExpressions(false)).containsExactly(member.username, member.age);
+        assertThat(fields.requiresTeamJoin(false)).isFalse();
+
+        // 같은 조합은 같은 인스턴스
+        assertThat(MemberTeamFields.parse("username,age")).isSameAs(fields);
+    }
+
+    @Test
+    public void teamJoinTest() {
+
+        assertThat(MemberTeamFields.parse("teamId").requiresTeamJoin(false)).isFalse();
+        assertThat(MemberTeamFields.parse("username,teamName").getExpressions(false)).containsExactly(member.username, team.name);
+        assertThat(MemberTeamFields.parse("username,teamName").requiresTeamJoin(false)).isTrue();
+
+        // 역정규화 컬럼을 사용하면 조인 없음
+        assertThat(MemberTeamFields.parse("username,teamName").getExpressions(true)).containsExactly(member.username, member.teamName);
+        assertThat(MemberTeamFields.parse("username,teamName").requiresTeamJoin(true)).isFalse();
+    }
+
+    @Test
+    public void allTest() {
+
+        assertThat(MemberTeamFields.parse(null)).isSameAs(MemberTeamFields.ALL);
+        assertThat(MemberTeamFields.parse(" ")).isSameAs(MemberTeamFields.ALL);
+        assertThat(MemberTeamFields.ALL.getNames()).containsExactly("memberId", "username", "age", "teamId", "teamName");
+    }
+
+    @Test
+    public void invalidTest() {
+
+        assertThatThrownBy(() -> MemberTeamFields.parse("username,password"))
+                .isInstanceOf(InvalidFieldsException.class);
+    }
+
+    @Test
+    public void emptyTokensTest() {
+
+        // 쉼표만 있으면 선택한 필드가 없다
+        assertThatThrownBy(() -> MemberTeamFields.parse(","))
+                .isInstanceOf(InvalidFieldsException.class);
+        assertThatThrownBy(() -> MemberTeamFields.parse(" , ,"))
+                .isInstanceOf(InvalidFieldsException.class);
+    }
+}
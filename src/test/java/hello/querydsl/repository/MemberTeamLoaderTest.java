@@ -0,0 +1,176 @@
+package hello.querydsl.repository;
+
+import hello.querydsl.dto.MemberTeamDto;
+import hello.querydsl.entity.Member;
+import hello.querydsl.support.BasicFixture;
+import hello.querydsl.support.QueryCount;
+import hello.querydsl.support.QueryCounter;
+import hello.querydsl.support.UseFixture;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * 회원 아이디 조회 모으기 테스트
+ *
+ * 조회 시간 창을 길게 잡아서 동시에 요청한 아이디가 한 번에 모이도록 한다.
+ */
+@SpringBootTest(properties = {"member-loader.window-micros=200000", "member-loader.chunk-size=2"})
+@AutoConfigureMockMvc
+@UseFixture(BasicFixture.class)
+class MemberTeamLoaderTest {
+
+    @Autowired
+    MemberTeamLoader memberTeamLoader;
+
+    @Autowired
+    MemberRepository memberRepository;
+
+    @Autowired
+    MeterRegistry meterRegistry;
+
+    @Autowired
+    MockMvc mockMvc;
+
+    Map<String, Long> ids = new HashMap<>();
+
+    @BeforeEach
+    public void before() {
+
+        for (Member member : memberRepository.findAll()) {
+
+            ids.put(member.getUsername(), member.getId());
+        }
+    }
+
+    @Test
+    public void coalesceTest() {
+
+        long queries = queryCount();
+
+        List<Long> requests = Arrays.asList(
+                ids.get("member1"), ids.get("member2"), ids.get("member1"), ids.get("member3"),
+                ids.get("member4"), ids.get("member2"), -1L, ids.get("member4")
+        );
+
+        ExecutorService clients = Executors.newFixedThreadPool(requests.size());
+        List<CompletableFuture<MemberTeamDto>> futures = new ArrayList<>();
+
+        try {
+
+            for (Long id : requests) {
+
+                futures.add(CompletableFuture.supplyAsync(() -> memberTeamLoader.load(id).join(), clients));
+            }
+
+            List<String> usernames = new ArrayList<>();
+
+            for (CompletableFuture<MemberTeamDto> future : futures) {
+
+                MemberTeamDto member = future.join();
+
+                usernames.add(member == null ? null : member.getUsername());
+            }
+
+            assertThat(usernames).containsExactly("member1", "member2", "member1", "member3", "member4", "member2", null, "member4");
+        } finally {
+
+            clients.shutdownNow();
+        }
+
+        // 중복을 뺀 아이디 5개를 2개씩 조회
+        assertThat(queryCount() - queries).isEqualTo(3);
+    }
+
+    @Test
+    public void loadAllTest() {
+
+        Map<Long, MemberTeamDto> members = memberTeamLoader.loadAll(Arrays.asList(ids.get("member3"), -1L, ids.get("member1"), ids.get("member3"))).join();
+
+        assertThat(members.keySet()).containsExactly(ids.get("member3"), ids.get("member1"));
+        assertThat(members.get(ids.get("member1")).getTeamName()).isEqualTo("teamA");
+    }
+
+    @Test
+    public void shutdownTest() {
+
+        MemberLoaderSettings settings = new MemberLoaderSettings();
+        settings.setWindowMicros(60_000_000);
+
+        MemberTeamLoader loader = new MemberTeamLoader(memberRepository, settings, new SimpleMeterRegistry());
+
+        // 조회 시간 창이 끝나기 전에 종료
+        CompletableFuture<MemberTeamDto> waiting = loader.load(ids.get("member1"));
+
+        loader.shutdown();
+
+        assertThatThrownBy(waiting::join)
+                .isInstanceOf(CompletionException.class)
+                .hasCauseInstanceOf(RejectedExecutionException.class);
+
+        // 종료 후 요청
+        assertThatThrownBy(() -> loader.loadAll(Arrays.asList(ids.get("member1"), ids.get("member2"))).join())
+                .isInstanceOf(CompletionException.class)
+                .hasCauseInstanceOf(RejectedExecutionException.class);
+    }
+
+    @Test
+    public void inClausePaddingTest() {
+
+        QueryCount count = QueryCounter.count(() -> memberRepository.searchByIds(Arrays.asList(ids.get("member1"), ids.get("member2"), ids.get("member3"))));
+
+        String sql = count.getStatements().get(0);
+        String body = sql.substring(sql.indexOf("*/") + 2);
+
+        // 아이디 3개를 4개로 채워서 조회
+        assertThat(body.chars().filter(c -> c == '?').count()).isEqualTo(4);
+    }
+
+    @Test
+    public void endpointTest() throws Exception {
+
+        mockMvc.perform(get("/v1/members/batch").param("ids", ids.get("member3") + "," + ids.get("member1") + "," + ids.get("member3") + ",999999"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(2))
+                .andExpect(jsonPath("$[0].username").value("member3"))
+                .andExpect(jsonPath("$[1].username").value("member1"));
+
+        mockMvc.perform(get("/v1/members/" + ids.get("member2")))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.username").value("member2"))
+                .andExpect(jsonPath("$.teamName").value("teamA"));
+
+        mockMvc.perform(get("/v1/members/999999"))
+                .andExpect(status().isNotFound());
+    }
+
+    private long queryCount() {
+
+        Timer timer = meterRegistry.find("querydsl.query").tag("method", "MemberRepository.searchByIds").timer();
+
+        return timer == null ? 0 : timer.count();
+    }
+}
@@ -0,0 +1,156 @@
+package hello.querydsl.repository;
+
+import com.querydsl.jpa.impl.JPAQueryFactory;
+import hello.querydsl.dto.MemberSearchCondition;
+import hello.querydsl.dto.MemberTeamDto;
+import hello.querydsl.entity.Member;
+import hello.querydsl.entity.Team;
+import hello.querydsl.support.QueryCount;
+import hello.querydsl.support.QueryCounter;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.persistence.EntityManager;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import static hello.querydsl.entity.QMember.member;
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * 역정규화한 팀 이름 검색, 팀 이름 변경 반영 테스트
+ *
+ * 커밋 후 이벤트로 반영하므로 @Transactional 없이 TransactionTemplate 으로 커밋하고 직접 정리
+ */
+@SpringBootTest(properties = {
+        "member.denormalized-team-name=true",
+        "member.team-name-batch-size=2"
+})
+class TeamNamePropagatorTest {
+
+    @Autowired
+    EntityManager em;
+
+    @Autowired
+    TransactionTemplate tx;
+
+    @Autowired
+    MemberRepository memberRepository;
+
+    @Autowired
+    TeamNamePropagator propagator;
+
+    @Autowired
+    JPAQueryFactory queryFactory;
+
+    Long teamAId;
+    Long teamBId;
+
+    @BeforeEach
+    public void before() {
+
+        tx.executeWithoutResult(status -> {
+
+            Team teamA = new Team("teamA");
+            Team teamB = new Team("teamB");
+
+            em.persist(teamA);
+            em.persist(teamB);
+
+            em.persist(new Member("member1", 10, teamA));
+            em.persist(new Member("member2", 20, teamA));
+            em.persist(new Member("member3", 30, teamA));
+            em.persist(new Member("member4", 40, teamB));
+
+            teamAId = teamA.getId();
+            teamBId = teamB.getId();
+        });
+    }
+
+    @AfterEach
+    public void after() {
+
+        tx.executeWithoutResult(status -> {
+
+            em.createQuery("DELETE FROM Member m").executeUpdate();
+            em.createQuery("DELETE FROM Team t").executeUpdate();
+        });
+    }
+
+    @Test
+    public void searchWithoutJoinTest() {
+
+        MemberSearchCondition condition = new MemberSearchCondition();
+        condition.setTeamName("teamA");
+
+        List<MemberTeamDto> result = new ArrayList<>();
+
+        QueryCount count = QueryCounter.count(() -> result.addAll(memberRepository.search(condition)));
+
+        assertThat(result).extracting("username").containsExactlyInAnyOrder("member1", "member2", "member3");
+        assertThat(result).extracting("teamName").containsOnly("teamA");
+        assertThat(count.getStatements().get(0)).doesNotContainIgnoringCase("join");
+    }
+
+    @Test
+    public void propagateTest() throws InterruptedException {
+
+        tx.executeWithoutResult(status -> em.find(Team.class, teamAId).setName("teamC"));
+
+        MemberSearchCondition condition = new MemberSearchCondition();
+        condition.setTeamName("teamC");
+
+        // 커밋 후 별도 스레드에서 반영
+        List<MemberTeamDto> result = memberRepository.search(condition);
+
+        for (int i = 0; i < 50 && result.size() < 3; i++) {
+
+            Thread.sleep(100);
+
+            result = memberRepository.search(condition);
+        }
+
+        assertThat(result).extracting("username").containsExactlyInAnyOrder("member1", "member2", "member3");
+
+        // 다시 반영해도 결과는 같음 (배치 크기 2 로 두 번 나누어 반영)
+        assertThat(propagator.propagate(teamAId)).isEqualTo(3);
+    }
+
+    @Test
+    public void movedMemberTest() {
+
+        // 반영할 teamA 회원 아이디를 읽은 후
+        List<Long> ids = queryFactory
+                            .select(member.id)
+                            .from(member)
+                            .where(member.team.id.eq(teamAId))
+                            .orderBy(member.id.asc())
+                            .fetch();
+
+        // update 전에 member3 을 teamB 로 옮김
+        tx.executeWithoutResult(status -> {
+
+            Member member3 = queryFactory.selectFrom(member).where(member.username.eq("member3")).fetchOne();
+            member3.changeTeam(em.find(Team.class, teamBId));
+        });
+
+        long updated = propagator.propagate(teamAId, ids, Collections.singletonMap("field", "teamName"));
+
+        // 옮긴 회원은 반영하지 않고, 옮긴 팀 이름을 유지
+        assertThat(ids).hasSize(3);
+        assertThat(updated).isEqualTo(2);
+
+        String teamName = queryFactory
+                            .select(member.teamName)
+                            .from(member)
+                            .where(member.username.eq("member3"))
+                            .fetchOne();
+
+        assertThat(teamName).isEqualTo("teamB");
+    }
+}
@@ -0,0 +1,110 @@
+package hello.querydsl.repository;
+
+import hello.querydsl.dto.TeamSummaryDto;
+import hello.querydsl.entity.Member;
+import hello.querydsl.entity.Team;
+import hello.querydsl.support.QueryCount;
+import hello.querydsl.support.QueryCounter;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.transaction.annotation.Transactional;
+
+import javax.persistence.EntityManager;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.tuple;
+
+@SpringBootTest
+@Transactional
+class TeamRepositoryTest {
+
+    @Autowired
+    EntityManager em;
+
+    @Autowired
+    TeamRepository teamRepository;
+
+    @BeforeEach
+    public void before() {
+
+        // teamA : 10명 (나이 0 ~ 9), teamB : 1명, teamC : 0명, team3 ~ team9 : 2명씩
+        Team teamA = new Team("teamA");
+        Team teamB = new Team("teamB");
+        Team teamC = new Team("teamC");
+
+        em.persist(teamA);
+        em.persist(teamB);
+        em.persist(teamC);
+
+        for (int i = 0; i < 10; i++) {
+
+            em.persist(new Member("memberA" + i, i, teamA));
+        }
+
+        em.persist(new Member("memberB", 50, teamB));
+
+        for (int i = 3; i < 10; i++) {
+
+            Team team = new Team("team" + i);
+
+            em.persist(team);
+            em.persist(new Member("member" + i + "-1", 20, team));
+            em.persist(new Member("member" + i + "-2", 30, team));
+        }
+
+        em.flush();
+        em.clear();
+    }
+
+    @Test
+    public void searchSummariesTest() {
+
+        Page<TeamSummaryDto> page = teamRepository.searchSummaries(PageRequest.of(0, 3), 3);
+
+        assertThat(page.getTotalElements()).isEqualTo(10);
+        assertThat(page.getContent())
+                .extracting("name", "memberCount", "minAge", "maxAge", "avgAge")
+                .containsExactly(
+                        tuple("teamA", 10L, 0, 9, 4.5),
+                        tuple("teamB", 1L, 50, 50, 50.0),
+                        tuple("teamC", 0L, null, null, null)
+                );
+
+        TeamSummaryDto teamA = page.getContent().get(0);
+
+        assertThat(teamA.getMembers())
+                .extracting("username", "teamName")
+                .containsExactly(
+                        tuple("memberA0", "teamA"),
+                        tuple("memberA1", "teamA"),
+                        tuple("memberA2", "teamA")
+                );
+
+        assertThat(page.getContent().get(1).getMembers()).extracting("username").containsExactly("memberB");
+        assertThat(page.getContent().get(2).getMembers()).isEmpty();
+    }
+
+    @Test
+    public void queryCountTest() {
+
+        // 팀 수와 상관없이 팀 페이지, 집계, 팀별 회원 쿼리 + 카운트 쿼리
+        QueryCount count = QueryCounter.count(() -> teamRepository.searchSummaries(PageRequest.of(0, 5), 5));
+
+        assertThat(count.getTotal()).isEqualTo(4);
+        assertThat(count.hasNPlusOne()).isFalse();
+
+        // 마지막 페이지가 페이지 크기보다 작으면 카운트 쿼리 생략
+        QueryCount lastPage = QueryCounter.count(() -> teamRepository.searchSummaries(PageRequest.of(0, 20), 5));
+
+        assertThat(lastPage.getTotal()).isEqualTo(3);
+
+        // 회원을 조회하지 않으면 팀 페이지, 집계
+        QueryCount withoutMembers = QueryCounter.count(() -> teamRepository.searchSummaries(PageRequest.of(0, 20), 0));
+
+        assertThat(withoutMembers.getTotal()).isEqualTo(2);
+    }
+}
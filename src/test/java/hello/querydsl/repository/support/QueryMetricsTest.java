@@ -0,0 +1,68 @@
+package hello.querydsl.repository.support;
+
+import hello.querydsl.dto.MemberSearchCondition;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * 쿼리 메트릭 태그 및 기록 테스트
+ */
+class QueryMetricsTest {
+
+    SimpleMeterRegistry registry = new SimpleMeterRegistry();
+    QueryMetrics queryMetrics = new QueryMetrics(registry);
+
+    @Test
+    public void shapeTest() {
+
+        MemberSearchCondition condition = new MemberSearchCondition();
+
+        assertThat(QueryMetrics.shapeOf(condition)).isEqualTo("none");
+
+        condition.setUsername(" ");
+        condition.setTeamName("teamB");
+        condition.setAgeLoe(40);
+
+        assertThat(QueryMetrics.shapeOf(condition)).isEqualTo("teamName,ageLoe");
+    }
+
+    @Test
+    public void recordTest() {
+
+        MemberSearchCondition condition = new MemberSearchCondition();
+        condition.setAgeGoe(10);
+
+        queryMetrics.record("MemberRepository.search", condition, () -> List.of(1, 2, 3), List::size);
+        queryMetrics.record("MemberRepository.search", condition, () -> List.of(1), List::size);
+
+        Timer timer = registry.get("querydsl.query")
+                                .tag("method", "MemberRepository.search")
+                                .tag("shape", "ageGoe")
+                                .timer();
+
+        assertThat(timer.count()).isEqualTo(2);
+        assertThat(registry.get("querydsl.query.rows").summary().totalAmount()).isEqualTo(4);
+    }
+
+    @Test
+    public void errorTest() {
+
+        assertThatThrownBy(() -> queryMetrics.record(
+                "MemberRepository.search",
+                new MemberSearchCondition(),
+                () -> { throw new IllegalStateException(); },
+                (Object result) -> 0
+        )).isInstanceOf(IllegalStateException.class);
+
+        assertThat(registry.get("querydsl.query.errors")
+                        .tag("exception", "IllegalStateException")
+                        .counter()
+                        .count()).isEqualTo(1);
+    }
+}
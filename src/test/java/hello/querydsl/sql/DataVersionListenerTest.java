@@ -0,0 +1,27 @@
+package hello.querydsl.sql;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * 쓰기 SQL 판단 테스트
+ */
+class DataVersionListenerTest {
+
+    @Test
+    public void isWriteTest() {
+
+        assertThat(DataVersionListener.isWrite("insert into member (age, username, member_id) values (?, ?, ?)")).isTrue();
+        assertThat(DataVersionListener.isWrite("/* update Member member1 set member1.age = ?1 */ update member set age=?")).isTrue();
+        assertThat(DataVersionListener.isWrite("  /* a */ /* b */ DELETE FROM member")).isTrue();
+        assertThat(DataVersionListener.isWrite("MERGE INTO member KEY (member_id) VALUES (?)")).isTrue();
+        assertThat(DataVersionListener.isWrite("TRUNCATE TABLE member")).isTrue();
+
+        assertThat(DataVersionListener.isWrite("/* select member1 from Member member1 */ select * from member")).isFalse();
+        assertThat(DataVersionListener.isWrite("select * from updated_member")).isFalse();
+        assertThat(DataVersionListener.isWrite("SELECT NEXT VALUE FOR member_seq FROM SYSTEM_RANGE(1, ?)")).isFalse();
+        assertThat(DataVersionListener.isWrite("/* insert")).isFalse();
+        assertThat(DataVersionListener.isWrite(null)).isFalse();
+    }
+}
@@ -0,0 +1,41 @@
+package hello.querydsl.sql;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.tuple;
+
+/**
+ * 느린 쿼리 보관 테스트
+ */
+class SlowQueryRecorderTest {
+
+    @Test
+    public void topNTest() {
+
+        SlowQuerySettings settings = new SlowQuerySettings();
+        settings.setTopN(2);
+
+        SlowQueryRecorder recorder = new SlowQueryRecorder(settings, null);
+
+        recorder.record(query("select 1", 300));
+        recorder.record(query("select 2", 100));
+        recorder.record(query("select 3", 200));
+
+        // 같은 SQL 은 가장 느렸던 기록만 유지
+        recorder.record(query("select 1", 250));
+        recorder.record(query("select 3", 400));
+
+        assertThat(recorder.getQueries())
+                .extracting("sql", "elapsedMillis")
+                .containsExactly(
+                        tuple("select 3", 400L),
+                        tuple("select 1", 300L)
+                );
+    }
+
+    private SlowQuery query(String sql, long elapsedMillis) {
+
+        return new SlowQuery(System.currentTimeMillis(), elapsedMillis, sql, sql, null);
+    }
+}
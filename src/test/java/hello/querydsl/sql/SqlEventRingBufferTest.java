@@ -0,0 +1,81 @@
+package hello.querydsl.sql;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * 링 버퍼 테스트
+ */
+class SqlEventRingBufferTest {
+
+    @Test
+    public void dropWhenFullTest() {
+
+        SqlEventRingBuffer buffer = new SqlEventRingBuffer(4);
+
+        for (int i = 0; i < 6; i++) {
+
+            buffer.offer(event("select " + i));
+        }
+
+        List<String> drained = new ArrayList<>();
+        buffer.drain(e -> drained.add(e.getSql()), 100);
+
+        assertThat(drained).containsExactly("select 0", "select 1", "select 2", "select 3");
+        assertThat(buffer.getDropped()).isEqualTo(2);
+
+        // 비운 뒤에는 다시 저장 가능
+        assertThat(buffer.offer(event("select 6"))).isTrue();
+    }
+
+    @Test
+    public void concurrentProducerTest() throws InterruptedException {
+
+        int producers = 4;
+        int perProducer = 10_000;
+
+        SqlEventRingBuffer buffer = new SqlEventRingBuffer(1024);
+        ExecutorService executor = Executors.newFixedThreadPool(producers);
+        CountDownLatch done = new CountDownLatch(producers);
+
+        for (int p = 0; p < producers; p++) {
+
+            executor.execute(() -> {
+
+                for (int i = 0; i < perProducer; i++) {
+
+                    buffer.offer(event("select 1"));
+                }
+
+                done.countDown();
+            });
+        }
+
+        long consumed = 0;
+
+        while (done.getCount() > 0) {
+
+            consumed += buffer.drain(e -> {}, 256);
+        }
+
+        consumed += buffer.drain(e -> {}, Integer.MAX_VALUE);
+
+        executor.shutdown();
+        executor.awaitTermination(1, TimeUnit.SECONDS);
+
+        assertThat(consumed + buffer.getDropped()).isEqualTo((long) producers * perProducer);
+    }
+
+    private SqlEvent event(String sql) {
+
+        return new SqlEvent(System.currentTimeMillis(), 0, 1, sql, null);
+    }
+}
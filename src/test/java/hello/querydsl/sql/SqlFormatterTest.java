@@ -0,0 +1,37 @@
+package hello.querydsl.sql;
+
+import com.p6spy.engine.common.PreparedStatementInformation;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * JPQL 주석이 붙은 SQL 의 파라미터 값 채우기 테스트
+ */
+class SqlFormatterTest {
+
+    @Test
+    public void withValuesTest() {
+
+        PreparedStatementInformation statement = new PreparedStatementInformation(
+                null,
+                "/* select member1 from Member member1 where member1.username = ?1 */ select * from member where username=? and age>=?"
+        );
+
+        statement.setParameterValue(1, "member1");
+        statement.setParameterValue(2, 10);
+
+        assertThat(SqlFormatter.withValues(statement))
+                .isEqualTo("select * from member where username='member1' and age>=10");
+    }
+
+    @Test
+    public void withoutCommentTest() {
+
+        PreparedStatementInformation statement = new PreparedStatementInformation(null, "select * from member where age>=?");
+
+        statement.setParameterValue(1, 10);
+
+        assertThat(SqlFormatter.withValues(statement)).isEqualTo("select * from member where age>=10");
+    }
+}
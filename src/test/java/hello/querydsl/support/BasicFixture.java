@@ -0,0 +1,30 @@
+package hello.querydsl.support;
+
+import hello.querydsl.entity.Member;
+import hello.querydsl.entity.Team;
+
+import javax.persistence.EntityManager;
+
+/**
+ * 기본 픽스처
+ *
+ * teamA : member1(10), member2(20)
+ * teamB : member3(30), member4(40)
+ */
+public class BasicFixture implements Fixture {
+
+    @Override
+    public void seed(EntityManager em) {
+
+        Team teamA = new Team("teamA");
+        Team teamB = new Team("teamB");
+
+        em.persist(teamA);
+        em.persist(teamB);
+
+        em.persist(new Member("member1", 10, teamA));
+        em.persist(new Member("member2", 20, teamA));
+        em.persist(new Member("member3", 30, teamB));
+        em.persist(new Member("member4", 40, teamB));
+    }
+}
@@ -0,0 +1,147 @@
+package hello.querydsl.support;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * H2 테이블 데이터 스냅샷
+ *
+ * SCRIPT 명령의 결과 중 INSERT 문만 보관해 두고
+ * 복원할 때는 스키마를 그대로 둔 채 모든 테이블을 TRUNCATE 한 뒤 INSERT 문을 다시 실행한다.
+ * 엔티티를 다시 persist 하지 않으므로 영속성 컨텍스트, 시퀀스 조회, 하이버네이트 이벤트를 거치지 않는다.
+ *
+ * 시퀀스는 복원하지 않는다. (복원한 아이디보다 항상 크므로 새로 저장하는 엔티티와 겹치지 않는다.)
+ */
+public final class DatabaseSnapshot {
+
+    private final List<String> inserts;
+
+    private DatabaseSnapshot(List<String> inserts) {
+
+        this.inserts = inserts;
+    }
+
+    /**
+     * 현재 커밋된 데이터로 스냅샷 생성
+     *
+     * @param dataSource
+     * @return 스냅샷
+     */
+    public static DatabaseSnapshot take(DataSource dataSource) {
+
+        List<String> inserts = new ArrayList<>();
+
+        try (Connection connection = dataSource.getConnection();
+             Statement statement = connection.createStatement();
+             ResultSet rs = statement.executeQuery("SCRIPT NOPASSWORDS NOSETTINGS")) {
+
+            while (rs.next()) {
+
+                String sql = rs.getString(1);
+
+                if (sql.startsWith("INSERT INTO")) {
+
+                    inserts.add(sql);
+                }
+            }
+        } catch (SQLException e) {
+
+            throw new IllegalStateException("스냅샷을 생성할 수 없습니다.", e);
+        }
+
+        return new DatabaseSnapshot(Collections.unmodifiableList(inserts));
+    }
+
+    /**
+     * 모든 테이블을 비우고 스냅샷 데이터로 복원
+     *
+     * @param dataSource
+     */
+    public void restore(DataSource dataSource) {
+
+        execute(dataSource, inserts);
+    }
+
+    /**
+     * 모든 테이블 비우기
+     *
+     * @param dataSource
+     */
+    public static void clear(DataSource dataSource) {
+
+        execute(dataSource, Collections.emptyList());
+    }
+
+    private static void execute(DataSource dataSource, List<String> inserts) {
+
+        try (Connection connection = dataSource.getConnection();
+             Statement statement = connection.createStatement()) {
+
+            boolean autoCommit = connection.getAutoCommit();
+
+            connection.setAutoCommit(false);
+
+            try {
+
+                // 외래 키 순서와 상관없이 비우고 채우기 위해 참조 무결성 검사를 잠시 끈다.
+                statement.execute("SET REFERENTIAL_INTEGRITY FALSE");
+
+                for (String table : tables(statement)) {
+
+                    statement.addBatch("TRUNCATE TABLE " + table);
+                }
+
+                for (String insert : inserts) {
+
+                    statement.addBatch(insert);
+                }
+
+                statement.executeBatch();
+                connection.commit();
+            } catch (SQLException e) {
+
+                connection.rollback();
+
+                throw e;
+            } finally {
+
+                statement.execute("SET REFERENTIAL_INTEGRITY TRUE");
+                connection.setAutoCommit(autoCommit);
+            }
+        } catch (SQLException e) {
+
+            throw new IllegalStateException("스냅샷을 복원할 수 없습니다.", e);
+        }
+    }
+
+    private static List<String> tables(Statement statement) throws SQLException {
+
+        List<String> tables = new ArrayList<>();
+
+        try (ResultSet rs = statement.executeQuery(
+                "SELECT TABLE_SCHEMA, TABLE_NAME FROM INFORMATION_SCHEMA.TABLES" +
+                " WHERE TABLE_SCHEMA = 'PUBLIC' AND TABLE_TYPE IN ('TABLE', 'BASE TABLE')")) {
+
+            while (rs.next()) {
+
+                tables.add('"' + rs.getString(1) + "\".\"" + rs.getString(2) + '"');
+            }
+        }
+
+        return tables;
+    }
+
+    /**
+     * @return 스냅샷 INSERT 문 수
+     */
+    public int size() {
+
+        return inserts.size();
+    }
+}
@@ -0,0 +1,18 @@
+package hello.querydsl.support;
+
+import javax.persistence.EntityManager;
+
+/**
+ * 테스트 데이터 픽스처
+ *
+ * 구현 클래스는 기본 생성자가 있어야 한다. (@UseFixture 로 지정)
+ */
+public interface Fixture {
+
+    /**
+     * 픽스처 데이터 저장, 트랜잭션 안에서 한 번 호출되고 커밋된다.
+     *
+     * @param em
+     */
+    void seed(EntityManager em);
+}
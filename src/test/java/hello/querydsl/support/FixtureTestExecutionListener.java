@@ -0,0 +1,130 @@
+package hello.querydsl.support;
+
+import hello.querydsl.repository.MemberAgeStatistics;
+import org.springframework.beans.BeanUtils;
+import org.springframework.context.ApplicationContext;
+import org.springframework.core.annotation.AnnotatedElementUtils;
+import org.springframework.orm.jpa.SharedEntityManagerCreator;
+import org.springframework.test.context.TestContext;
+import org.springframework.test.context.support.AbstractTestExecutionListener;
+import org.springframework.test.context.transaction.TestTransaction;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.persistence.EntityManager;
+import javax.persistence.EntityManagerFactory;
+import javax.sql.DataSource;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * @UseFixture 픽스처 적재, 복원, 정리
+ *
+ * - 테스트 클래스 시작 : DB 에 픽스처 스냅샷이 없으면 Fixture.seed() 를 커밋하고 스냅샷 생성, 있으면 스냅샷으로 복원
+ * - 테스트 메서드 종료 : 테스트 트랜잭션이 롤백되지 않았으면(커밋, 트랜잭션 없음) 다음 테스트 전에 복원
+ * - 테스트 클래스 종료 : 모든 테이블 비우기
+ *
+ * 스냅샷은 DataSource(스프링 컨텍스트의 메모리 DB) 별로 보관하므로 DB 가 다른 컨텍스트, 포크끼리는 서로 영향이 없다.
+ * JDBC 로 직접 복원하므로 커밋된 데이터를 캐시하는 MemberAgeStatistics 는 복원할 때마다 비운다.
+ *
+ * 우선순위가 가장 낮아서 TransactionalTestExecutionListener 의 트랜잭션 안에서 afterTestMethod 가 호출된다.
+ */
+public class FixtureTestExecutionListener extends AbstractTestExecutionListener {
+
+    private static final Map<DataSource, Map<Class<? extends Fixture>, DatabaseSnapshot>> SNAPSHOTS = new ConcurrentHashMap<>();
+
+    private static final String DIRTY = FixtureTestExecutionListener.class.getName() + ".dirty";
+
+    @Override
+    public void beforeTestClass(TestContext testContext) {
+
+        load(testContext);
+    }
+
+    @Override
+    public void beforeTestMethod(TestContext testContext) {
+
+        if (Boolean.TRUE.equals(testContext.removeAttribute(DIRTY))) {
+
+            load(testContext);
+        }
+    }
+
+    @Override
+    public void afterTestMethod(TestContext testContext) {
+
+        boolean rolledBack = TestTransaction.isActive() && TestTransaction.isFlaggedForRollback();
+
+        if (!rolledBack) {
+
+            testContext.setAttribute(DIRTY, Boolean.TRUE);
+        }
+    }
+
+    @Override
+    public void afterTestClass(TestContext testContext) {
+
+        testContext.removeAttribute(DIRTY);
+
+        ApplicationContext context = testContext.getApplicationContext();
+
+        DatabaseSnapshot.clear(context.getBean(DataSource.class));
+        invalidateCaches(context);
+    }
+
+    private void load(TestContext testContext) {
+
+        Class<? extends Fixture> fixtureClass = fixtureClass(testContext);
+
+        if (fixtureClass == null) {
+
+            return;
+        }
+
+        ApplicationContext context = testContext.getApplicationContext();
+        DataSource dataSource = context.getBean(DataSource.class);
+
+        Map<Class<? extends Fixture>, DatabaseSnapshot> snapshots = SNAPSHOTS.computeIfAbsent(dataSource, key -> new ConcurrentHashMap<>());
+        DatabaseSnapshot snapshot = snapshots.get(fixtureClass);
+
+        if (snapshot == null) {
+
+            DatabaseSnapshot.clear(dataSource);
+            invalidateCaches(context);
+            seed(context, BeanUtils.instantiateClass(fixtureClass));
+
+            snapshots.put(fixtureClass, DatabaseSnapshot.take(dataSource));
+        } else {
+
+            snapshot.restore(dataSource);
+            invalidateCaches(context);
+        }
+    }
+
+    /**
+     * 테스트 트랜잭션과 별개의 새 트랜잭션에서 저장하고 커밋
+     */
+    private static void seed(ApplicationContext context, Fixture fixture) {
+
+        EntityManager em = SharedEntityManagerCreator.createSharedEntityManager(context.getBean(EntityManagerFactory.class));
+
+        TransactionTemplate transactionTemplate = new TransactionTemplate(context.getBean(PlatformTransactionManager.class));
+        transactionTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+
+        transactionTemplate.executeWithoutResult(status -> fixture.seed(em));
+    }
+
+    private static void invalidateCaches(ApplicationContext context) {
+
+        context.getBean(EntityManagerFactory.class).getCache().evictAll();
+        context.getBeanProvider(MemberAgeStatistics.class).ifAvailable(MemberAgeStatistics::invalidate);
+    }
+
+    private static Class<? extends Fixture> fixtureClass(TestContext testContext) {
+
+        UseFixture useFixture = AnnotatedElementUtils.findMergedAnnotation(testContext.getTestClass(), UseFixture.class);
+
+        return useFixture != null ? useFixture.value() : null;
+    }
+}
@@ -0,0 +1,77 @@
+package hello.querydsl.support;
+
+import hello.querydsl.entity.Member;
+import org.junit.jupiter.api.MethodOrderer;
+import org.junit.jupiter.api.Order;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestMethodOrder;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.annotation.Commit;
+import org.springframework.transaction.annotation.Transactional;
+
+import javax.persistence.EntityManager;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * 픽스처 적재, 복원 테스트
+ *
+ * 커밋한 테스트 다음 테스트에서 픽스처가 스냅샷으로 복원되는지 순서대로 확인
+ */
+@SpringBootTest
+@Transactional
+@UseFixture(BasicFixture.class)
+@TestMethodOrder(MethodOrderer.OrderAnnotation.class)
+class FixtureTestExecutionListenerTest {
+
+    @Autowired
+    EntityManager em;
+
+    @Test
+    @Order(1)
+    @Commit
+    public void commitTest() {
+
+        assertThat(usernames()).containsExactly("member1", "member2", "member3", "member4");
+
+        em.createQuery("DELETE FROM Member m WHERE m.age >= 30").executeUpdate();
+        em.persist(new Member("member5", 50));
+    }
+
+    @Test
+    @Order(2)
+    public void restoreTest() {
+
+        // 커밋된 변경은 지워지고 픽스처로 복원
+        assertThat(usernames()).containsExactly("member1", "member2", "member3", "member4");
+
+        List<Member> members = em.createQuery("SELECT m FROM Member m JOIN FETCH m.team WHERE m.username = 'member3'", Member.class)
+                                    .getResultList();
+
+        assertThat(members).extracting(m -> m.getTeam().getName()).containsExactly("teamB");
+    }
+
+    @Test
+    @Order(3)
+    public void rollbackTest() {
+
+        em.createQuery("DELETE FROM Member m").executeUpdate();
+
+        assertThat(usernames()).isEmpty();
+    }
+
+    @Test
+    @Order(4)
+    public void afterRollbackTest() {
+
+        assertThat(usernames()).containsExactly("member1", "member2", "member3", "member4");
+    }
+
+    private List<String> usernames() {
+
+        return em.createQuery("SELECT m.username FROM Member m ORDER BY m.username", String.class)
+                    .getResultList();
+    }
+}
@@ -0,0 +1,64 @@
+package hello.querydsl.support;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * QueryCounter 로 측정한 SQL 실행 결과
+ */
+public class QueryCount {
+
+    private final List<String> statements = new ArrayList<>();
+
+    void add(String sql) {
+
+        statements.add(sql.trim());
+    }
+
+    public int getTotal() {
+
+        return statements.size();
+    }
+
+    public List<String> getStatements() {
+
+        return Collections.unmodifiableList(statements);
+    }
+
+    /**
+     * N+1 탐지
+     *
+     * StatementInspector 는 파라미터 바인딩 전 SQL 을 받으므로
+     * id 만 다른 동일한 SQL 이 threshold 번 이상 실행되었다면 N+1 로 판단
+     *
+     * @param threshold
+     * @return 반복 실행된 SQL 과 실행 횟수
+     */
+    public Map<String, Integer> getRepeatedStatements(int threshold) {
+
+        Map<String, Integer> counts = new LinkedHashMap<>();
+
+        for (String sql : statements) {
+
+            counts.merge(sql, 1, Integer::sum);
+        }
+
+        counts.values().removeIf(count -> count < threshold);
+
+        return counts;
+    }
+
+    public boolean hasNPlusOne() {
+
+        return !getRepeatedStatements(2).isEmpty();
+    }
+
+    @Override
+    public String toString() {
+
+        return "QueryCount{total=" + getTotal() + ", statements=" + statements + "}";
+    }
+}
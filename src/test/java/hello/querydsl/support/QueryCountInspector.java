@@ -0,0 +1,19 @@
+package hello.querydsl.support;
+
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+
+/**
+ * 하이버네이트가 실행하는 모든 SQL 을 QueryCounter 에 기록
+ *
+ * 테스트 application.yml 의 hibernate.session_factory.statement_inspector 로 등록
+ */
+public class QueryCountInspector implements StatementInspector {
+
+    @Override
+    public String inspect(String sql) {
+
+        QueryCounter.record(sql);
+
+        return sql;
+    }
+}
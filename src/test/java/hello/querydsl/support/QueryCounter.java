@@ -0,0 +1,84 @@
+package hello.querydsl.support;
+
+import java.util.function.Supplier;
+
+/**
+ * 블록 단위 SQL 실행 횟수 측정
+ *
+ * 현재 스레드에서 실행된 SQL 만 기록한다.
+ * 쓰기 지연된 SQL 까지 포함하려면 블록 안에서 em.flush() 를 호출해야 한다.
+ *
+ * QueryCount count = QueryCounter.count(() -> memberRepository.searchPageComplex(condition, pageable));
+ * assertThat(count.getTotal()).isLessThanOrEqualTo(2);
+ */
+public final class QueryCounter {
+
+    private static final ThreadLocal<QueryCount> CURRENT = new ThreadLocal<>();
+
+    private QueryCounter() {
+    }
+
+    /**
+     * 측정 시작 - stop() 까지 실행된 SQL 을 기록
+     */
+    public static void start() {
+
+        CURRENT.set(new QueryCount());
+    }
+
+    /**
+     * 측정 종료
+     *
+     * @return 측정 시작 이후 실행된 SQL
+     */
+    public static QueryCount stop() {
+
+        QueryCount count = CURRENT.get();
+
+        CURRENT.remove();
+
+        if (count == null) {
+
+            throw new IllegalStateException("QueryCounter.start() 가 호출되지 않았습니다.");
+        }
+
+        return count;
+    }
+
+    public static QueryCount count(Runnable block) {
+
+        return count(() -> {
+
+            block.run();
+
+            return null;
+        });
+    }
+
+    public static QueryCount count(Supplier<?> block) {
+
+        start();
+
+        try {
+
+            block.get();
+        } catch (RuntimeException | Error e) {
+
+            CURRENT.remove();
+
+            throw e;
+        }
+
+        return stop();
+    }
+
+    static void record(String sql) {
+
+        QueryCount count = CURRENT.get();
+
+        if (count != null) {
+
+            count.add(sql);
+        }
+    }
+}
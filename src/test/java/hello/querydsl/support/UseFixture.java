@@ -0,0 +1,34 @@
+package hello.querydsl.support;
+
+import org.springframework.test.context.TestExecutionListeners;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * 테스트 클래스에서 사용할 픽스처 지정
+ *
+ * 픽스처는 DB 마다 한 번만 저장하고 스냅샷을 떠 둔다. (FixtureTestExecutionListener)
+ * 테스트는 @Transactional 롤백으로 픽스처를 그대로 유지하고
+ * 커밋한 테스트가 있으면 다음 테스트 전에 스냅샷으로 복원한다.
+ * 테스트 클래스가 끝나면 테이블을 비워서 같은 스프링 컨텍스트를 쓰는 다른 테스트에 영향을 주지 않는다.
+ *
+ * <pre>
+ * &#64;SpringBootTest
+ * &#64;Transactional
+ * &#64;UseFixture(BasicFixture.class)
+ * class MemberTest { ... }
+ * </pre>
+ */
+@Target(ElementType.TYPE)
+@Retention(RetentionPolicy.RUNTIME)
+@TestExecutionListeners(
+        listeners = FixtureTestExecutionListener.class,
+        mergeMode = TestExecutionListeners.MergeMode.MERGE_WITH_DEFAULTS
+)
+public @interface UseFixture {
+
+    Class<? extends Fixture> value();
+}
@@ -0,0 +1,99 @@
+package hello.querydsl.tracing;
+
+import hello.querydsl.dto.MemberSearchCondition;
+import hello.querydsl.entity.Member;
+import hello.querydsl.entity.Team;
+import hello.querydsl.repository.MemberRepository;
+import io.opentelemetry.sdk.testing.exporter.InMemorySpanExporter;
+import io.opentelemetry.sdk.trace.SdkTracerProvider;
+import io.opentelemetry.sdk.trace.data.SpanData;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.transaction.annotation.Transactional;
+
+import javax.persistence.EntityManager;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * 쿼리 단계별 스팬 기록 테스트
+ */
+@SpringBootTest(properties = {"query-tracing.enabled=true", "query-tracing.file="})
+@Transactional
+class QueryTracingTest {
+
+    @Autowired
+    EntityManager em;
+
+    @Autowired
+    MemberRepository memberRepository;
+
+    @Autowired
+    SdkTracerProvider sdkTracerProvider;
+
+    @Autowired
+    InMemorySpanExporter exporter;
+
+    @TestConfiguration
+    static class Config {
+
+        @Bean
+        InMemorySpanExporter inMemorySpanExporter() {
+
+            return InMemorySpanExporter.create();
+        }
+    }
+
+    @Test
+    public void phaseSpanTest() {
+
+        Team teamA = new Team("teamA");
+
+        em.persist(teamA);
+        em.persist(new Member("member1", 10, teamA));
+        em.persist(new Member("member2", 20, teamA));
+
+        em.flush();
+        em.clear();
+
+        exporter.reset();
+
+        MemberSearchCondition condition = new MemberSearchCondition();
+        condition.setTeamName("teamA");
+
+        memberRepository.searchPageComplex(condition, PageRequest.of(0, 1));
+
+        sdkTracerProvider.forceFlush().join(5, TimeUnit.SECONDS);
+
+        List<SpanData> spans = exporter.getFinishedSpanItems();
+
+        assertThat(spans)
+                .extracting(SpanData::getName)
+                .contains(
+                        "querydsl.build",
+                        "querydsl.fetch",
+                        "querydsl.fetchCount",
+                        "querydsl.serialize",
+                        "hibernate.translate",
+                        "jdbc.execute",
+                        "hydrate"
+                );
+
+        SpanData fetch = spans.stream()
+                                .filter(span -> span.getName().equals("querydsl.fetch"))
+                                .findFirst()
+                                .orElseThrow();
+
+        // 하위 단계 스팬은 fetch 스팬의 자식
+        assertThat(spans)
+                .filteredOn(span -> span.getParentSpanId().equals(fetch.getSpanId()))
+                .extracting(SpanData::getName)
+                .contains("querydsl.serialize", "hibernate.translate", "jdbc.execute", "hydrate");
+    }
+}
@@ -0,0 +1,127 @@
+package hello.querydsl.web;
+
+import com.querydsl.jpa.impl.JPAQueryFactory;
+import hello.querydsl.entity.Member;
+import hello.querydsl.support.BasicFixture;
+import hello.querydsl.support.QueryCount;
+import hello.querydsl.support.QueryCounter;
+import hello.querydsl.support.UseFixture;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.persistence.EntityManager;
+
+import static hello.querydsl.entity.QMember.member;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * 회원 검색 조건부 GET 테스트
+ *
+ * 커밋된 쓰기로 ETag 가 바뀌는지 확인해야 하므로 @Transactional 없이 실행하고 픽스처 복원으로 정리
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+@UseFixture(BasicFixture.class)
+class DataVersionETagInterceptorTest {
+
+    @Autowired
+    MockMvc mockMvc;
+
+    @Autowired
+    TransactionTemplate transactionTemplate;
+
+    @Autowired
+    EntityManager em;
+
+    @Autowired
+    JPAQueryFactory queryFactory;
+
+    @Test
+    public void notModifiedTest() throws Exception {
+
+        String etag = fetchETag("/v3/members?teamName=teamA");
+
+        QueryCount count = QueryCounter.count(() -> {
+
+            try {
+
+                mockMvc.perform(get("/v3/members?teamName=teamA").header(HttpHeaders.IF_NONE_MATCH, etag))
+                        .andExpect(status().isNotModified())
+                        .andExpect(header().string(HttpHeaders.ETAG, etag));
+            } catch (Exception e) {
+
+                throw new IllegalStateException(e);
+            }
+        });
+
+        assertThat(count.getTotal()).isZero();
+
+        // 데이터가 같으면 URL 이 달라도 같은 버전
+        assertThat(fetchETag("/v4/members?teamName=teamB")).isEqualTo(etag);
+    }
+
+    @Test
+    public void persistTest() throws Exception {
+
+        String etag = fetchETag("/v2/members");
+
+        transactionTemplate.executeWithoutResult(status -> em.persist(new Member("member5", 50)));
+
+        mockMvc.perform(get("/v2/members").header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andExpect(status().isOk());
+
+        assertThat(fetchETag("/v2/members")).isNotEqualTo(etag);
+    }
+
+    @Test
+    public void bulkUpdateTest() throws Exception {
+
+        String etag = fetchETag("/v2/members?fields=username");
+
+        transactionTemplate.executeWithoutResult(status -> queryFactory
+                .update(member)
+                .set(member.age, member.age.add(1))
+                .execute());
+
+        assertThat(fetchETag("/v2/members?fields=username")).isNotEqualTo(etag);
+    }
+
+    @Test
+    public void rollbackTest() throws Exception {
+
+        String etag = fetchETag("/v3/members");
+
+        transactionTemplate.executeWithoutResult(status -> {
+
+            em.persist(new Member("member5", 50));
+            em.flush();
+
+            status.setRollbackOnly();
+        });
+
+        mockMvc.perform(get("/v3/members").header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andExpect(status().isNotModified());
+    }
+
+    private String fetchETag(String url) throws Exception {
+
+        MvcResult result = mockMvc.perform(get(url))
+                .andExpect(status().isOk())
+                .andReturn();
+
+        String etag = result.getResponse().getHeader(HttpHeaders.ETAG);
+
+        assertThat(etag).startsWith("W/\"");
+
+        return etag;
+    }
+}
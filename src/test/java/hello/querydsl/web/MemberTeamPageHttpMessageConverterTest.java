@@ -0,0 +1,172 @@
+package hello.querydsl.web;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import hello.querydsl.support.BasicFixture;
+import hello.querydsl.support.UseFixture;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import java.io.ByteArrayInputStream;
+import java.util.zip.GZIPInputStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * 회원 페이지 간단한 JSON 응답 테스트
+ */
+@SpringBootTest(properties = "member-page.gzip-min-rows=2")
+@AutoConfigureMockMvc
+@UseFixture(BasicFixture.class)
+class MemberTeamPageHttpMessageConverterTest {
+
+    @Autowired
+    MockMvc mockMvc;
+
+    @Autowired
+    ObjectMapper objectMapper;
+
+    @Test
+    public void pageTest() throws Exception {
+
+        mockMvc.perform(get("/v3/members?teamName=teamA&size=1").accept(MemberTeamPageWriter.MEDIA_TYPE_VALUE))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(MemberTeamPageWriter.MEDIA_TYPE_VALUE))
+                .andExpect(header().doesNotExist(HttpHeaders.CONTENT_ENCODING))
+                .andExpect(jsonPath("$.content[0].username").value("member1"))
+                .andExpect(jsonPath("$.content[0].age").value(10))
+                .andExpect(jsonPath("$.content[0].teamName").value("teamA"))
+                .andExpect(jsonPath("$.content[0].memberId").isNumber())
+                .andExpect(jsonPath("$.content[0].teamId").isNumber())
+                .andExpect(jsonPath("$.page").value(0))
+                .andExpect(jsonPath("$.size").value(1))
+                .andExpect(jsonPath("$.totalElements").value(2))
+                .andExpect(jsonPath("$.totalPages").value(2))
+                .andExpect(jsonPath("$.pageable").doesNotExist());
+    }
+
+    @Test
+    public void sliceTest() throws Exception {
+
+        mockMvc.perform(get("/v4/members?size=3").accept(MemberTeamPageWriter.MEDIA_TYPE_VALUE))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.content.length()").value(3))
+                .andExpect(jsonPath("$.hasNext").value(true))
+                .andExpect(jsonPath("$.totalElements").doesNotExist());
+    }
+
+    @Test
+    public void defaultJsonTest() throws Exception {
+
+        // Accept 가 없거나 application/json 이면 기존 PageImpl JSON
+        mockMvc.perform(get("/v3/members"))
+                .andExpect(status().isOk())
+                .andExpect(content().contentTypeCompatibleWith(MediaType.APPLICATION_JSON))
+                .andExpect(jsonPath("$.pageable").exists());
+
+        mockMvc.perform(get("/v3/members").accept(MediaType.APPLICATION_JSON, MediaType.ALL))
+                .andExpect(jsonPath("$.pageable").exists());
+    }
+
+    @Test
+    public void gzipTest() throws Exception {
+
+        MvcResult result = mockMvc.perform(get("/v2/members")
+                        .accept(MemberTeamPageWriter.MEDIA_TYPE_VALUE)
+                        .header(HttpHeaders.ACCEPT_ENCODING, "gzip, deflate"))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.CONTENT_ENCODING, "gzip"))
+                .andExpect(header().stringValues(HttpHeaders.VARY, HttpHeaders.ACCEPT, HttpHeaders.ACCEPT_ENCODING))
+                .andReturn();
+
+        JsonNode page = objectMapper.readTree(new GZIPInputStream(new ByteArrayInputStream(result.getResponse().getContentAsByteArray())));
+
+        assertThat(page.get("content")).hasSize(4);
+        assertThat(page.get("totalElements").asLong()).isEqualTo(4);
+
+        // 압축 기준 건수 미만
+        mockMvc.perform(get("/v2/members?size=1")
+                        .accept(MemberTeamPageWriter.MEDIA_TYPE_VALUE)
+                        .header(HttpHeaders.ACCEPT_ENCODING, "gzip"))
+                .andExpect(header().doesNotExist(HttpHeaders.CONTENT_ENCODING))
+                .andExpect(jsonPath("$.content.length()").value(1));
+    }
+
+    @Test
+    public void varyAcceptTest() throws Exception {
+
+        // 같은 URL 이 Accept 에 따라 다른 표현으로 응답하므로 JSON, 간단한 JSON 모두 Vary: Accept
+        MvcResult json = mockMvc.perform(get("/v3/members?teamName=teamA"))
+                .andExpect(status().isOk())
+                .andExpect(header().stringValues(HttpHeaders.VARY, HttpHeaders.ACCEPT))
+                .andReturn();
+
+        MvcResult compact = mockMvc.perform(get("/v3/members?teamName=teamA").accept(MemberTeamPageWriter.MEDIA_TYPE_VALUE))
+                .andExpect(status().isOk())
+                .andExpect(header().stringValues(HttpHeaders.VARY, HttpHeaders.ACCEPT))
+                .andReturn();
+
+        String jsonETag = json.getResponse().getHeader(HttpHeaders.ETAG);
+        String compactETag = compact.getResponse().getHeader(HttpHeaders.ETAG);
+
+        // 표현마다 다른 ETag
+        assertThat(compactETag).isNotEqualTo(jsonETag);
+
+        mockMvc.perform(get("/v3/members?teamName=teamA").header(HttpHeaders.IF_NONE_MATCH, compactETag))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.pageable").exists());
+
+        mockMvc.perform(get("/v3/members?teamName=teamA").accept(MemberTeamPageWriter.MEDIA_TYPE_VALUE).header(HttpHeaders.IF_NONE_MATCH, compactETag))
+                .andExpect(status().isNotModified())
+                .andExpect(header().stringValues(HttpHeaders.VARY, HttpHeaders.ACCEPT));
+
+        // ETag 가 없는 핸들러도 Vary: Accept
+        mockMvc.perform(get("/v5/members"))
+                .andExpect(header().stringValues(HttpHeaders.VARY, HttpHeaders.ACCEPT));
+    }
+
+    @Test
+    public void isRequestedTest() {
+
+        assertThat(MemberTeamPageHttpMessageConverter.isRequested(null)).isFalse();
+        assertThat(MemberTeamPageHttpMessageConverter.isRequested("*/*")).isFalse();
+        assertThat(MemberTeamPageHttpMessageConverter.isRequested("application/json, " + MemberTeamPageWriter.MEDIA_TYPE_VALUE + ";q=0.5")).isFalse();
+        assertThat(MemberTeamPageHttpMessageConverter.isRequested(MemberTeamPageWriter.MEDIA_TYPE_VALUE + ", */*")).isTrue();
+        assertThat(MemberTeamPageHttpMessageConverter.isRequested(MemberTeamPageWriter.MEDIA_TYPE_VALUE + ";q=0, application/json")).isFalse();
+    }
+
+    @Test
+    public void acceptsGzipTest() {
+
+        assertThat(MemberTeamPageHttpMessageConverter.acceptsGzip(null)).isFalse();
+        assertThat(MemberTeamPageHttpMessageConverter.acceptsGzip("gzip, deflate")).isTrue();
+        assertThat(MemberTeamPageHttpMessageConverter.acceptsGzip("deflate, GZIP;q=0.5")).isTrue();
+        assertThat(MemberTeamPageHttpMessageConverter.acceptsGzip("gzip;q=0, deflate")).isFalse();
+        assertThat(MemberTeamPageHttpMessageConverter.acceptsGzip("gzip; q=0.0")).isFalse();
+        assertThat(MemberTeamPageHttpMessageConverter.acceptsGzip("*")).isTrue();
+        assertThat(MemberTeamPageHttpMessageConverter.acceptsGzip("*;q=1, gzip;q=0")).isFalse();
+        assertThat(MemberTeamPageHttpMessageConverter.acceptsGzip("deflate, br")).isFalse();
+    }
+
+    @Test
+    public void gzipRefusedTest() throws Exception {
+
+        mockMvc.perform(get("/v2/members")
+                        .accept(MemberTeamPageWriter.MEDIA_TYPE_VALUE)
+                        .header(HttpHeaders.ACCEPT_ENCODING, "gzip;q=0, identity"))
+                .andExpect(status().isOk())
+                .andExpect(header().doesNotExist(HttpHeaders.CONTENT_ENCODING))
+                .andExpect(jsonPath("$.content.length()").value(4));
+    }
+}